@@ -12,6 +12,7 @@ public class ZegoQuickStartConstants {
     public static final int ERROR_CODE_INVALID_PARAMETER = -2;
     public static final int ERROR_CODE_NETWORK_ERROR = -3;
     public static final int ERROR_CODE_PARSE_ERROR = -4;
+    public static final int ERROR_CODE_CIRCUIT_OPEN = -5;  // 服务端异常，熔断中，请求未发出
     
     // ==================== 默认视频配置 ====================
     public static final String DEFAULT_VIDEO_CODEC = "H264";
@@ -20,6 +21,38 @@ public class ZegoQuickStartConstants {
     public static final int DEFAULT_VIDEO_WIDTH_LARGE = 720;
     public static final int DEFAULT_VIDEO_HEIGHT_LARGE = 900;
     public static final int DEFAULT_VIDEO_BITRATE = 800;
+    public static final int DEFAULT_VIDEO_BITRATE_LARGE = 1500;
+    
+    // ==================== 输出模式治理配置 ====================
+    public static final boolean OUTPUT_MODE_GOVERNOR_ENABLED = true;       // 根据拉流表现为下一个任务选择小图/大图模式
+    public static final double OUTPUT_MODE_DOWNGRADE_DECODE_RATIO = 0.8;   // 解码帧率/接收帧率低于该值记为差样本
+    public static final double OUTPUT_MODE_UPGRADE_DECODE_RATIO = 0.95;    // 高于该值（且无卡顿、无温控）才记为好样本
+    public static final double OUTPUT_MODE_UPGRADE_BANDWIDTH_HEADROOM = 1.5; // 升级要求下行带宽达到大图码率的倍数
+    public static final int OUTPUT_MODE_DOWNGRADE_SAMPLES = 3;             // 连续差样本数（质量回调约3秒一次）
+    public static final int OUTPUT_MODE_UPGRADE_SAMPLES = 10;              // 连续好样本数
+    public static final long OUTPUT_MODE_MIN_DWELL_MS = 60 * 1000L;        // 两次切换的最短间隔
+    
+    // ==================== 拉流缓冲区自适应配置 ====================
+    public static final int JITTER_BUFFER_INITIAL_MIN_MS = 100;          // 开始拉流时的缓冲区范围
+    public static final int JITTER_BUFFER_INITIAL_MAX_MS = 2000;
+    public static final double JITTER_TARGET_PERCENTILE = 0.95;          // 按抖动的该分位数确定最小缓冲
+    public static final double JITTER_BUFFER_MULTIPLIER = 2.0;           // 最小缓冲 = 抖动分位数 × 倍数
+    public static final double JITTER_LOSS_THRESHOLD = 0.05;             // 丢包率超过该值时放大缓冲以容纳重传
+    public static final double JITTER_LOSS_BUFFER_FACTOR = 1.5;
+    public static final int JITTER_BUFFER_MIN_FLOOR_MS = 50;             // 最小缓冲的取值范围
+    public static final int JITTER_BUFFER_MIN_CEIL_MS = 1000;
+    public static final int JITTER_BUFFER_MAX_FLOOR_MS = 500;            // 最大缓冲的取值范围
+    public static final int JITTER_BUFFER_MAX_CEIL_MS = 4000;
+    public static final long JITTER_RETUNE_INTERVAL_MS = 6000L;          // 两次调整的最短间隔
+    public static final int JITTER_MIN_SAMPLES = 30;                     // 窗口内样本不足时不调整
+    public static final double JITTER_RETUNE_MIN_CHANGE = 0.2;           // 最小缓冲变化超过该比例才重新设置
+    public static final long JITTER_MAX_INTERVAL_MS = 1000L;             // 到达间隔超过该值视为中断，不计入抖动
+    
+    // ==================== 视频卡顿恢复配置 ====================
+    public static final boolean STALL_WATCHDOG_ENABLED = true;
+    public static final long STALL_TIMEOUT_MS = 4000L;                   // 超过该时长未收到视频帧视为卡顿
+    public static final long STALL_RECOVERY_WAIT_MS = 8000L;             // 每一级恢复后等待视频帧的时长，超时则升级
+    public static final long STALL_CHECK_INTERVAL_MS = 1000L;            // 检查间隔
     
     // ==================== 文本驱动配置 ====================
     public static final int MAX_TEXT_LENGTH = 1800;
@@ -33,8 +66,7 @@ public class ZegoQuickStartConstants {
     public static final int MAX_VOLUME = 100;
     public static final int DEFAULT_VOLUME = 50;
     
-    // ==================== 任务房间ID前缀 ====================
-    public static final String TASK_ROOM_PREFIX = "test_room_";
+    // ==================== 任务流/用户ID前缀 ====================
     public static final String TASK_STREAM_PREFIX = "stream_";
     public static final String TASK_PUBLISH_STREAM_PREFIX = "local_stream_";
     public static final String TASK_USER_PREFIX = "user_";
@@ -42,6 +74,57 @@ public class ZegoQuickStartConstants {
     // ==================== 请求超时时间 ====================
     public static final int NETWORK_TIMEOUT = 30; // 秒
     
+    // ==================== 连接预热配置 ====================
+    // 服务端未设置IdleTimeout，但中间的NAT/负载均衡通常在60秒左右回收空闲连接
+    public static final long SERVER_IDLE_TIMEOUT_MS = 60 * 1000L;
+    public static final long KEEP_ALIVE_PING_INTERVAL_MS = SERVER_IDLE_TIMEOUT_MS * 3 / 4;  // 在空闲回收前发送保活请求
+    public static final long KEEP_WARM_WINDOW_MS = 5 * 60 * 1000L;  // 最后一次请求后保持连接预热的时长
+    public static final String WARM_UP_PATH = "/health";            // 预热和保活使用的轻量接口
+    
+    // ==================== 请求对冲配置 ====================
+    public static final boolean INTERRUPT_HEDGE_ENABLED = true;   // 打断请求超过p95未返回时发出对冲请求
+    public static final int HEDGE_MIN_SAMPLES = 20;               // 样本不足时使用默认对冲延迟
+    public static final long HEDGE_DEFAULT_DELAY_MS = 500L;
+    public static final long HEDGE_MIN_DELAY_MS = 50L;
+    
+    // ==================== 熔断配置 ====================
+    public static final long CIRCUIT_WINDOW_MS = 10 * 1000L;             // 滚动统计窗口
+    public static final int CIRCUIT_WINDOW_BUCKETS = 10;                 // 窗口分桶数
+    public static final int CIRCUIT_MIN_CALLS = 5;                       // 窗口内调用数达到该值才判断是否熔断
+    public static final double CIRCUIT_FAILURE_RATE_THRESHOLD = 0.5;     // 失败率阈值
+    public static final double CIRCUIT_SLOW_CALL_RATE_THRESHOLD = 0.8;   // 慢调用率阈值
+    public static final long CIRCUIT_OPEN_DURATION_MS = 10 * 1000L;      // 熔断持续时间，之后进入半开探测
+    
+    // ==================== 批量停止任务配置 ====================
+    public static final int TASK_TEARDOWN_MAX_CONCURRENCY = 4;        // 最大并发停止数
+    public static final long TASK_TEARDOWN_CALL_DEADLINE_SLACK_MS = 1000L;  // 单个停止调用截止时间 = 停止接口策略的总耗时上限 + 该余量
+    
+    // ==================== 任务日志配置 ====================
+    public static final long TASK_JOURNAL_MAX_TASK_AGE_MS = 24 * 60 * 60 * 1000L;  // 超过该时长的未停止记录视为服务端已回收，回放时丢弃
+    
+    // ==================== 空闲任务治理配置 ====================
+    public static final boolean IDLE_STOP_ENABLED = true;                          // 任务空闲超时后自动停止，下次驱动时重新创建
+    public static final long IDLE_STOP_FOREGROUND_TIMEOUT_MS = 10 * 60 * 1000L;     // 前台无驱动/打断超过该时长自动停止
+    public static final long IDLE_STOP_BACKGROUND_TIMEOUT_MS = 2 * 60 * 1000L;      // 后台超过该时长自动停止
+    
+    // ==================== 缓存配置 ====================
+    public static final long DIGITAL_HUMAN_TOKEN_REFRESH_AHEAD_MS = 10 * 60 * 1000L; // Token过期前10分钟开始后台刷新
+    public static final long DIGITAL_HUMAN_TOKEN_REFRESH_MIN_INTERVAL_MS = 60 * 1000L; // 后台刷新最小间隔，刷新失败或有效期短于刷新窗口时按该间隔重试
+    
+    // ==================== 视频帧流水线配置 ====================
+    public static final boolean FRAME_PIPELINE_ENABLED = false;         // 是否在独立线程向数字人SDK转交视频帧
+    public static final int FRAME_PIPELINE_CAPACITY = 4;                // 视频帧队列容量，SEI单独排队不占用
+    public static final int FRAME_PIPELINE_SKIP_COUNT = 2;              // SKIP_N 策略额外跳过的帧数
+    public static final long FRAME_PIPELINE_LATE_THRESHOLD_MS = 50L;    // 帧在队列中停留超过该时长记为迟到
+    public static final long PLANE_POOL_BUDGET_BYTES = 32L * 1024 * 1024;  // 视频平面缓冲池总字节数上限
+    public static final boolean FRAME_CAPTURE_ENABLED = false;          // 是否在拉流期间采集视频帧和SEI，用于离线回放评测
+    public static final String FRAME_CAPTURE_FILE_NAME = "zego_frame_capture.bin";
+    public static final long FRAME_CAPTURE_MAX_BYTES = 256L * 1024 * 1024;  // 采集文件上限，写满后停止采集
+    
+    // ==================== 日志配置 ====================
+    public static final int LOG_RING_CAPACITY = 1024;   // 异步日志队列容量（条）
+    public static final int LOG_BODY_MAX_CHARS = 512;   // 请求/响应体日志最大字符数
+    
     // ==================== 服务器配置 ====================
     // 示例:"http://192.168.88.213:3000/api"
     public static final String DEFAULT_SERVER_URL = 你的服务端地址;
@@ -22,33 +22,41 @@ import com.example.zegodigitalhumanquickstart.callback.ZegoQuickStartTaskControl
 import com.example.zegodigitalhumanquickstart.model.ZegoQuickStartConfig;
 import com.example.zegodigitalhumanquickstart.model.ZegoQuickStartDigitalHuman;
 import com.example.zegodigitalhumanquickstart.model.ZegoQuickStartDriveType;
+import com.example.zegodigitalhumanquickstart.model.ZegoQuickStartOutputMode;
 import com.example.zegodigitalhumanquickstart.model.ZegoQuickStartTask;
+import com.example.zegodigitalhumanquickstart.model.ZegoQuickStartTaskCreateResult;
 import com.example.zegodigitalhumanquickstart.model.ZegoQuickStartTaskStatus;
 import com.example.zegodigitalhumanquickstart.network.ZegoQuickStartAPIService;
+import com.example.zegodigitalhumanquickstart.network.ZegoQuickStartCircuitBreaker;
+import com.example.zegodigitalhumanquickstart.network.ZegoQuickStartDigitalHumanCache;
+import com.example.zegodigitalhumanquickstart.render.ZegoQuickStartFrameBridge;
+import com.example.zegodigitalhumanquickstart.session.ZegoQuickStartSessionHost;
+import com.example.zegodigitalhumanquickstart.session.ZegoQuickStartStallWatchdog;
+import com.example.zegodigitalhumanquickstart.task.ZegoQuickStartStartupPipeline;
+import com.example.zegodigitalhumanquickstart.task.ZegoQuickStartIdleGovernor;
+import com.example.zegodigitalhumanquickstart.task.ZegoQuickStartTaskJournal;
+import com.example.zegodigitalhumanquickstart.task.ZegoQuickStartTaskTeardown;
 import com.example.zegodigitalhumanquickstart.ZegoQuickStartConstants;
+import com.example.zegodigitalhumanquickstart.metrics.ZegoQuickStartSpanRecorder;
 import com.example.zegodigitalhumanquickstart.view.ZegoQuickStartDigitalHumanPlaceholderView;
 import com.example.zegodigitalhumanquickstart.view.ZegoQuickStartDriveControlView;
 import com.example.zegodigitalhumanquickstart.view.ZegoQuickStartTaskControlView;
 
 import im.zego.digitalmobile.IZegoDigitalMobile;
-import im.zego.digitalmobile.ZegoDigitalHuman;
 import im.zego.digitalmobile.ZegoDigitalView;
 import com.google.gson.JsonObject;
 
-import java.nio.ByteBuffer;
+import java.io.File;
 import java.util.ArrayList;
 import java.util.List;
 
 import im.zego.zegoexpress.ZegoExpressEngine;
-import im.zego.zegoexpress.callback.IZegoCustomVideoRenderHandler;
-import im.zego.zegoexpress.callback.IZegoEventHandler;
 import im.zego.zegoexpress.constants.ZegoAECMode;
 import im.zego.zegoexpress.constants.ZegoANSMode;
 import im.zego.zegoexpress.constants.ZegoAudioDeviceMode;
 import im.zego.zegoexpress.constants.ZegoScenario;
 import im.zego.zegoexpress.constants.ZegoUpdateType;
 import im.zego.zegoexpress.constants.ZegoVideoBufferType;
-import im.zego.zegoexpress.constants.ZegoVideoFrameFormat;
 import im.zego.zegoexpress.constants.ZegoVideoFrameFormatSeries;
 import im.zego.zegoexpress.entity.ZegoCustomVideoRenderConfig;
 import im.zego.zegoexpress.entity.ZegoEngineConfig;
@@ -56,7 +64,6 @@ import im.zego.zegoexpress.entity.ZegoEngineProfile;
 import im.zego.zegoexpress.entity.ZegoRoomConfig;
 import im.zego.zegoexpress.entity.ZegoStream;
 import im.zego.zegoexpress.entity.ZegoUser;
-import im.zego.zegoexpress.entity.ZegoVideoFrameParam;
 
 import im.zego.digitalmobile.ZegoDigitalHumanResource;
 import im.zego.digitalmobile.config.ZegoDigitalMobileAuth;
@@ -66,12 +73,13 @@ import im.zego.digitalmobile.config.ZegoDigitalMobileAuth;
  * 数字人快速启动应用的主界面，包含数字人渲染、任务管理、驱动控制等功能
  */
 public class ZegoQuickStartMainActivity extends AppCompatActivity implements
-        IZegoDigitalMobile.ZegoDigitalMobileListener,
+        ZegoQuickStartSessionHost.Client,
         ZegoQuickStartTaskControlViewCallback,
         ZegoQuickStartDriveControlViewCallback {
     
     private static final String TAG = "ZegoQuickStartMainActivity";
     private static final int PERMISSION_REQUEST_CODE = 1000;
+    private static final String SPAN_REPORT_FILE_NAME = "zego_span_report.txt";
     
     // UI组件
     private ZegoDigitalView digitalHumanView;  // 纯视图
@@ -87,22 +95,30 @@ public class ZegoQuickStartMainActivity extends AppCompatActivity implements
     // 配置和数据
     private ZegoQuickStartConfig config;
     private ZegoQuickStartAPIService apiService;
+    private ZegoQuickStartDigitalHumanCache digitalHumanCache;
+    private ZegoQuickStartTaskTeardown taskTeardown;
+    private ZegoQuickStartTaskJournal taskJournal;
+    private ZegoQuickStartIdleGovernor idleGovernor;
+    private ZegoQuickStartAPIService.CircuitStateListener circuitStateListener;
+    private final ZegoQuickStartSpanRecorder spanRecorder = ZegoQuickStartSpanRecorder.getInstance();
+    // 进程级会话宿主，持有数字人SDK、视频帧转发链路，以及引擎、房间登录、任务和启动流程的状态
+    private ZegoQuickStartSessionHost sessionHost;
+    private ZegoQuickStartFrameBridge frameBridge;
     
-    // RTC引擎
-    private boolean rtcEngineCreated = false;
-    private boolean isRoomLoggedIn = false;
-    private boolean isPublishing = false;
-    
-    // 任务状态
-    private ZegoQuickStartTask currentTask;
-    private String currentStreamId;
-    private String currentRoomId;
-    private String currentUserId;
-    private String currentToken;
+    // 启动流水线
+    private static final String STAGE_PREPARE_ENGINE = "prepareEngine";
+    private static final String STAGE_CREATE_TASK = "createTask";
+    private static final String STAGE_START_DIGITAL_HUMAN = "startDigitalHuman";
+    private static final String STAGE_LOGIN_ROOM = "loginRoom";
+    private static final String STAGE_PLAY_STREAM = "playStream";
+    private static final String STAGE_FIRST_FRAME = "firstFrame";
+    private Runnable pendingResumeAction;  // 任务因空闲停止后重新创建，启动完成后执行的驱动
+    private boolean stallRecreatePending;  // 视频卡顿恢复：任务停止后重新创建
     
     
     // UI状态
     private boolean isControlPanelVisible = false;
+    private String idleTrackedTaskId;  // 本界面空闲跟踪的任务
     
     @Override
     protected void onCreate(Bundle savedInstanceState) {
@@ -115,6 +131,9 @@ public class ZegoQuickStartMainActivity extends AppCompatActivity implements
         // 初始化UI
         initViews();
         
+        // 配置变化重建时按宿主中的会话刷新界面，不重新创建任务
+        restoreSession();
+        
         // 请求权限
         requestPermissions();
         
@@ -126,9 +145,88 @@ public class ZegoQuickStartMainActivity extends AppCompatActivity implements
     
     private void initConfigAndServices() {
         config = new ZegoQuickStartConfig();
+        sessionHost = ZegoQuickStartSessionHost.getInstance(this);
+        frameBridge = sessionHost.getFrameBridge();
         
         apiService = ZegoQuickStartAPIService.getInstance();
         apiService.setServerURL(config.getServerURL());
+        // 首个 GetDigitalHumanInfo 前先在后台建立连接
+        apiService.startConnectionWarmUp(this);
+        
+        // 复用上次的用户ID，Token与用户ID绑定，才能命中数字人信息缓存
+        digitalHumanCache = ZegoQuickStartDigitalHumanCache.getInstance(this);
+        if (sessionHost.getUserId() == null) {
+            sessionHost.setUserId(digitalHumanCache.getLastUserId());
+        }
+        
+        taskTeardown = new ZegoQuickStartTaskTeardown(apiService);
+        
+        // 停止上次运行因崩溃、进程被杀或网络失败而遗留的任务
+        taskJournal = ZegoQuickStartTaskJournal.getInstance(this);
+        taskJournal.replay(this::stopLeftoverTasks);
+        
+        // 任务长时间无人驱动时自动停止，节省服务端任务时长
+        idleGovernor = new ZegoQuickStartIdleGovernor(ZegoQuickStartConstants.IDLE_STOP_FOREGROUND_TIMEOUT_MS,
+                ZegoQuickStartConstants.IDLE_STOP_BACKGROUND_TIMEOUT_MS, this::onTaskIdle);
+        
+        // 服务端异常熔断时提示用户，避免反复点击继续加重服务端负载
+        circuitStateListener = (action, state) -> {
+            if (state == ZegoQuickStartCircuitBreaker.State.OPEN) {
+                updateStatus("服务端暂时不可用，请稍后重试");
+            } else if (state == ZegoQuickStartCircuitBreaker.State.CLOSED) {
+                Log.d(TAG, "[网络] 服务已恢复: " + action);
+            }
+        };
+        apiService.addCircuitStateListener(circuitStateListener);
+    }
+    
+    /**
+     * 恢复配置变化前的会话：RTC登录、拉流、数字人渲染和进行中的启动流程都未中断，只刷新界面
+     */
+    private void restoreSession() {
+        if (!sessionHost.hasSession()) {
+            return;
+        }
+        renderSession();
+        ZegoQuickStartTask task = sessionHost.getTask();
+        Log.d(TAG, "[任务] 已恢复会话: " + (task != null ? task.getTaskId() : "启动中"));
+    }
+    
+    /**
+     * 按宿主中的会话状态刷新界面
+     */
+    private void renderSession() {
+        ZegoQuickStartTask task = sessionHost.getTask();
+        taskControlView.updateButtonStates(task != null);
+        taskControlView.setLoading(0, task == null && sessionHost.isStartupRunning());
+        driveControlView.setDriveButtonsEnabled(task != null);
+        // initViews 中已 post 显示占位视图，这里同样 post 以保证在其之后执行
+        boolean drawn = task != null && sessionHost.isFirstFrameDrawn();
+        placeholderView.post(() -> {
+            if (drawn) {
+                placeholderView.hide();
+            } else {
+                placeholderView.show();
+            }
+        });
+        if (ZegoQuickStartConstants.IDLE_STOP_ENABLED && task != null
+                && !task.getTaskId().equals(idleTrackedTaskId)) {
+            idleTrackedTaskId = task.getTaskId();
+            idleGovernor.attach(task.getTaskId());
+        }
+        String status = sessionHost.getStatusText();
+        if (status != null) {
+            statusLabel.setText(status);
+        }
+    }
+    
+    @Override
+    public void onSessionChanged() {
+        runOnUiThread(() -> {
+            if (!isDestroyed()) {
+                renderSession();
+            }
+        });
     }
     
     private void initViews() {
@@ -183,11 +281,10 @@ public class ZegoQuickStartMainActivity extends AppCompatActivity implements
         taskControlView = findViewById(R.id.task_control_view);
         driveControlView = findViewById(R.id.drive_control_view);
         
-        // 创建数字人SDK实例并绑定视图
-        digitalMobile = ZegoDigitalHuman.create(this);
-        if (digitalMobile != null && digitalHumanView != null) {
-            digitalMobile.attach(digitalHumanView);
-            Log.d(TAG, "[数字人] SDK实例已创建并绑定视图");
+        // 数字人SDK实例由会话宿主持有，这里只绑定视图
+        digitalMobile = sessionHost.attach(digitalHumanView, this);
+        if (digitalMobile != null) {
+            Log.d(TAG, "[数字人] 已绑定视图");
         }
         
         // 设置回调
@@ -287,21 +384,23 @@ public class ZegoQuickStartMainActivity extends AppCompatActivity implements
      * @return 用户ID
      */
     private String getCurrentUserId() {
-        if (currentUserId == null || currentUserId.isEmpty()) {
-            currentUserId = "user_" + ((int) (Math.random() * 1000000));
-            Log.d(TAG, "[用户ID] 生成新的 userId: " + currentUserId);
+        String userId = sessionHost.getUserId();
+        if (userId == null || userId.isEmpty()) {
+            userId = "user_" + ((int) (Math.random() * 1000000));
+            sessionHost.setUserId(userId);
+            Log.d(TAG, "[用户ID] 生成新的 userId: " + userId);
         }
-        return currentUserId;
+        return userId;
     }
     
     private void loadInitialData() {
         
         String userId = getCurrentUserId();
         
-        // 加载数字人信息并更新占位视图
-        apiService.getDigitalHumanInfo(userId, new ZegoQuickStartAPIService.DigitalHumanInfoCallback() {
+        // 加载数字人信息并更新占位视图（优先使用缓存，Token临近过期前后台刷新，数据变化时再次回调）
+        digitalHumanCache.getDigitalHumanInfo(userId, new ZegoQuickStartDigitalHumanCache.Callback() {
             @Override
-            public void onSuccess(ZegoQuickStartDigitalHuman digitalHuman) {
+            public void onDigitalHumanInfo(ZegoQuickStartDigitalHuman digitalHuman, boolean fromCache) {
                 // 边界检查
                 if (digitalHuman == null) {
                     Log.e(TAG, "数字人信息为空");
@@ -313,13 +412,17 @@ public class ZegoQuickStartMainActivity extends AppCompatActivity implements
                 String name = digitalHuman.getName();
                 String coverUrl = digitalHuman.getAvatarUrl(); // 使用avatarUrl作为coverUrl
                 placeholderView.updateContent(name, coverUrl);
-                Log.d(TAG, "[数字人] 加载数字人信息成功: " + name);
+                Log.d(TAG, "[数字人] 加载数字人信息成功: " + name + (fromCache ? " (缓存)" : ""));
 
                 // 创建数字人
                 initExpressEngineWithAppId(digitalHuman.getAppId());
                 
-                // 触发预加载
-                preloadDigitalHumanResource(digitalHuman);
+                // 触发预加载；缓存的Token已过期时等待后台刷新的回调
+                if (!fromCache || digitalHuman.getExpireTime() > System.currentTimeMillis()) {
+                    preloadDigitalHumanResource(digitalHuman);
+                } else {
+                    Log.d(TAG, "[预加载] 缓存的Token已过期，等待刷新后预加载");
+                }
             }
             
             @Override
@@ -408,6 +511,7 @@ public class ZegoQuickStartMainActivity extends AppCompatActivity implements
     
     
     private void updateStatus(String status) {
+        sessionHost.setStatusText(status);
         runOnUiThread(() -> {
             statusLabel.setText(status);
             Log.d(TAG, "[状态] " + status);
@@ -417,7 +521,7 @@ public class ZegoQuickStartMainActivity extends AppCompatActivity implements
     // ==================== RTC引擎管理 ====================
     
     private void initExpressEngineWithAppId(long appId) {
-        if (rtcEngineCreated) {
+        if (sessionHost.isEngineCreated()) {
             Log.d(TAG, "[RTC] 引擎已创建，跳过");
             return;
         }
@@ -431,7 +535,7 @@ public class ZegoQuickStartMainActivity extends AppCompatActivity implements
             
             ZegoExpressEngine.createEngine(profile, null);
             
-            rtcEngineCreated = true;
+            sessionHost.setEngineCreated(true);
             Log.d(TAG, "[RTC] Express引擎创建成功，AppId: " + appId);
             
             // 注意：自定义视频渲染需要在 loginRoom 成功后，startPlayingStream 之前启用
@@ -457,74 +561,8 @@ public class ZegoQuickStartMainActivity extends AppCompatActivity implements
             
             engine.enableCustomVideoRender(true, renderConfig);
             
-            // 监听视频帧回调
-            engine.setCustomVideoRenderHandler(new IZegoCustomVideoRenderHandler() {
-                // onCapturedVideoFrameRawData 可能是可选方法，不添加 @Override
-                public void onCapturedVideoFrameRawData(ByteBuffer[] data, int[] dataLength, ZegoVideoFrameParam param, ZegoVideoFrameFormat flipMode) {
-                    // 不需要处理本地采集的视频帧
-                }
-                
-                @Override
-                public void onRemoteVideoFrameRawData(ByteBuffer[] data, int[] dataLength, ZegoVideoFrameParam param, String streamID) {
-                    // 边界检查
-                    if (streamID != null && streamID.equals(currentStreamId) && data != null && data.length > 0 && digitalMobile != null) {
-                        try {
-                            // 转换RTC的VideoFrameParam为数字人SDK的VideoFrameParam
-                            IZegoDigitalMobile.ZegoVideoFrameParam sdkParam = new IZegoDigitalMobile.ZegoVideoFrameParam();
-                            sdkParam.width = param.width;
-                            sdkParam.height = param.height;
-                            sdkParam.rotation = param.rotation;
-                            
-                            // 转换format
-                            switch (param.format) {
-                                case I420:
-                                    sdkParam.format = IZegoDigitalMobile.ZegoVideoFrameFormat.I420;
-                                    break;
-                                case NV12:
-                                    sdkParam.format = IZegoDigitalMobile.ZegoVideoFrameFormat.NV12;
-                                    break;
-                                case NV21:
-                                    sdkParam.format = IZegoDigitalMobile.ZegoVideoFrameFormat.NV21;
-                                    break;
-                                default:
-                                    sdkParam.format = IZegoDigitalMobile.ZegoVideoFrameFormat.Unknown;
-                                    break;
-                            }
-                            
-                            // 复制 strides
-                            if (param.strides != null && param.strides.length >= 4) {
-                                for (int i = 0; i < 4; i++) {
-                                    sdkParam.strides[i] = param.strides[i];
-                                }
-                            }
-                            
-                            // 调用数字人SDK的方法
-                            digitalMobile.onRemoteVideoFrameRawData(data, dataLength, sdkParam, streamID);
-                        } catch (Exception e) {
-                            Log.e(TAG, "[RTC] 处理视频帧失败", e);
-                        }
-                    } else {
-                        if (streamID == null || !streamID.equals(currentStreamId)) {
-                            Log.v(TAG, "[RTC] 忽略视频帧: streamID=" + streamID + " (期望: " + currentStreamId + ")");
-                        } else if (data == null || data.length == 0) {
-                            Log.w(TAG, "[RTC] 视频帧数据为空: streamID=" + streamID);
-                        }
-                    }
-                }
-            });
-            
-            // 监听 Express SEI 数据和房间流更新
-            engine.setEventHandler(new IZegoEventHandler() {
-                @Override
-                public void onRoomStreamUpdate(String roomID, ZegoUpdateType updateType, ArrayList<ZegoStream> streamList, org.json.JSONObject extendedData) {
-                    handleRoomStreamUpdate(roomID, updateType, streamList);
-                }
-                
-                @Override
-                public void onPlayerSyncRecvSEI(String streamID, byte[] data) {
-                    handlePlayerSyncRecvSEI(streamID, data);
-                }
-            });
+            // 视频帧、SEI和房间流更新回调由会话宿主持有，界面重建时不中断
+            sessionHost.installRenderHandlers(engine);
             
             Log.d(TAG, "[RTC] 自定义视频渲染已启用");
         } catch (Exception e) {
@@ -532,16 +570,14 @@ public class ZegoQuickStartMainActivity extends AppCompatActivity implements
         }
     }
     
-    private void loginRoom(String roomId, String userId, String token, Runnable onSuccess, Runnable onFailure) {
-        updateStatus("正在登录房间...");
-        
+    /**
+     * 设置引擎高级配置和音频3A处理
+     * 不依赖任务信息，在创建任务请求发出的同时执行
+     */
+    private void applyEngineConfig() {
         ZegoExpressEngine engine = ZegoExpressEngine.getEngine();
         if (engine == null) {
-            Log.e(TAG, "[RTC] 引擎未创建，无法登录房间");
-            updateStatus("错误：RTC引擎未初始化");
-            if (onFailure != null) {
-                runOnUiThread(onFailure);
-            }
+            Log.w(TAG, "[RTC] 引擎未创建，跳过引擎配置");
             return;
         }
         
@@ -554,18 +590,36 @@ public class ZegoQuickStartMainActivity extends AppCompatActivity implements
 
         ZegoExpressEngine.setEngineConfig(engineConfig);
         
-        ZegoExpressEngine.getEngine().setRoomScenario(ZegoScenario.HIGH_QUALITY_CHATROOM);
-        ZegoExpressEngine.getEngine().setAudioDeviceMode(ZegoAudioDeviceMode.GENERAL);
+        engine.setRoomScenario(ZegoScenario.HIGH_QUALITY_CHATROOM);
+        engine.setAudioDeviceMode(ZegoAudioDeviceMode.GENERAL);
 
         //开启传统音频 3A 处理
-        ZegoExpressEngine.getEngine().enableAGC(true);
-        ZegoExpressEngine.getEngine().enableAEC(true);
-        ZegoExpressEngine.getEngine().enableANS(true);
+        engine.enableAGC(true);
+        engine.enableAEC(true);
+        engine.enableANS(true);
         
         //开启 AI 回声消除
-        ZegoExpressEngine.getEngine().setAECMode(ZegoAECMode.AI_BALANCED);
+        engine.setAECMode(ZegoAECMode.AI_BALANCED);
         // 开启 AI 降噪，适度的噪声抑制
-        ZegoExpressEngine.getEngine().setANSMode(ZegoANSMode.MEDIUM);
+        engine.setANSMode(ZegoANSMode.MEDIUM);
+        
+        Log.d(TAG, "[RTC] 引擎配置已设置");
+    }
+    
+    private void loginRoom(String roomId, String userId, String token, Runnable onSuccess, Runnable onFailure) {
+        updateStatus("正在登录房间...");
+        
+        ZegoExpressEngine engine = ZegoExpressEngine.getEngine();
+        if (engine == null) {
+            Log.e(TAG, "[RTC] 引擎未创建，无法登录房间");
+            updateStatus("错误：RTC引擎未初始化");
+            if (onFailure != null) {
+                runOnUiThread(onFailure);
+            }
+            return;
+        }
+        
+        // 注意：引擎高级配置和3A设置已在启动流水线的 prepareEngine 步骤中提前完成
         
         ZegoRoomConfig roomConfig = new ZegoRoomConfig();
         roomConfig.isUserStatusNotify = true;
@@ -575,7 +629,8 @@ public class ZegoQuickStartMainActivity extends AppCompatActivity implements
         
         engine.loginRoom(roomId, user, roomConfig, (int errorCode, org.json.JSONObject extendedData) -> {
             if (errorCode == 0) {
-                isRoomLoggedIn = true;
+                sessionHost.setRoomLoggedIn(true);
+                spanRecorder.markActive(ZegoQuickStartSpanRecorder.POINT_LOGIN_SUCCESS);
                 Log.d(TAG, "[RTC] 登录房间成功: " + roomId);
                 
                 // 开启自定义渲染，express 开启自定义渲染需要在 startPublishingStream/startPlayingStream 前
@@ -594,14 +649,20 @@ public class ZegoQuickStartMainActivity extends AppCompatActivity implements
         });
     }
     
-    private void handleRoomStreamUpdate(String roomID, ZegoUpdateType updateType, ArrayList<ZegoStream> streamList) {
+    @Override
+    public void onRoomStreamUpdate(String roomID, ZegoUpdateType updateType, ArrayList<ZegoStream> streamList) {
         Log.d(TAG, "[RTC] 房间流更新: roomID=" + roomID + ", 更新类型=" + updateType);
         
         if (updateType == ZegoUpdateType.ADD) {
             for (ZegoStream stream : streamList) {
-                if (stream.streamID.equals(currentStreamId)) {
-                    Log.d(TAG, "[RTC] 检测到目标流，开始拉流: " + stream.streamID);
-                    startPlayingStream(stream.streamID);
+                if (stream.streamID.equals(sessionHost.getStreamId())) {
+                    if (stream.streamID.equals(sessionHost.getPlayingStreamId())) {
+                        // 启动流水线在登录成功后已按StreamId提前拉流
+                        Log.d(TAG, "[RTC] 目标流已在拉流中: " + stream.streamID);
+                    } else {
+                        Log.d(TAG, "[RTC] 检测到目标流，开始拉流: " + stream.streamID);
+                        startPlayingStream(stream.streamID);
+                    }
                     break;
                 }
             }
@@ -616,25 +677,87 @@ public class ZegoQuickStartMainActivity extends AppCompatActivity implements
             return;
         }
         
-        // 设置拉流缓冲区
-        engine.setPlayStreamBufferIntervalRange(streamID, 100, 2000);
+        // 设置初始拉流缓冲区，之后按实测抖动自适应调整
+        sessionHost.onPlayStarting(engine, streamID);
         
         // 开始拉流（使用ZegoCanvas参数）
         im.zego.zegoexpress.entity.ZegoCanvas canvas = new im.zego.zegoexpress.entity.ZegoCanvas(null);
         engine.startPlayingStream(streamID, canvas);
+        sessionHost.setPlayingStreamId(streamID);
+        sessionHost.onPlayStarted(streamID);
         
         updateStatus("正在拉流...");
         Log.d(TAG, "[RTC] 开始拉流: " + streamID);
     }
     
-    private void handlePlayerSyncRecvSEI(String streamID, byte[] data) {
-        if (streamID != null && streamID.equals(currentStreamId) && data != null && data.length > 0 && digitalMobile != null) {
-            try {
-                digitalMobile.onPlayerSyncRecvSEI(streamID, data);
-            } catch (Exception e) {
-                Log.e(TAG, "[RTC] 处理SEI数据失败", e);
-            }
+    private void stopPlayingStream() {
+        ZegoExpressEngine engine = ZegoExpressEngine.getEngine();
+        String playingStreamId = sessionHost.getPlayingStreamId();
+        if (engine != null && playingStreamId != null) {
+            engine.stopPlayingStream(playingStreamId);
+            Log.d(TAG, "[RTC] 已停止拉流: " + playingStreamId);
         }
+        sessionHost.setPlayingStreamId(null);
+    }
+    
+    // ==================== 视频卡顿恢复 ====================
+    
+    @Override
+    public void onStreamStalled(ZegoQuickStartStallWatchdog.Stage stage, String streamId) {
+        ZegoQuickStartTask task = sessionHost.getTask();
+        if (task == null || task.getStatus() != ZegoQuickStartTaskStatus.RUNNING
+                || !streamId.equals(sessionHost.getStreamId())) {
+            sessionHost.onPlayStopped();
+            return;
+        }
+        Log.w(TAG, "[卡顿] 视频卡顿，执行恢复: " + stage);
+        switch (stage) {
+            case RESTART_PLAY:
+                updateStatus("视频卡顿，正在重新拉流...");
+                stopPlayingStream();
+                startPlayingStream(sessionHost.getStreamId());
+                break;
+            case RELOGIN_ROOM:
+                updateStatus("视频卡顿，正在重新登录房间...");
+                reloginRoomAndPlay();
+                break;
+            case RECREATE_TASK:
+                updateStatus("视频卡顿，正在重新创建任务...");
+                stallRecreatePending = true;
+                stopTaskInternal(true);
+                break;
+        }
+    }
+    
+    @Override
+    public void onStreamStallUnrecovered(String streamId) {
+        Log.e(TAG, "[卡顿] 视频卡顿未能恢复: " + streamId);
+        if (streamId.equals(sessionHost.getStreamId())) {
+            updateStatus("视频卡顿未能恢复，请重新创建任务");
+        }
+    }
+    
+    /**
+     * 退出并重新登录当前房间，成功后重新拉流
+     */
+    private void reloginRoomAndPlay() {
+        ZegoExpressEngine engine = ZegoExpressEngine.getEngine();
+        if (engine == null) {
+            return;
+        }
+        ZegoQuickStartTask task = sessionHost.getTask();
+        stopPlayingStream();
+        engine.logoutRoom(sessionHost.getRoomId(), (errorCode, extendedData) -> runOnUiThread(() -> {
+            sessionHost.setRoomLoggedIn(false);
+            if (sessionHost.getTask() != task) {
+                return;
+            }
+            loginRoom(sessionHost.getRoomId(), getCurrentUserId(), sessionHost.getToken(), () -> {
+                if (sessionHost.getTask() == task) {
+                    startPlayingStream(sessionHost.getStreamId());
+                }
+            }, null);
+        }));
     }
     
     // ==================== 任务管理 ====================
@@ -646,117 +769,226 @@ public class ZegoQuickStartMainActivity extends AppCompatActivity implements
             toggleControlPanel();
         }
         
+        spanRecorder.beginTrace(ZegoQuickStartSpanRecorder.TRACE_TASK_START, ZegoQuickStartSpanRecorder.POINT_FIRST_DRAW);
+        spanRecorder.mark(ZegoQuickStartSpanRecorder.TRACE_TASK_START, ZegoQuickStartSpanRecorder.POINT_CLICK);
+        
         updateStatus("正在创建任务...");
         taskControlView.setLoading(0, true);
         
         // 获取或生成 userId
         String userId = getCurrentUserId();
         
-        // 步骤1: 构建任务配置（传递OutputMode和UserId）
+        // 输出模式由治理根据上一个任务的拉流表现选择（服务端不支持运行中切换）
+        ZegoQuickStartOutputMode outputMode = sessionHost.selectOutputMode();
+        config.setOutputMode(outputMode);
+        config.updateVideoConfigByOutputMode();
+        Log.d(TAG, "[任务] 输出模式: " + outputMode.getDescription() + ", " + config.getVideoConfig());
+        
+        // 构建任务配置（传递OutputMode和UserId）
         JsonObject taskConfig = new JsonObject();
-        taskConfig.addProperty("OutputMode", 2);  // 小图模式
+        taskConfig.addProperty("OutputMode", outputMode.getApiValue());
         taskConfig.addProperty("UserId", userId);  // 用户ID，必选
         
-        // 步骤2: 调用API创建数字人流任务
-        apiService.createDigitalHumanStreamTask(taskConfig, new ZegoQuickStartAPIService.TaskCallback() {
+        ZegoQuickStartStartupPipeline previousPipeline = sessionHost.getStartupPipeline();
+        if (previousPipeline != null) {
+            previousPipeline.cancel();
+        }
+        if (sessionHost.getPendingCreateKey() != null) {
+            // 用户在上一次创建未返回时重新点击
+            sessionHost.getTaskCreateRegistry().abandon(sessionHost.getPendingCreateKey());
+            sessionHost.setPendingCreateKey(null);
+        }
+        
+        // 启动流水线：引擎配置与创建任务并行；数字人启动与登录房间并行；登录成功后按已知StreamId直接拉流
+        ZegoQuickStartStartupPipeline startupPipeline = new ZegoQuickStartStartupPipeline()
+                .addStage(STAGE_PREPARE_ENGINE, handle -> {
+                    applyEngineConfig();
+                    handle.complete();
+                })
+                .addStage(STAGE_CREATE_TASK, handle -> createTaskForPipeline(taskConfig, handle))
+                .addStage(STAGE_START_DIGITAL_HUMAN, handle -> {
+                    // 完成时机：onDigitalMobileStartSuccess（可能送达重建后的界面，步骤由宿主持有）
+                    sessionHost.setDigitalHumanStartHandle(handle);
+                    Log.d(TAG, "[数字人] 使用服务端返回的 Base64Config 启动数字人");
+                    String error = startDigitalHuman(sessionHost.getBase64Config());
+                    if (error != null) {
+                        // 启动未发出，不会再有 onDigitalMobileStartSuccess/onError 回调
+                        sessionHost.takeDigitalHumanStartHandle();
+                        handle.fail(error);
+                    }
+                }, STAGE_CREATE_TASK)
+                .addStage(STAGE_LOGIN_ROOM, handle -> loginRoom(sessionHost.getRoomId(), userId, sessionHost.getToken(),
+                        handle::complete,
+                        () -> handle.fail("登录房间失败")), STAGE_PREPARE_ENGINE, STAGE_CREATE_TASK)
+                .addStage(STAGE_PLAY_STREAM, handle -> {
+                    // StreamId已由创建任务返回，无需等待onRoomStreamUpdate
+                    startPlayingStream(sessionHost.getStreamId());
+                    handle.complete();
+                }, STAGE_LOGIN_ROOM)
+                .addStage(STAGE_FIRST_FRAME, handle -> {
+                    // 完成时机：onSurfaceFirstFrameDraw（可能送达重建后的界面，步骤由宿主持有）
+                    if (sessionHost.isFirstFrameDrawn()) {
+                        handle.complete();
+                    } else {
+                        sessionHost.setFirstFrameHandle(handle);
+                    }
+                }, STAGE_PLAY_STREAM, STAGE_START_DIGITAL_HUMAN);
+        
+        // 流水线由宿主持有，配置变化重建时继续执行；回调仍在发起的界面上执行，结束时通知重建后的界面刷新
+        sessionHost.setStartupPipeline(startupPipeline);
+        startupPipeline.start(new ZegoQuickStartStartupPipeline.Listener() {
             @Override
-            public void onSuccess(JsonObject data) {
-                // 提取服务端返回的任务数据
-                String taskId = data.has("TaskId") ? data.get("TaskId").getAsString() : "";
-                String base64Config = data.has("Base64Config") ? data.get("Base64Config").getAsString() : "";
-                String appIdStr = data.has("AppId") ? data.get("AppId").getAsString() : "";
-                String roomId = data.has("RoomId") ? data.get("RoomId").getAsString() : "";
-                String streamId = data.has("StreamId") ? data.get("StreamId").getAsString() : "";
-                String token = data.has("Token") ? data.get("Token").getAsString() : "";
-                
-                // 边界检查
-                if (appIdStr == null || appIdStr.isEmpty()) {
-                    updateStatus("错误：服务端未返回 AppId");
-                    taskControlView.setLoading(0, false);
-                    return;
-                }
-                
-                if (token == null || token.isEmpty()) {
-                    updateStatus("错误：服务端未返回 Token");
-                    taskControlView.setLoading(0, false);
-                    return;
+            public void onComplete(ZegoQuickStartStartupPipeline.Report report) {
+                Log.i(TAG, "[任务] 启动完成，首帧耗时(ms): " + report.getTotalMs() + ", 关键路径: " + report.getCriticalPath());
+                sessionHost.notifySessionChanged(ZegoQuickStartMainActivity.this);
+                Runnable resumeAction = pendingResumeAction;
+                if (resumeAction != null) {
+                    pendingResumeAction = null;
+                    resumeAction.run();
                 }
-                
-                if (roomId == null || roomId.isEmpty()) {
-                    updateStatus("错误：服务端未返回 RoomId");
-                    taskControlView.setLoading(0, false);
-                    return;
-                }
-                
-                if (streamId == null || streamId.isEmpty()) {
-                    updateStatus("错误：服务端未返回 StreamId");
-                    taskControlView.setLoading(0, false);
-                    return;
-                }
-                
-                if (base64Config == null || base64Config.isEmpty()) {
-                    updateStatus("错误：服务端未返回 Base64Config");
-                    taskControlView.setLoading(0, false);
-                    return;
-                }
-                
-                // 步骤3: 使用返回的 AppId 初始化Express引擎
-                long appId = Long.parseLong(appIdStr);
-                
-                // 更新API服务配置中的appId（用于后续API调用）
-                apiService.setAppId(appId);
-                
-                // 创建任务对象并保存任务状态
-                currentRoomId = roomId;
-                currentStreamId = streamId;
-                currentTask = new ZegoQuickStartTask();
-                currentTask.setTaskId(taskId);
-                currentTask.setRoomId(roomId);
-                currentTask.setStreamId(streamId);
-                currentTask.setAppId(appId);  // 使用从服务端返回的appId
-                currentTask.setStatus(ZegoQuickStartTaskStatus.RUNNING);
-                
-                updateStatus("任务创建成功");
-                taskControlView.updateButtonStates(true);
-                taskControlView.setLoading(0, false);
-                driveControlView.setDriveButtonsEnabled(true);
-                
-                Log.d(TAG, "[任务] 创建成功: " + taskId);
-                
-                // 步骤4: 使用返回的 token 登录RTC房间
-                currentToken = token;
-                loginRoom(roomId, userId, token, () -> {
-                    // 步骤5: 启动数字人渲染（使用服务端返回的Base64Config）
-                    // 注意: 拉流在RTC回调的房间消息onRoomStreamUpdate中实现
-                    if (base64Config != null && !base64Config.isEmpty()) {
-                        Log.d(TAG, "[数字人] 使用服务端返回的 Base64Config 启动数字人");
-                        startDigitalHuman(base64Config);
+            }
+            
+            @Override
+            public void onFailed(String stageName, String message, ZegoQuickStartStartupPipeline.Report report) {
+                Log.e(TAG, "[任务] 启动失败: " + stageName + " - " + message);
+                pendingResumeAction = null;
+                sessionHost.onPlayStopped();
+                if (STAGE_CREATE_TASK.equals(stageName) || STAGE_LOGIN_ROOM.equals(stageName)
+                        || STAGE_START_DIGITAL_HUMAN.equals(stageName)) {
+                    if (!STAGE_LOGIN_ROOM.equals(stageName)) {
+                        // 登录失败时loginRoom已更新状态
+                        updateStatus(message);
                     }
-                }, () -> {
-                    // 登录失败时的处理
                     taskControlView.setLoading(0, false);
                     if (placeholderView != null) {
                         placeholderView.show();
                     }
-                });
+                }
+                sessionHost.notifySessionChanged(ZegoQuickStartMainActivity.this);
+            }
+        });
+    }
+    
+    /**
+     * 启动流水线的创建任务步骤
+     */
+    private void createTaskForPipeline(JsonObject taskConfig, ZegoQuickStartStartupPipeline.StageHandle handle) {
+        // 流水线被取消时放弃本次创建，之后才返回的任务由登记表自动停止
+        String createKey = sessionHost.getTaskCreateRegistry().create(taskConfig, new ZegoQuickStartAPIService.TaskCallback() {
+            @Override
+            public void onSuccess(ZegoQuickStartTaskCreateResult result) {
+                sessionHost.setPendingCreateKey(null);
+                String error = applyTaskCreateResult(result);
+                if (error != null) {
+                    handle.fail(error);
+                } else {
+                    handle.complete();
+                }
             }
             
             @Override
             public void onFailure(int code, String message) {
-                updateStatus("创建任务失败: " + message);
-                taskControlView.setLoading(0, false);
-                if (placeholderView != null) {
-                    placeholderView.show();
-                }
+                sessionHost.setPendingCreateKey(null);
                 Log.e(TAG, "[任务] 创建失败: " + message);
+                handle.fail("创建任务失败: " + message);
             }
         });
+        sessionHost.setPendingCreateKey(createKey);
+    }
+    
+    /**
+     * 校验并保存创建任务的返回结果
+     * @return 错误描述，校验通过返回null
+     */
+    private String applyTaskCreateResult(ZegoQuickStartTaskCreateResult result) {
+        // 提取服务端返回的任务数据
+        String taskId = result.getTaskId();
+        String base64Config = result.getBase64Config();
+        String appIdStr = result.getAppId();
+        String roomId = result.getRoomId();
+        String streamId = result.getStreamId();
+        String token = result.getToken();
+        
+        // 边界检查
+        if (appIdStr.isEmpty()) {
+            return "错误：服务端未返回 AppId";
+        }
+        
+        if (token.isEmpty()) {
+            return "错误：服务端未返回 Token";
+        }
+        
+        if (roomId.isEmpty()) {
+            return "错误：服务端未返回 RoomId";
+        }
+        
+        if (streamId.isEmpty()) {
+            return "错误：服务端未返回 StreamId";
+        }
+        
+        if (base64Config.isEmpty()) {
+            return "错误：服务端未返回 Base64Config";
+        }
+        
+        long appId;
+        try {
+            appId = Long.parseLong(appIdStr);
+        } catch (NumberFormatException e) {
+            return "错误：服务端返回的 AppId 无效";
+        }
+        
+        // 更新API服务配置中的appId（用于后续API调用）
+        apiService.setAppId(appId);
+        
+        // 创建任务对象，任务状态保存在会话宿主
+        ZegoQuickStartTask task = new ZegoQuickStartTask();
+        task.setTaskId(taskId);
+        task.setRoomId(roomId);
+        task.setStreamId(streamId);
+        task.setAppId(appId);  // 使用从服务端返回的appId
+        task.setStatus(ZegoQuickStartTaskStatus.RUNNING);
+        sessionHost.setTask(task, roomId, streamId, token, base64Config);
+        frameBridge.setSession(streamId, digitalMobile);
+        
+        updateStatus("任务创建成功");
+        taskControlView.updateButtonStates(true);
+        taskControlView.setLoading(0, false);
+        driveControlView.setDriveButtonsEnabled(true);
+        
+        // 创建返回前界面已重建时，由新界面在 onSessionChanged 中开始空闲跟踪
+        if (ZegoQuickStartConstants.IDLE_STOP_ENABLED && !isDestroyed()) {
+            idleTrackedTaskId = taskId;
+            idleGovernor.attach(taskId);
+        }
+        
+        Log.d(TAG, "[任务] 创建成功: " + taskId);
+        sessionHost.notifySessionChanged(this);
+        return null;
+    }
+    
+    /**
+     * 取消进行中的启动流水线
+     */
+    private void cancelStartupPipeline() {
+        ZegoQuickStartStartupPipeline startupPipeline = sessionHost.getStartupPipeline();
+        if (startupPipeline != null) {
+            startupPipeline.cancel();
+            sessionHost.setStartupPipeline(null);
+        }
+        if (sessionHost.getPendingCreateKey() != null) {
+            sessionHost.getTaskCreateRegistry().abandon(sessionHost.getPendingCreateKey());
+            sessionHost.setPendingCreateKey(null);
+        }
+        pendingResumeAction = null;
+        sessionHost.takeDigitalHumanStartHandle();
+        sessionHost.takeFirstFrameHandle();
+        spanRecorder.cancelTrace(ZegoQuickStartSpanRecorder.TRACE_TASK_START);
     }
     
     
     @Override
     public void onStopTaskClicked() {
-        if (currentTask == null) {
+        if (sessionHost.getTask() == null) {
             return;
         }
         
@@ -767,6 +999,8 @@ public class ZegoQuickStartMainActivity extends AppCompatActivity implements
         
         updateStatus("正在停止任务...");
         taskControlView.setLoading(1, true);
+        idleGovernor.detach();
+        stallRecreatePending = false;
         
         // 调用核心停止逻辑，并更新UI
         stopTaskInternal(true);
@@ -777,13 +1011,19 @@ public class ZegoQuickStartMainActivity extends AppCompatActivity implements
      * @param updateUI 是否更新UI（在onDestroy中调用时设为false，避免UI操作）
      */
     private void stopTaskInternal(boolean updateUI) {
-        if (currentTask == null) {
+        ZegoQuickStartTask task = sessionHost.getTask();
+        if (task == null) {
             return;
         }
         
+        cancelStartupPipeline();
+        if (!stallRecreatePending) {
+            sessionHost.onPlayStopped();
+        }
+        
         // 先停止 RTC，再停止数字人
         ZegoExpressEngine engine = null;
-        if (rtcEngineCreated) {
+        if (sessionHost.isEngineCreated()) {
             try {
                 engine = ZegoExpressEngine.getEngine();
             } catch (Exception e) {
@@ -802,24 +1042,26 @@ public class ZegoQuickStartMainActivity extends AppCompatActivity implements
         }
         
         // 2. 停止拉流
-        if (currentStreamId != null && engine != null) {
+        String streamId = sessionHost.getStreamId();
+        if (streamId != null && engine != null) {
             try {
-                engine.stopPlayingStream(currentStreamId);
-                Log.d(TAG, "[RTC] 已停止拉流: " + currentStreamId);
+                engine.stopPlayingStream(streamId);
+                Log.d(TAG, "[RTC] 已停止拉流: " + streamId);
             } catch (Exception e) {
                 Log.e(TAG, "[RTC] 停止拉流失败", e);
             }
         }
         
         // 保存taskId用于后续API调用
-        String taskId = currentTask.getTaskId();
+        String taskId = task.getTaskId();
         
         // 3. 退出房间（使用回调确保异步操作完成）
-        if (isRoomLoggedIn && currentRoomId != null && engine != null) {
+        String roomId = sessionHost.getRoomId();
+        if (sessionHost.isRoomLoggedIn() && roomId != null && engine != null) {
             try {
-                engine.logoutRoom(currentRoomId, (errorCode, extendedData) -> {
+                engine.logoutRoom(roomId, (errorCode, extendedData) -> {
                 Log.d(TAG, "[RTC] 登出房间结果: errorCode=" + errorCode);
-                isRoomLoggedIn = false;
+                sessionHost.setRoomLoggedIn(false);
                 
                 // 4. RTC 完全停止后，再停止数字人
                 stopDigitalHuman();
@@ -830,7 +1072,7 @@ public class ZegoQuickStartMainActivity extends AppCompatActivity implements
             } catch (Exception e) {
                 // 登出失败时兜底处理，避免未关闭的任务和引擎
                 Log.e(TAG, "[RTC] 登出房间失败，直接停止任务", e);
-                isRoomLoggedIn = false;
+                sessionHost.setRoomLoggedIn(false);
                 stopDigitalHuman();
                 callStopTaskAPI(taskId, updateUI);
             }
@@ -851,6 +1093,11 @@ public class ZegoQuickStartMainActivity extends AppCompatActivity implements
             return;
         }
         
+        if (updateUI) {
+            // 停止任务会取消进行中的驱动请求，它们的回调不会再执行，这里结束按钮的加载状态
+            driveControlView.resetLoading();
+        }
+        
         apiService.stopDigitalHumanStreamTask(taskId, new ZegoQuickStartAPIService.CommonCallback() {
             @Override
             public void onSuccess(JsonObject data) {
@@ -865,7 +1112,11 @@ public class ZegoQuickStartMainActivity extends AppCompatActivity implements
             @Override
             public void onFailure(int code, String message) {
                 Log.e(TAG, "[任务] 停止任务API调用失败: " + message);
+                // 空闲自动停止失败时任务仍在运行，恢复空闲跟踪
+                idleGovernor.onStopFailed(taskId);
                 if (updateUI) {
+                    stallRecreatePending = false;
+                    sessionHost.onPlayStopped();
                     updateStatus("停止失败: " + message);
                     taskControlView.setLoading(1, false);
                 } else {
@@ -880,36 +1131,46 @@ public class ZegoQuickStartMainActivity extends AppCompatActivity implements
      * 仅清理任务状态，不更新UI（用于onDestroy场景）
      */
     private void cleanupTaskStateOnly() {
-        currentTask = null;
-        currentStreamId = null;
-        currentRoomId = null;
-        currentUserId = null;
-        currentToken = null;
+        sessionHost.clearTask();
+        frameBridge.clearSession();
         Log.d(TAG, "[任务] 已清理任务状态");
+        sessionHost.notifySessionChanged(this);
     }
     
     private void cleanupTaskUIAfterStop() {
-        currentTask = null;
-        currentStreamId = null;
-        currentRoomId = null;
-        currentUserId = null;
-        currentToken = null;
+        sessionHost.clearTask();
+        frameBridge.clearSession();
+        idleTrackedTaskId = null;
         
-        updateStatus("任务已停止");
         taskControlView.updateButtonStates(false);
         taskControlView.setLoading(1, false);
-        driveControlView.setDriveButtonsEnabled(false);
+        if (idleGovernor.isResumePending()) {
+            // 空闲自动停止：保留驱动按钮，下次驱动时重新创建任务
+            updateStatus("任务空闲已自动停止，驱动时将重新创建");
+            driveControlView.setDriveButtonsEnabled(true);
+        } else {
+            updateStatus("任务已停止");
+            driveControlView.setDriveButtonsEnabled(false);
+        }
         
         if (placeholderView != null) {
             placeholderView.show();
         }
         
         Log.d(TAG, "[任务] 已停止");
+        sessionHost.notifySessionChanged(this);
+        
+        if (stallRecreatePending) {
+            // 视频卡顿恢复的最后一级：旧任务停止后重新创建
+            stallRecreatePending = false;
+            onCreateTaskClicked();
+        }
     }
     
     @Override
     public void onInterruptClicked() {
-        if (currentTask == null) {
+        ZegoQuickStartTask task = sessionHost.getTask();
+        if (task == null) {
             return;
         }
         
@@ -919,8 +1180,9 @@ public class ZegoQuickStartMainActivity extends AppCompatActivity implements
         }
         
         taskControlView.setLoading(2, true);
+        idleGovernor.onActivity();
         
-        apiService.interruptDriveTask(currentTask.getTaskId(), new ZegoQuickStartAPIService.CommonCallback() {
+        apiService.interruptDriveTask(task.getTaskId(), new ZegoQuickStartAPIService.CommonCallback() {
             @Override
             public void onSuccess(JsonObject data) {
                 updateStatus("打断成功");
@@ -937,46 +1199,47 @@ public class ZegoQuickStartMainActivity extends AppCompatActivity implements
     
 
     public void destroyAllTasks() {
-        apiService.queryDigitalHumanStreamTasks(new ZegoQuickStartAPIService.TaskListCallback() {
+        // 只停止任务日志中本机创建且未停止的任务，不影响其他设备的任务
+        List<ZegoQuickStartTask> tasks = taskJournal.getOpenTasks();
+        if (tasks.isEmpty()) {
+            updateStatus("没有运行中的任务");
+            taskControlView.setLoading(3, false);
+            destroyExpress();
+            return;
+        }
+        
+        // 并行停止所有任务，当前任务需先停止RTC
+        destroyTasksInParallel(tasks);
+    }
+    
+    /**
+     * 停止上次运行遗留的任务，失败的任务保留在任务日志中，下次启动再试
+     */
+    private void stopLeftoverTasks(List<ZegoQuickStartTask> tasks) {
+        if (tasks.isEmpty()) {
+            return;
+        }
+        Log.w(TAG, "[任务] 发现上次运行遗留的任务: " + tasks.size() + "个，开始停止");
+        taskTeardown.stopAll(tasks, null, null, new ZegoQuickStartTaskTeardown.Listener() {
             @Override
-            public void onSuccess(List<ZegoQuickStartTask> tasks) {
-                if (tasks == null || tasks.isEmpty()) {
-                    updateStatus("没有运行中的任务");
-                    taskControlView.setLoading(3, false);
-                    destroyExpress();
-                    return;
-                }
-                
-                // 筛选test_room_开头的任务
-                List<ZegoQuickStartTask> filteredTasks = new ArrayList<>();
-                for (ZegoQuickStartTask task : tasks) {
-                    if (task.getRoomId().startsWith(ZegoQuickStartConstants.TASK_ROOM_PREFIX)) {
-                        filteredTasks.add(task);
-                    }
-                }
-                
-                if (filteredTasks.isEmpty()) {
-                    updateStatus("没有可销毁的test_room_任务");
-                    taskControlView.setLoading(3, false);
-                    destroyExpress();
-                    return;
-                }
-                
-                // 依次停止所有任务
-                destroyTasksRecursively(filteredTasks, 0, filteredTasks.size());
+            public void onTaskStopped(ZegoQuickStartTask task, boolean success) {
+                Log.d(TAG, "[任务] 遗留任务停止" + (success ? "成功: " : "失败: ") + task.getTaskId());
             }
             
             @Override
-            public void onFailure(int code, String message) {
-                updateStatus("查询任务失败");
-                taskControlView.setLoading(3, false);
+            public void onComplete(ZegoQuickStartTaskTeardown.Result result) {
+                Log.d(TAG, "[任务] 遗留任务处理完成: " + result);
             }
         });
     }
     
     private void stopRTCBeforeDestroy(Runnable completion) {
+        cancelStartupPipeline();
+        stallRecreatePending = false;
+        sessionHost.onPlayStopped();
+        
         ZegoExpressEngine engine = null;
-        if (rtcEngineCreated) {
+        if (sessionHost.isEngineCreated()) {
             try {
                 engine = ZegoExpressEngine.getEngine();
             } catch (Exception e) {
@@ -993,10 +1256,11 @@ public class ZegoQuickStartMainActivity extends AppCompatActivity implements
             }
         }
         
-        if (currentStreamId != null && engine != null) {
+        String streamId = sessionHost.getStreamId();
+        if (streamId != null && engine != null) {
             try {
-                engine.stopPlayingStream(currentStreamId);
-                Log.d(TAG, "[RTC] 已停止拉流(销毁任务): " + currentStreamId);
+                engine.stopPlayingStream(streamId);
+                Log.d(TAG, "[RTC] 已停止拉流(销毁任务): " + streamId);
             } catch (Exception e) {
                 Log.e(TAG, "[RTC] 停止拉流失败(销毁任务)", e);
             }
@@ -1008,16 +1272,17 @@ public class ZegoQuickStartMainActivity extends AppCompatActivity implements
             }
         };
         
-        if (isRoomLoggedIn && currentRoomId != null && engine != null) {
+        String roomId = sessionHost.getRoomId();
+        if (sessionHost.isRoomLoggedIn() && roomId != null && engine != null) {
             try {
-                engine.logoutRoom(currentRoomId, (errorCode, extendedData) -> {
+                engine.logoutRoom(roomId, (errorCode, extendedData) -> {
                     Log.d(TAG, "[RTC] 登出房间结果(销毁任务): errorCode=" + errorCode);
-                    isRoomLoggedIn = false;
+                    sessionHost.setRoomLoggedIn(false);
                     stopDigitalHuman();
                     
-                    if (rtcEngineCreated) {
+                    if (sessionHost.isEngineCreated()) {
                         ZegoExpressEngine.destroyEngine(() -> {
-                            rtcEngineCreated = false;
+                            sessionHost.setEngineCreated(false);
                             invokeCompletionOnUi.run();
                         });
                     } else {
@@ -1027,9 +1292,9 @@ public class ZegoQuickStartMainActivity extends AppCompatActivity implements
             } catch (Exception e) {
                 Log.e(TAG, "[RTC] 登出房间失败(销毁任务)", e);
                 stopDigitalHuman();
-                if (rtcEngineCreated) {
+                if (sessionHost.isEngineCreated()) {
                     ZegoExpressEngine.destroyEngine(() -> {
-                        rtcEngineCreated = false;
+                        sessionHost.setEngineCreated(false);
                         invokeCompletionOnUi.run();
                     });
                 } else {
@@ -1038,9 +1303,9 @@ public class ZegoQuickStartMainActivity extends AppCompatActivity implements
             }
         } else {
             stopDigitalHuman();
-            if (rtcEngineCreated) {
+            if (sessionHost.isEngineCreated()) {
                 ZegoExpressEngine.destroyEngine(() -> {
-                    rtcEngineCreated = false;
+                    sessionHost.setEngineCreated(false);
                     invokeCompletionOnUi.run();
                 });
             } else {
@@ -1049,45 +1314,41 @@ public class ZegoQuickStartMainActivity extends AppCompatActivity implements
         }
     }
     
-    private void destroyTasksRecursively(List<ZegoQuickStartTask> tasks, int index, final int total) {
-        // 边界检查
-        if (index >= tasks.size()) {
-            updateStatus("已销毁" + total + "个任务");
-            taskControlView.setLoading(3, false);
-            return;
-        }
-        
-        ZegoQuickStartTask task = tasks.get(index);
-        Runnable callStopApi = () -> apiService.stopDigitalHumanStreamTask(task.getTaskId(), new ZegoQuickStartAPIService.CommonCallback() {
+    private void destroyTasksInParallel(List<ZegoQuickStartTask> tasks) {
+        ZegoQuickStartTask currentTask = sessionHost.getTask();
+        String currentTaskId = currentTask != null ? currentTask.getTaskId() : null;
+        taskTeardown.stopAll(tasks, currentTaskId, this::stopRTCBeforeDestroy, new ZegoQuickStartTaskTeardown.Listener() {
             @Override
-            public void onSuccess(JsonObject data) {
-                if (currentTask != null && task.getTaskId().equals(currentTask.getTaskId())) {
+            public void onTaskStopped(ZegoQuickStartTask task, boolean success) {
+                ZegoQuickStartTask current = sessionHost.getTask();
+                if (current == null || !task.getTaskId().equals(current.getTaskId())) {
+                    return;
+                }
+                if (success) {
                     cleanupTaskUIAfterStop();
+                } else if (isDestroyed()) {
+                    // 退出时停止失败：任务保留在任务日志中下次启动再停止，宿主中的会话不再保留
+                    cleanupTaskStateOnly();
                 }
-                // 继续下一个
-                destroyTasksRecursively(tasks, index + 1, total);
             }
             
             @Override
-            public void onFailure(int code, String message) {
-                // 忽略错误，继续下一个
-                destroyTasksRecursively(tasks, index + 1, total);
+            public void onComplete(ZegoQuickStartTaskTeardown.Result result) {
+                if (result.getFailed() > 0) {
+                    updateStatus("已销毁" + result.getSucceeded() + "个任务，失败" + result.getFailed() + "个");
+                } else {
+                    updateStatus("已销毁" + result.getTotal() + "个任务");
+                }
+                taskControlView.setLoading(3, false);
             }
         });
-        
-        if (currentTask != null && task.getTaskId().equals(currentTask.getTaskId())) {
-            stopRTCBeforeDestroy(callStopApi);
-        } else {
-            callStopApi.run();
-        }
     }
     
     // ==================== 驱动功能 ====================
     
     @Override
     public void onTextDriveClicked() {
-        if (currentTask == null) {
-            updateStatus("请先创建任务");
+        if (!ensureTaskForDrive(this::onTextDriveClicked)) {
             return;
         }
         
@@ -1096,12 +1357,14 @@ public class ZegoQuickStartMainActivity extends AppCompatActivity implements
             toggleControlPanel();
         }
         
+        beginDriveTrace();
         updateStatus("正在文本驱动...");
         driveControlView.setLoading(ZegoQuickStartDriveType.TEXT, true);
         
-        apiService.driveByText(currentTask.getTaskId(), new ZegoQuickStartAPIService.CommonCallback() {
+        apiService.driveByText(sessionHost.getTask().getTaskId(), new ZegoQuickStartAPIService.CommonCallback() {
             @Override
             public void onSuccess(JsonObject data) {
+                spanRecorder.mark(ZegoQuickStartSpanRecorder.TRACE_DRIVE, ZegoQuickStartSpanRecorder.POINT_DRIVE_ACCEPTED);
                 updateStatus("文本驱动成功");
                 driveControlView.setLoading(ZegoQuickStartDriveType.TEXT, false);
             }
@@ -1116,8 +1379,7 @@ public class ZegoQuickStartMainActivity extends AppCompatActivity implements
     
     @Override
     public void onAudioDriveClicked() {
-        if (currentTask == null) {
-            updateStatus("请先创建任务");
+        if (!ensureTaskForDrive(this::onAudioDriveClicked)) {
             return;
         }
         
@@ -1126,12 +1388,14 @@ public class ZegoQuickStartMainActivity extends AppCompatActivity implements
             toggleControlPanel();
         }
         
+        beginDriveTrace();
         updateStatus("正在音频驱动...");
         driveControlView.setLoading(ZegoQuickStartDriveType.AUDIO, true);
         
-        apiService.driveByAudio(currentTask.getTaskId(), new ZegoQuickStartAPIService.CommonCallback() {
+        apiService.driveByAudio(sessionHost.getTask().getTaskId(), new ZegoQuickStartAPIService.CommonCallback() {
             @Override
             public void onSuccess(JsonObject data) {
+                spanRecorder.mark(ZegoQuickStartSpanRecorder.TRACE_DRIVE, ZegoQuickStartSpanRecorder.POINT_DRIVE_ACCEPTED);
                 updateStatus("音频驱动成功");
                 driveControlView.setLoading(ZegoQuickStartDriveType.AUDIO, false);
             }
@@ -1146,8 +1410,7 @@ public class ZegoQuickStartMainActivity extends AppCompatActivity implements
     
     @Override
     public void onWsTTSDriveClicked() {
-        if (currentTask == null) {
-            updateStatus("请先创建任务");
+        if (!ensureTaskForDrive(this::onWsTTSDriveClicked)) {
             return;
         }
         
@@ -1156,12 +1419,14 @@ public class ZegoQuickStartMainActivity extends AppCompatActivity implements
             toggleControlPanel();
         }
         
+        beginDriveTrace();
         updateStatus("正在WebSocket TTS驱动...");
         driveControlView.setLoading(ZegoQuickStartDriveType.WS_TTS, true);
         
-        apiService.driveByWsStreamWithTTS(currentTask.getTaskId(), new ZegoQuickStartAPIService.CommonCallback() {
+        apiService.driveByWsStreamWithTTS(sessionHost.getTask().getTaskId(), new ZegoQuickStartAPIService.CommonCallback() {
             @Override
             public void onSuccess(JsonObject data) {
+                spanRecorder.mark(ZegoQuickStartSpanRecorder.TRACE_DRIVE, ZegoQuickStartSpanRecorder.POINT_DRIVE_ACCEPTED);
                 updateStatus("WebSocket TTS驱动成功");
                 driveControlView.setLoading(ZegoQuickStartDriveType.WS_TTS, false);
             }
@@ -1174,28 +1439,84 @@ public class ZegoQuickStartMainActivity extends AppCompatActivity implements
         });
     }
     
-    // ==================== 数字人管理 ====================
+    /**
+     * 驱动前检查任务并记录交互；任务因空闲被自动停止时重新创建，启动完成后再执行本次驱动
+     * @param drive 启动完成后重新执行的驱动
+     * @return 是否可以立即驱动
+     */
+    private boolean ensureTaskForDrive(Runnable drive) {
+        if (sessionHost.getTask() != null) {
+            idleGovernor.onActivity();
+            return true;
+        }
+        if (!idleGovernor.isResumePending()) {
+            updateStatus("请先创建任务");
+            return false;
+        }
+        boolean creating = pendingResumeAction != null;
+        pendingResumeAction = drive;
+        if (!creating) {
+            Log.d(TAG, "[任务] 任务已因空闲停止，重新创建");
+            onCreateTaskClicked();
+            pendingResumeAction = drive;
+            updateStatus("正在重新创建任务...");
+        }
+        return false;
+    }
+    
+    /**
+     * 任务空闲超时：释放播放并停止任务
+     */
+    private void onTaskIdle(String taskId) {
+        ZegoQuickStartTask task = sessionHost.getTask();
+        if (task == null || !task.getTaskId().equals(taskId)) {
+            return;
+        }
+        Log.i(TAG, "[任务] 空闲超时，自动停止任务: " + taskId);
+        stopTaskInternal(true);
+    }
+    
+    /**
+     * 因空闲自动停止累计节省的任务时长（秒）
+     */
+    public long getIdleTaskSecondsSaved() {
+        return idleGovernor.getTaskSecondsSaved();
+    }
     
-    private void startDigitalHuman(String base64Config) {
+    /**
+     * 开始一次驱动耗时会话：点击 -> 驱动接口成功 -> 之后的首个SEI
+     */
+    private void beginDriveTrace() {
+        spanRecorder.beginTrace(ZegoQuickStartSpanRecorder.TRACE_DRIVE,
+                ZegoQuickStartSpanRecorder.POINT_FIRST_SEI, ZegoQuickStartSpanRecorder.POINT_DRIVE_ACCEPTED);
+        spanRecorder.mark(ZegoQuickStartSpanRecorder.TRACE_DRIVE, ZegoQuickStartSpanRecorder.POINT_CLICK);
+    }
+    
+        // ==================== 数字人管理 ====================
+    
+    /**
+     * 启动数字人，结果通过 onDigitalMobileStartSuccess/onError 回调
+     * @return 错误信息，启动已发出时返回null
+     */
+    private String startDigitalHuman(String base64Config) {
         // 边界检查
         if (base64Config == null || base64Config.isEmpty()) {
             Log.e(TAG, "[数字人] 错误：配置为空");
-            updateStatus("数字人错误：配置为空");
-            return;
+            return "数字人错误：配置为空";
         }
         
         if (digitalMobile == null) {
             Log.e(TAG, "[数字人] 错误：数字人SDK未初始化");
-            updateStatus("数字人错误：数字人SDK未初始化");
-            return;
+            return "数字人错误：数字人SDK未初始化";
         }
         
         try {
             Log.d(TAG, "[数字人] 开始启动数字人，配置长度: " + base64Config.length());
-            digitalMobile.start(base64Config, this);
+            sessionHost.startDigitalHuman(base64Config);
+            return null;
         } catch (Exception e) {
             Log.e(TAG, "[数字人] 启动数字人失败", e);
-            updateStatus("数字人错误：启动失败: " + e.getMessage());
+            return "数字人错误：启动失败: " + e.getMessage();
         }
     }
     
@@ -1206,7 +1527,7 @@ public class ZegoQuickStartMainActivity extends AppCompatActivity implements
         
         try {
             Log.d(TAG, "[数字人] 停止数字人");
-            digitalMobile.stop();
+            sessionHost.stopDigitalHuman();
             updateStatus("数字人已停止");
             if (placeholderView != null) {
                 placeholderView.show();
@@ -1216,24 +1537,38 @@ public class ZegoQuickStartMainActivity extends AppCompatActivity implements
         }
     }
     
-    // ==================== IZegoDigitalMobile.ZegoDigitalMobileListener 回调 ====================
+    // ==================== 数字人回调（经会话宿主转发） ====================
     
     @Override
     public void onDigitalMobileStartSuccess() {
         Log.d(TAG, "[数字人] 数字人启动成功");
+        spanRecorder.markActive(ZegoQuickStartSpanRecorder.POINT_DIGITAL_HUMAN_STARTED);
         updateStatus("数字人启动成功");
+        ZegoQuickStartStartupPipeline.StageHandle handle = sessionHost.takeDigitalHumanStartHandle();
+        if (handle != null) {
+            handle.complete();
+        }
     }
     
     @Override
     public void onError(int errorCode, String errorMsg) {
         Log.e(TAG, "[数字人] 数字人错误: " + errorCode + " - " + errorMsg);
         updateStatus("数字人错误: " + errorMsg);
+        ZegoQuickStartStartupPipeline.StageHandle handle = sessionHost.takeDigitalHumanStartHandle();
+        if (handle != null) {
+            handle.fail("数字人错误: " + errorCode);
+        }
     }
     
     @Override
     public void onSurfaceFirstFrameDraw() {
         Log.d(TAG, "[数字人] 首帧绘制完成");
+        spanRecorder.markActive(ZegoQuickStartSpanRecorder.POINT_FIRST_DRAW);
         updateStatus("数字人首帧绘制完成");
+        ZegoQuickStartStartupPipeline.StageHandle handle = sessionHost.takeFirstFrameHandle();
+        if (handle != null) {
+            handle.complete();
+        }
         if (placeholderView != null) {
             placeholderView.hide();
         }
@@ -1241,9 +1576,20 @@ public class ZegoQuickStartMainActivity extends AppCompatActivity implements
     
     // ==================== 生命周期 ====================
     
+    @Override
+    protected void onStart() {
+        super.onStart();
+        sessionHost.setVisible(true, sessionHost.getPlayingStreamId());
+    }
+    
     @Override
     protected void onStop() {
         super.onStop();
+        idleGovernor.setForeground(false);
+        // 配置变化重建时界面马上恢复，不切换播放模式，避免恢复后等待关键帧
+        if (!isChangingConfigurations()) {
+            sessionHost.setVisible(false, sessionHost.getPlayingStreamId());
+        }
     }
     
     @Override
@@ -1251,18 +1597,33 @@ public class ZegoQuickStartMainActivity extends AppCompatActivity implements
         super.onResume();
         
         Log.d(TAG, "onResume");
+        idleGovernor.setForeground(true);
         
         // 重新应用配置（无持久化）
         apiService.setServerURL(config.getServerURL());
     }
 
 
+    /**
+     * 在后台线程将耗时报告写入应用私有目录
+     */
+    private void dumpSpanReport() {
+        File reportFile = new File(getFilesDir(), SPAN_REPORT_FILE_NAME);
+        new Thread(() -> {
+            if (spanRecorder.dumpToFile(reportFile)) {
+                Log.d(TAG, "[耗时] 报告已写入: " + reportFile.getAbsolutePath());
+            }
+        }, "span-report").start();
+    }
+    
     private void destroyExpress() {
+        sessionHost.stopFramePipeline();
+        
         // 销毁引擎
-        if (rtcEngineCreated) {
+        if (sessionHost.isEngineCreated()) {
             try {
                 ZegoExpressEngine.destroyEngine(null);
-                rtcEngineCreated = false;
+                sessionHost.setEngineCreated(false);
             } catch (Exception e) {
                 Log.e(TAG, "销毁引擎时发生异常", e);
             }
@@ -1272,6 +1633,19 @@ public class ZegoQuickStartMainActivity extends AppCompatActivity implements
     @Override
     protected void onDestroy() {
         super.onDestroy();
+        apiService.removeCircuitStateListener(circuitStateListener);
+        digitalHumanCache.cancelScheduledRefresh();
+        idleGovernor.release();
+        
+        // 配置变化重建：会话状态都在宿主中，已创建的任务和进行中的启动流程都继续，只卸载视图
+        if (isChangingConfigurations() && sessionHost.hasSession()) {
+            sessionHost.detach(this);
+            Log.d(TAG, "ZegoQuickStartMainActivity destroyed (会话已保留)");
+            return;
+        }
+        
+        sessionHost.detach(this);
+        dumpSpanReport();
         destroyAllTasks();
         Log.d(TAG, "ZegoQuickStartMainActivity destroyed");
     }
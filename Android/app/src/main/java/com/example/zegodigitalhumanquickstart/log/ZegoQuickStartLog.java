@@ -0,0 +1,394 @@
+package com.example.zegodigitalhumanquickstart.log;
+
+import android.util.Log;
+
+import com.example.zegodigitalhumanquickstart.ZegoQuickStartConstants;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 日志门面
+ * 1. 先检查级别再记录，未开启的级别不做任何格式化
+ * 2. 调用线程只把格式串和参数引用写入预分配的环形队列，格式化和输出都在后台写线程完成，
+ *    调用方不会被阻塞，也不会产生分配（参数本身除外）；队列满时丢弃并计数
+ * 3. 支持按tag限频、按tag采样，以及截断过长的请求/响应体
+ * 格式串使用 {} 作为参数占位符
+ * 参数约定：
+ * - 对象参数按引用保存，在写线程格式化时才调用 toString，只能传入不可变对象（String、枚举等）；
+ *   可变对象（StringBuilder、数组、复用的帧参数等）会输出写线程格式化时的内容，需调用方先转成字符串
+ * - 数值参数使用 long 重载，按原始值存入槽位，不会装箱
+ */
+public final class ZegoQuickStartLog {
+
+    private static final int MAX_ARGS = 3;
+    private static final long WRITER_IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(50);
+
+    private static volatile int minLevel = Log.DEBUG;
+
+    private static final Record[] records;
+    private static final AtomicLongArray sequences;
+    private static final int mask;
+    private static final AtomicLong tail = new AtomicLong();
+    private static final AtomicLong droppedCount = new AtomicLong();
+    private static final ConcurrentHashMap<String, RateLimiter> rateLimiters = new ConcurrentHashMap<>();
+    private static final ConcurrentHashMap<String, AtomicLong> samplers = new ConcurrentHashMap<>();
+    private static final Thread writerThread;
+    private static volatile boolean writerParked;
+
+    static {
+        int capacity = Integer.highestOneBit(Math.max(2, ZegoQuickStartConstants.LOG_RING_CAPACITY) - 1) << 1;
+        records = new Record[capacity];
+        sequences = new AtomicLongArray(capacity);
+        for (int i = 0; i < capacity; i++) {
+            records[i] = new Record();
+            sequences.set(i, i);
+        }
+        mask = capacity - 1;
+
+        writerThread = new Thread(ZegoQuickStartLog::writeLoop, "zego-log-writer");
+        writerThread.setDaemon(true);
+        writerThread.setPriority(Thread.MIN_PRIORITY);
+        writerThread.start();
+    }
+
+    private ZegoQuickStartLog() {
+        throw new AssertionError("Cannot instantiate ZegoQuickStartLog");
+    }
+
+    /**
+     * 队列中的一条日志，槽位预分配并复用
+     */
+    private static final class Record {
+        int level;
+        String tag;
+        String format;
+        final Object[] args = new Object[MAX_ARGS];
+        final long[] longArgs = new long[MAX_ARGS];
+        int longMask;      // 第i位为1时第i个参数取 longArgs[i]
+        Throwable throwable;
+        long suppressed;   // 限频期间被抑制的条数
+        int sampleEvery;   // 采样间隔，0表示未采样
+        int bodyMaxChars;  // >0 时第一个参数为需要截断的正文
+    }
+
+    /**
+     * 单个tag的限频状态
+     */
+    private static final class RateLimiter {
+        final AtomicLong nextAllowedNanos = new AtomicLong();
+        final AtomicLong suppressed = new AtomicLong();
+    }
+
+    // ==================== 配置 ====================
+
+    /**
+     * 设置最低输出级别（android.util.Log 的级别常量），默认 DEBUG
+     */
+    public static void setMinLevel(int level) {
+        minLevel = level;
+    }
+
+    public static boolean isLoggable(int level) {
+        return level >= minLevel;
+    }
+
+    /**
+     * 队列满被丢弃的日志条数
+     */
+    public static long getDroppedCount() {
+        return droppedCount.get();
+    }
+
+    // ==================== 基础输出 ====================
+
+    public static void v(String tag, String format, Object arg0, Object arg1) {
+        if (isLoggable(Log.VERBOSE)) {
+            enqueue(Log.VERBOSE, tag, format, arg0, arg1, null, null, 0, 0, 0);
+        }
+    }
+
+    public static void d(String tag, String format) {
+        if (isLoggable(Log.DEBUG)) {
+            enqueue(Log.DEBUG, tag, format, null, null, null, null, 0, 0, 0);
+        }
+    }
+
+    public static void d(String tag, String format, Object arg0) {
+        if (isLoggable(Log.DEBUG)) {
+            enqueue(Log.DEBUG, tag, format, arg0, null, null, null, 0, 0, 0);
+        }
+    }
+
+    public static void d(String tag, String format, Object arg0, Object arg1) {
+        if (isLoggable(Log.DEBUG)) {
+            enqueue(Log.DEBUG, tag, format, arg0, arg1, null, null, 0, 0, 0);
+        }
+    }
+
+    public static void d(String tag, String format, long arg0) {
+        if (isLoggable(Log.DEBUG)) {
+            enqueue(Log.DEBUG, tag, format, null, null, null, 1, arg0, 0, null, 0, 0, 0);
+        }
+    }
+
+    public static void d(String tag, String format, Object arg0, long arg1) {
+        if (isLoggable(Log.DEBUG)) {
+            enqueue(Log.DEBUG, tag, format, arg0, null, null, 1 << 1, 0, arg1, null, 0, 0, 0);
+        }
+    }
+
+    public static void i(String tag, String format, Object arg0) {
+        if (isLoggable(Log.INFO)) {
+            enqueue(Log.INFO, tag, format, arg0, null, null, null, 0, 0, 0);
+        }
+    }
+
+    public static void i(String tag, String format, Object arg0, long arg1) {
+        if (isLoggable(Log.INFO)) {
+            enqueue(Log.INFO, tag, format, arg0, null, null, 1 << 1, 0, arg1, null, 0, 0, 0);
+        }
+    }
+
+    public static void w(String tag, String format, Object arg0) {
+        if (isLoggable(Log.WARN)) {
+            enqueue(Log.WARN, tag, format, arg0, null, null, null, 0, 0, 0);
+        }
+    }
+
+    public static void w(String tag, String format, Object arg0, long arg1) {
+        if (isLoggable(Log.WARN)) {
+            enqueue(Log.WARN, tag, format, arg0, null, null, 1 << 1, 0, arg1, null, 0, 0, 0);
+        }
+    }
+
+    public static void e(String tag, String format, Object arg0, Throwable throwable) {
+        if (isLoggable(Log.ERROR)) {
+            enqueue(Log.ERROR, tag, format, arg0, null, null, throwable, 0, 0, 0);
+        }
+    }
+
+    // ==================== 限频、采样、正文截断 ====================
+
+    /**
+     * 限频输出：同一tag在 intervalMs 内最多输出一条，期间被抑制的条数附加在下一条输出中
+     */
+    public static void throttled(int level, String tag, long intervalMs, String format, Object arg0) {
+        if (isLoggable(level)) {
+            throttle(level, tag, intervalMs, format, arg0, null, 0, 0);
+        }
+    }
+
+    public static void throttled(int level, String tag, long intervalMs, String format, Object arg0, Object arg1) {
+        if (isLoggable(level)) {
+            throttle(level, tag, intervalMs, format, arg0, arg1, 0, 0);
+        }
+    }
+
+    public static void throttled(int level, String tag, long intervalMs, String format, Object arg0, long arg1) {
+        if (isLoggable(level)) {
+            throttle(level, tag, intervalMs, format, arg0, null, 1 << 1, arg1);
+        }
+    }
+
+    /**
+     * 采样输出：同一tag每 everyN 条输出一条
+     */
+    public static void sampled(int level, String tag, int everyN, String format, Object arg0) {
+        if (isLoggable(level)) {
+            sample(level, tag, everyN, format, arg0, null, 0, 0);
+        }
+    }
+
+    public static void sampled(int level, String tag, int everyN, String format, Object arg0, Object arg1) {
+        if (isLoggable(level)) {
+            sample(level, tag, everyN, format, arg0, arg1, 0, 0);
+        }
+    }
+
+    public static void sampled(int level, String tag, int everyN, String format, Object arg0, long arg1) {
+        if (isLoggable(level)) {
+            sample(level, tag, everyN, format, arg0, null, 1 << 1, arg1);
+        }
+    }
+
+    private static void throttle(int level, String tag, long intervalMs, String format,
+                                 Object arg0, Object arg1, int longMask, long long1) {
+        RateLimiter limiter = rateLimiters.get(tag);
+        if (limiter == null) {
+            limiter = rateLimiters.computeIfAbsent(tag, key -> new RateLimiter());
+        }
+        long now = System.nanoTime();
+        long next = limiter.nextAllowedNanos.get();
+        if (now - next < 0 || !limiter.nextAllowedNanos.compareAndSet(next, now + TimeUnit.MILLISECONDS.toNanos(intervalMs))) {
+            limiter.suppressed.incrementAndGet();
+            return;
+        }
+        enqueue(level, tag, format, arg0, arg1, null, longMask, 0, long1, null, limiter.suppressed.getAndSet(0), 0, 0);
+    }
+
+    private static void sample(int level, String tag, int everyN, String format,
+                               Object arg0, Object arg1, int longMask, long long1) {
+        AtomicLong counter = samplers.get(tag);
+        if (counter == null) {
+            counter = samplers.computeIfAbsent(tag, key -> new AtomicLong());
+        }
+        int every = Math.max(1, everyN);
+        if (counter.getAndIncrement() % every != 0) {
+            return;
+        }
+        enqueue(level, tag, format, arg0, arg1, null, longMask, 0, long1, null, 0, every, 0);
+    }
+
+    /**
+     * 输出请求/响应体，超过 {@link ZegoQuickStartConstants#LOG_BODY_MAX_CHARS} 的部分会被截断
+     * 截断在写线程完成，调用线程不会复制正文
+     *
+     * @param format 格式串，第一个 {} 为正文
+     */
+    public static void body(int level, String tag, String format, String body) {
+        if (isLoggable(level)) {
+            enqueue(level, tag, format, body, null, null, null, 0, 0, ZegoQuickStartConstants.LOG_BODY_MAX_CHARS);
+        }
+    }
+
+    // ==================== 队列 ====================
+
+    private static void enqueue(int level, String tag, String format, Object arg0, Object arg1, Object arg2,
+                                Throwable throwable, long suppressed, int sampleEvery, int bodyMaxChars) {
+        enqueue(level, tag, format, arg0, arg1, arg2, 0, 0, 0, throwable, suppressed, sampleEvery, bodyMaxChars);
+    }
+
+    /**
+     * 写入一条日志，对象参数只保存引用；longMask 中第i位为1的参数取对应的 long 值
+     */
+    private static void enqueue(int level, String tag, String format, Object arg0, Object arg1, Object arg2,
+                                int longMask, long long0, long long1,
+                                Throwable throwable, long suppressed, int sampleEvery, int bodyMaxChars) {
+        long position = tail.get();
+        while (true) {
+            int index = (int) (position & mask);
+            long diff = sequences.get(index) - position;
+            if (diff == 0) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    break;
+                }
+                position = tail.get();
+            } else if (diff < 0) {
+                // 队列已满，丢弃而不是阻塞调用线程
+                droppedCount.incrementAndGet();
+                return;
+            } else {
+                position = tail.get();
+            }
+        }
+
+        int index = (int) (position & mask);
+        Record record = records[index];
+        record.level = level;
+        record.tag = tag;
+        record.format = format;
+        record.args[0] = arg0;
+        record.args[1] = arg1;
+        record.args[2] = arg2;
+        record.longArgs[0] = long0;
+        record.longArgs[1] = long1;
+        record.longMask = longMask;
+        record.throwable = throwable;
+        record.suppressed = suppressed;
+        record.sampleEvery = sampleEvery;
+        record.bodyMaxChars = bodyMaxChars;
+        sequences.lazySet(index, position + 1);
+
+        if (writerParked) {
+            LockSupport.unpark(writerThread);
+        }
+    }
+
+    // ==================== 写线程 ====================
+
+    private static void writeLoop() {
+        StringBuilder builder = new StringBuilder(256);
+        long head = 0;
+        while (true) {
+            int index = (int) (head & mask);
+            if (sequences.get(index) != head + 1) {
+                writerParked = true;
+                if (sequences.get(index) != head + 1) {
+                    LockSupport.parkNanos(WRITER_IDLE_PARK_NANOS);
+                }
+                writerParked = false;
+                continue;
+            }
+
+            Record record = records[index];
+            int level = record.level;
+            String tag = record.tag;
+            Throwable throwable = record.throwable;
+            builder.setLength(0);
+            try {
+                format(builder, record);
+            } catch (Exception e) {
+                builder.append(record.format);
+            }
+            record.tag = null;
+            record.format = null;
+            record.args[0] = null;
+            record.args[1] = null;
+            record.args[2] = null;
+            record.throwable = null;
+            sequences.lazySet(index, head + mask + 1);
+            head++;
+
+            Log.println(level, tag, builder.toString());
+            if (throwable != null) {
+                Log.println(level, tag, Log.getStackTraceString(throwable));
+            }
+        }
+    }
+
+    private static void format(StringBuilder builder, Record record) {
+        String format = record.format != null ? record.format : "";
+        int argIndex = 0;
+        int start = 0;
+        int placeholder;
+        while ((placeholder = format.indexOf("{}", start)) >= 0) {
+            builder.append(format, start, placeholder);
+            if (argIndex < MAX_ARGS) {
+                Object arg = record.args[argIndex];
+                if ((record.longMask & (1 << argIndex)) != 0) {
+                    builder.append(record.longArgs[argIndex]);
+                } else if (argIndex == 0 && record.bodyMaxChars > 0) {
+                    appendBody(builder, arg != null ? arg.toString() : null, record.bodyMaxChars);
+                } else {
+                    builder.append(arg);
+                }
+                argIndex++;
+            } else {
+                builder.append("{}");
+            }
+            start = placeholder + 2;
+        }
+        builder.append(format, start, format.length());
+
+        if (record.suppressed > 0) {
+            builder.append(" (已抑制").append(record.suppressed).append("条)");
+        }
+        if (record.sampleEvery > 1) {
+            builder.append(" (采样1/").append(record.sampleEvery).append(')');
+        }
+    }
+
+    private static void appendBody(StringBuilder builder, String body, int maxChars) {
+        if (body == null) {
+            builder.append("null");
+        } else if (body.length() <= maxChars) {
+            builder.append(body);
+        } else {
+            builder.append(body, 0, maxChars).append("...(共").append(body.length()).append("字符)");
+        }
+    }
+}
@@ -0,0 +1,183 @@
+package com.example.zegodigitalhumanquickstart.metrics;
+
+import android.content.Context;
+import android.os.BatteryManager;
+import android.os.Process;
+import android.os.SystemClock;
+
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 播放模式资源消耗统计
+ * 分别累计可见（音视频）和不可见（仅音频）两种播放模式下的：
+ * - 时长和进程CPU时间（CPU占用率 = CPU时间 / 时长）
+ * - 接收数据量（按拉流质量回调的码率对回调间隔积分）
+ * - 电量消耗（BatteryManager 电量计数，单位微安时；充电中或设备不支持时为0）
+ * - 不可见期间丢弃的视频帧数
+ * 目前没有实测数据：仅音频模式节省的CPU和电量尚未在真机上测量，不能作为结论引用。
+ * 测量方法：真机不充电、屏幕常亮，同一任务分别在前台和后台各播放10分钟以上，
+ * 对比切换时日志 "[播放]" 行输出的 {@link #getReport()}（CPU占用率、码率、每小时耗电）
+ */
+public final class ZegoQuickStartPlaybackModeMetrics {
+
+    /**
+     * 播放模式
+     */
+    public enum Mode {
+        VISIBLE,
+        AUDIO_ONLY
+    }
+
+    private final BatteryManager batteryManager;
+    private final Totals[] totals = {new Totals(), new Totals()};
+    private final AtomicLong droppedFrames = new AtomicLong();
+
+    private Mode mode = Mode.VISIBLE;
+    private long modeStartedAt;
+    private long modeStartCpuMs;
+    private long modeStartChargeMicroAh;
+    private long lastQualityAt;
+
+    private static final class Totals {
+        long wallMs;
+        long cpuMs;
+        double receivedKBytes;
+        long chargeMicroAh;
+    }
+
+    /**
+     * 单个模式的累计统计
+     */
+    public static final class Snapshot {
+        private final Mode mode;
+        private final long wallMs;
+        private final long cpuMs;
+        private final double receivedKBytes;
+        private final long chargeMicroAh;
+
+        Snapshot(Mode mode, long wallMs, long cpuMs, double receivedKBytes, long chargeMicroAh) {
+            this.mode = mode;
+            this.wallMs = wallMs;
+            this.cpuMs = cpuMs;
+            this.receivedKBytes = receivedKBytes;
+            this.chargeMicroAh = chargeMicroAh;
+        }
+
+        public Mode getMode() {
+            return mode;
+        }
+
+        public long getWallMs() {
+            return wallMs;
+        }
+
+        /**
+         * 平均CPU占用率（单核百分比）
+         */
+        public double getCpuPercent() {
+            return wallMs > 0 ? cpuMs * 100.0 / wallMs : 0;
+        }
+
+        /**
+         * 平均接收码率（kbps）
+         */
+        public double getAverageKbps() {
+            return wallMs > 0 ? receivedKBytes * 8 * 1000 / wallMs : 0;
+        }
+
+        /**
+         * 平均耗电（微安时/小时，即平均电流微安）
+         */
+        public double getChargePerHourMicroAh() {
+            return wallMs > 0 ? chargeMicroAh * 3_600_000.0 / wallMs : 0;
+        }
+
+        @Override
+        public String toString() {
+            return String.format(Locale.US, "%s: time=%ds cpu=%.1f%% recv=%.0fkbps battery=%.0fuA",
+                    mode, wallMs / 1000, getCpuPercent(), getAverageKbps(), getChargePerHourMicroAh());
+        }
+    }
+
+    public ZegoQuickStartPlaybackModeMetrics(Context context) {
+        batteryManager = (BatteryManager) context.getApplicationContext().getSystemService(Context.BATTERY_SERVICE);
+        modeStartedAt = SystemClock.elapsedRealtime();
+        modeStartCpuMs = Process.getElapsedCpuTime();
+        modeStartChargeMicroAh = readChargeMicroAh();
+        lastQualityAt = modeStartedAt;
+    }
+
+    /**
+     * 切换播放模式，结算上一个模式的统计
+     */
+    public synchronized void enter(Mode newMode) {
+        if (newMode == mode) {
+            return;
+        }
+        settle();
+        mode = newMode;
+    }
+
+    /**
+     * 拉流质量回调
+     * @param videoKBPS 视频接收码率
+     * @param audioKBPS 音频接收码率
+     */
+    public synchronized void onPlayerQuality(double videoKBPS, double audioKBPS) {
+        long now = SystemClock.elapsedRealtime();
+        long intervalMs = now - lastQualityAt;
+        lastQualityAt = now;
+        totals[mode.ordinal()].receivedKBytes += (videoKBPS + audioKBPS) / 8 * intervalMs / 1000;
+    }
+
+    /**
+     * 不可见期间丢弃一帧视频
+     */
+    public void onFrameDropped() {
+        droppedFrames.incrementAndGet();
+    }
+
+    public long getDroppedFrames() {
+        return droppedFrames.get();
+    }
+
+    /**
+     * 获取模式的累计统计（包含当前进行中的时段）
+     */
+    public synchronized Snapshot snapshot(Mode target) {
+        settle();
+        Totals t = totals[target.ordinal()];
+        return new Snapshot(target, t.wallMs, t.cpuMs, t.receivedKBytes, t.chargeMicroAh);
+    }
+
+    /**
+     * 两种模式的对比报告
+     */
+    public String getReport() {
+        return snapshot(Mode.VISIBLE) + "; " + snapshot(Mode.AUDIO_ONLY) + "; dropped=" + droppedFrames.get();
+    }
+
+    private void settle() {
+        long now = SystemClock.elapsedRealtime();
+        long cpuMs = Process.getElapsedCpuTime();
+        long charge = readChargeMicroAh();
+        Totals t = totals[mode.ordinal()];
+        t.wallMs += now - modeStartedAt;
+        t.cpuMs += cpuMs - modeStartCpuMs;
+        if (charge > 0 && modeStartChargeMicroAh > 0 && charge < modeStartChargeMicroAh) {
+            t.chargeMicroAh += modeStartChargeMicroAh - charge;
+        }
+        modeStartedAt = now;
+        modeStartCpuMs = cpuMs;
+        modeStartChargeMicroAh = charge;
+    }
+
+    private long readChargeMicroAh() {
+        if (batteryManager == null) {
+            return 0;
+        }
+        long charge = batteryManager.getLongProperty(BatteryManager.BATTERY_PROPERTY_CHARGE_COUNTER);
+        return charge == Long.MIN_VALUE ? 0 : charge;
+    }
+}
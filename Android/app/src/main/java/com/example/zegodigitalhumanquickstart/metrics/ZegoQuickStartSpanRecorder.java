@@ -0,0 +1,349 @@
+package com.example.zegodigitalhumanquickstart.metrics;
+
+import android.os.SystemClock;
+import android.util.Log;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * 生命周期耗时记录器
+ * 以单调时钟记录一次会话（trace）中各个关键节点相对会话开始的时间，
+ * 会话在结束节点到达时完成，完成的会话用于统计每个节点的 p50/p95/p99
+ * 每个节点在一次会话中只记录第一次，热路径上没有打开的会话时 mark 仅做一次volatile读
+ */
+public final class ZegoQuickStartSpanRecorder {
+
+    private static final String TAG = "ZegoQuickStartSpanRecorder";
+    private static final int MAX_COMPLETED_TRACES = 200;
+
+    // ==================== 会话类型 ====================
+    public static final String TRACE_TASK_START = "task_start";  // 创建任务点击 -> 首帧绘制
+    public static final String TRACE_DRIVE = "drive";            // 驱动点击 -> 驱动接口成功后的首个SEI
+
+    // ==================== 节点 ====================
+    public static final String POINT_CLICK = "click";
+    public static final String POINT_HTTP_SENT = "http_sent";
+    public static final String POINT_HTTP_RECEIVED = "http_received";
+    public static final String POINT_LOGIN_SUCCESS = "login_success";
+    public static final String POINT_DIGITAL_HUMAN_STARTED = "digital_human_started";
+    public static final String POINT_FIRST_REMOTE_FRAME = "first_remote_frame";
+    public static final String POINT_FIRST_SEI = "first_sei";
+    public static final String POINT_FIRST_DRAW = "first_draw";
+    public static final String POINT_DRIVE_ACCEPTED = "drive_accepted";
+
+    private static final ZegoQuickStartSpanRecorder instance = new ZegoQuickStartSpanRecorder();
+
+    private final List<Trace> openTraces = new CopyOnWriteArrayList<>();
+    private final Deque<Trace> completedTraces = new ArrayDeque<>();
+    private volatile int openTraceCount;
+    private long nextTraceId;
+
+    private ZegoQuickStartSpanRecorder() {
+    }
+
+    public static ZegoQuickStartSpanRecorder getInstance() {
+        return instance;
+    }
+
+    /**
+     * 单次会话
+     */
+    public static final class Trace {
+        private final long id;
+        private final String name;
+        private final String endPoint;
+        private final String gatePoint;
+        private final long startNanos;
+        private final Map<String, Long> points = new ConcurrentHashMap<>();
+        private final Map<String, Long> orderedPoints = new LinkedHashMap<>();
+
+        Trace(long id, String name, String endPoint, String gatePoint, long startNanos) {
+            this.id = id;
+            this.name = name;
+            this.endPoint = endPoint;
+            this.gatePoint = gatePoint;
+            this.startNanos = startNanos;
+        }
+
+        public long getId() {
+            return id;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        /**
+         * 节点相对会话开始的耗时（毫秒），未记录返回-1
+         */
+        public double getOffsetMs(String point) {
+            Long offset = points.get(point);
+            return offset != null ? offset / 1_000_000.0 : -1;
+        }
+
+        /**
+         * 按记录顺序返回 节点 -> 偏移（毫秒）
+         */
+        public synchronized Map<String, Double> getBreakdownMs() {
+            Map<String, Double> result = new LinkedHashMap<>();
+            for (Map.Entry<String, Long> entry : orderedPoints.entrySet()) {
+                result.put(entry.getKey(), entry.getValue() / 1_000_000.0);
+            }
+            return result;
+        }
+
+        boolean mark(String point, long nowNanos) {
+            if (points.containsKey(point)) {
+                return false;
+            }
+            if (gatePoint != null && point.equals(endPoint) && !points.containsKey(gatePoint)) {
+                // 结束节点需在前置节点之后才记录
+                return false;
+            }
+            long offset = nowNanos - startNanos;
+            synchronized (this) {
+                if (points.putIfAbsent(point, offset) != null) {
+                    return false;
+                }
+                orderedPoints.put(point, offset);
+            }
+            return true;
+        }
+    }
+
+    /**
+     * 节点耗时分位统计
+     */
+    public static final class Summary {
+        private final String point;
+        private final int count;
+        private final double p50;
+        private final double p95;
+        private final double p99;
+
+        Summary(String point, int count, double p50, double p95, double p99) {
+            this.point = point;
+            this.count = count;
+            this.p50 = p50;
+            this.p95 = p95;
+            this.p99 = p99;
+        }
+
+        public String getPoint() {
+            return point;
+        }
+
+        public int getCount() {
+            return count;
+        }
+
+        public double getP50() {
+            return p50;
+        }
+
+        public double getP95() {
+            return p95;
+        }
+
+        public double getP99() {
+            return p99;
+        }
+
+        @Override
+        public String toString() {
+            return String.format(Locale.US, "%s n=%d p50=%.1fms p95=%.1fms p99=%.1fms", point, count, p50, p95, p99);
+        }
+    }
+
+    /**
+     * 开始新的会话，同名的未完成会话会被丢弃
+     *
+     * @param name     会话类型
+     * @param endPoint 结束节点，该节点被记录时会话完成
+     */
+    public Trace beginTrace(String name, String endPoint) {
+        return beginTrace(name, endPoint, null);
+    }
+
+    /**
+     * 开始新的会话，同名的未完成会话会被丢弃
+     *
+     * @param name      会话类型
+     * @param endPoint  结束节点，该节点被记录时会话完成
+     * @param gatePoint 前置节点，记录之前到达的结束节点会被忽略，可为null
+     */
+    public synchronized Trace beginTrace(String name, String endPoint, String gatePoint) {
+        for (Trace trace : openTraces) {
+            if (trace.name.equals(name)) {
+                openTraces.remove(trace);
+                Log.d(TAG, "[耗时] 丢弃未完成的会话: " + name + "#" + trace.id);
+            }
+        }
+        Trace trace = new Trace(++nextTraceId, name, endPoint, gatePoint, SystemClock.elapsedRealtimeNanos());
+        openTraces.add(trace);
+        openTraceCount = openTraces.size();
+        return trace;
+    }
+
+    /**
+     * 在指定类型的未完成会话上记录节点
+     */
+    public void mark(String traceName, String point) {
+        if (openTraceCount == 0) {
+            return;
+        }
+        long now = SystemClock.elapsedRealtimeNanos();
+        for (Trace trace : openTraces) {
+            if (trace.name.equals(traceName)) {
+                onMarked(trace, point, now);
+            }
+        }
+    }
+
+    /**
+     * 在所有未完成会话上记录节点（用于网络、SDK回调等不区分会话的节点）
+     */
+    public void markActive(String point) {
+        if (openTraceCount == 0) {
+            return;
+        }
+        long now = SystemClock.elapsedRealtimeNanos();
+        for (Trace trace : openTraces) {
+            onMarked(trace, point, now);
+        }
+    }
+
+    /**
+     * 放弃指定类型的未完成会话（如任务被停止）
+     */
+    public synchronized void cancelTrace(String traceName) {
+        for (Trace trace : openTraces) {
+            if (trace.name.equals(traceName)) {
+                openTraces.remove(trace);
+            }
+        }
+        openTraceCount = openTraces.size();
+    }
+
+    /**
+     * 统计指定会话类型中每个节点的分位耗时
+     */
+    public synchronized List<Summary> summarize(String traceName) {
+        Map<String, List<Double>> samples = new LinkedHashMap<>();
+        for (Trace trace : completedTraces) {
+            if (!trace.name.equals(traceName)) {
+                continue;
+            }
+            for (Map.Entry<String, Double> entry : trace.getBreakdownMs().entrySet()) {
+                List<Double> list = samples.get(entry.getKey());
+                if (list == null) {
+                    list = new ArrayList<>();
+                    samples.put(entry.getKey(), list);
+                }
+                list.add(entry.getValue());
+            }
+        }
+
+        List<Summary> summaries = new ArrayList<>();
+        for (Map.Entry<String, List<Double>> entry : samples.entrySet()) {
+            double[] values = new double[entry.getValue().size()];
+            for (int i = 0; i < values.length; i++) {
+                values[i] = entry.getValue().get(i);
+            }
+            Arrays.sort(values);
+            summaries.add(new Summary(entry.getKey(), values.length,
+                    percentile(values, 0.50), percentile(values, 0.95), percentile(values, 0.99)));
+        }
+        return summaries;
+    }
+
+    /**
+     * 获取已完成的会话（最近的在后）
+     */
+    public synchronized List<Trace> getCompletedTraces() {
+        return new ArrayList<>(completedTraces);
+    }
+
+    /**
+     * 生成文本报告：各会话类型的分位统计 + 每个会话的节点明细
+     */
+    public String dump() {
+        StringBuilder builder = new StringBuilder();
+        for (String traceName : new String[]{TRACE_TASK_START, TRACE_DRIVE}) {
+            builder.append("== ").append(traceName).append(" ==\n");
+            for (Summary summary : summarize(traceName)) {
+                builder.append("  ").append(summary).append('\n');
+            }
+        }
+        builder.append("== sessions ==\n");
+        for (Trace trace : getCompletedTraces()) {
+            builder.append(trace.name).append('#').append(trace.id);
+            double previous = 0;
+            for (Map.Entry<String, Double> entry : trace.getBreakdownMs().entrySet()) {
+                builder.append(String.format(Locale.US, " | %s=%.1fms(+%.1f)",
+                        entry.getKey(), entry.getValue(), entry.getValue() - previous));
+                previous = entry.getValue();
+            }
+            builder.append('\n');
+        }
+        return builder.toString();
+    }
+
+    /**
+     * 将报告写入文件
+     * @return 是否写入成功
+     */
+    public boolean dumpToFile(File file) {
+        try (Writer writer = new OutputStreamWriter(new FileOutputStream(file), StandardCharsets.UTF_8)) {
+            writer.write(dump());
+            return true;
+        } catch (IOException e) {
+            Log.e(TAG, "[耗时] 写入报告失败: " + file, e);
+            return false;
+        }
+    }
+
+    private void onMarked(Trace trace, String point, long nowNanos) {
+        if (!trace.mark(point, nowNanos)) {
+            return;
+        }
+        if (point.equals(trace.endPoint)) {
+            complete(trace);
+        }
+    }
+
+    private synchronized void complete(Trace trace) {
+        if (!openTraces.remove(trace)) {
+            return;
+        }
+        openTraceCount = openTraces.size();
+        completedTraces.addLast(trace);
+        while (completedTraces.size() > MAX_COMPLETED_TRACES) {
+            completedTraces.removeFirst();
+        }
+        Log.i(TAG, "[耗时] 会话完成: " + trace.name + "#" + trace.id + " " + trace.getBreakdownMs());
+    }
+
+    private static double percentile(double[] sorted, double quantile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(quantile * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(index, sorted.length - 1))];
+    }
+}
@@ -58,9 +58,11 @@ public class ZegoQuickStartConfig implements Serializable {
         if (outputMode == ZegoQuickStartOutputMode.LARGE) {
             videoConfig.setWidth(ZegoQuickStartConstants.DEFAULT_VIDEO_WIDTH_LARGE);
             videoConfig.setHeight(ZegoQuickStartConstants.DEFAULT_VIDEO_HEIGHT_LARGE);
+            videoConfig.setBitrate(ZegoQuickStartConstants.DEFAULT_VIDEO_BITRATE_LARGE);
         } else {
             videoConfig.setWidth(ZegoQuickStartConstants.DEFAULT_VIDEO_WIDTH_SMALL);
             videoConfig.setHeight(ZegoQuickStartConstants.DEFAULT_VIDEO_HEIGHT_SMALL);
+            videoConfig.setBitrate(ZegoQuickStartConstants.DEFAULT_VIDEO_BITRATE);
         }
     }
     
@@ -4,14 +4,16 @@ package com.example.zegodigitalhumanquickstart.model;
  * 输出模式枚举
  */
 public enum ZegoQuickStartOutputMode {
-    SMALL(0, "小图模式"),
-    LARGE(1, "大图模式");
+    SMALL(0, 2, "小图模式"),
+    LARGE(1, 1, "大图模式");
     
     private final int value;
+    private final int apiValue;
     private final String description;
     
-    ZegoQuickStartOutputMode(int value, String description) {
+    ZegoQuickStartOutputMode(int value, int apiValue, String description) {
         this.value = value;
+        this.apiValue = apiValue;
         this.description = description;
     }
     
@@ -19,6 +21,13 @@ public enum ZegoQuickStartOutputMode {
         return value;
     }
     
+    /**
+     * 创建任务接口的 OutputMode 参数：1-大图模式(web), 2-小图模式(mobile)
+     */
+    public int getApiValue() {
+        return apiValue;
+    }
+    
     public String getDescription() {
         return description;
     }
@@ -0,0 +1,92 @@
+package com.example.zegodigitalhumanquickstart.model;
+
+import com.google.gson.annotations.SerializedName;
+import java.io.Serializable;
+
+/**
+ * 创建任务结果模型类
+ * 对应 CreateDigitalHumanStreamTask 接口返回的 Data 字段
+ */
+public class ZegoQuickStartTaskCreateResult implements Serializable {
+
+    @SerializedName("TaskId")
+    private String taskId;
+
+    @SerializedName("Base64Config")
+    private String base64Config;
+
+    @SerializedName("AppId")
+    private String appId;  // 服务端可能返回数字或字符串，统一按字符串读取
+
+    @SerializedName("RoomId")
+    private String roomId;
+
+    @SerializedName("StreamId")
+    private String streamId;
+
+    @SerializedName("Token")
+    private String token;
+
+    public ZegoQuickStartTaskCreateResult() {
+    }
+
+    // Getters and Setters
+    public String getTaskId() {
+        return taskId != null ? taskId : "";
+    }
+
+    public void setTaskId(String taskId) {
+        this.taskId = taskId;
+    }
+
+    public String getBase64Config() {
+        return base64Config != null ? base64Config : "";
+    }
+
+    public void setBase64Config(String base64Config) {
+        this.base64Config = base64Config;
+    }
+
+    public String getAppId() {
+        return appId != null ? appId : "";
+    }
+
+    public void setAppId(String appId) {
+        this.appId = appId;
+    }
+
+    public String getRoomId() {
+        return roomId != null ? roomId : "";
+    }
+
+    public void setRoomId(String roomId) {
+        this.roomId = roomId;
+    }
+
+    public String getStreamId() {
+        return streamId != null ? streamId : "";
+    }
+
+    public void setStreamId(String streamId) {
+        this.streamId = streamId;
+    }
+
+    public String getToken() {
+        return token != null ? token : "";
+    }
+
+    public void setToken(String token) {
+        this.token = token;
+    }
+
+    @Override
+    public String toString() {
+        return "ZegoQuickStartTaskCreateResult{" +
+                "taskId='" + taskId + '\'' +
+                ", roomId='" + roomId + '\'' +
+                ", streamId='" + streamId + '\'' +
+                ", appId='" + appId + '\'' +
+                ", base64ConfigLength=" + (base64Config != null ? base64Config.length() : 0) +
+                '}';
+    }
+}
@@ -22,6 +22,9 @@ public class ZegoQuickStartAPIConstants {
     public static final String ACTION_DRIVE_BY_WS_STREAM_WITH_TTS = "/DriveByWsStreamWithTTS";
     public static final String ACTION_INTERRUPT_DRIVE_TASK = "/InterruptDriveTask";
     
+    // ==================== 请求参数 ====================
+    public static final String PARAM_IDEMPOTENCY_KEY = "IdempotencyKey";  // 创建任务幂等键
+    
     // ==================== HTTP请求头 ====================
     public static final String HEADER_CONTENT_TYPE = "Content-Type";
     public static final String CONTENT_TYPE_JSON = "application/json";
@@ -1,20 +1,31 @@
 package com.example.zegodigitalhumanquickstart.network;
 
+import android.content.Context;
+import android.os.Handler;
+import android.os.Looper;
+import android.os.SystemClock;
 import android.text.TextUtils;
 import android.util.Log;
 
 import com.example.zegodigitalhumanquickstart.model.ZegoQuickStartDigitalHuman;
 import com.example.zegodigitalhumanquickstart.model.ZegoQuickStartTask;
+import com.example.zegodigitalhumanquickstart.model.ZegoQuickStartTaskCreateResult;
 import com.example.zegodigitalhumanquickstart.ZegoQuickStartConstants;
-import com.google.gson.Gson;
-import com.google.gson.JsonArray;
+import com.example.zegodigitalhumanquickstart.metrics.ZegoQuickStartLatencyHistogram;
+import com.example.zegodigitalhumanquickstart.metrics.ZegoQuickStartSpanRecorder;
 import com.google.gson.JsonObject;
-import com.google.gson.reflect.TypeToken;
 
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * API服务类
@@ -26,14 +37,32 @@ public class ZegoQuickStartAPIService {
     
     private static ZegoQuickStartAPIService instance;
     private final ZegoQuickStartNetworkManager networkManager;
-    private final Gson gson;
+    private final Executor mainExecutor;
+    private final Handler mainHandler;
+    private final ZegoQuickStartRequestCoalescer coalescer;
+    
+    // 重试与对冲统计
+    private final AtomicLong retryCount = new AtomicLong();
+    private final AtomicLong hedgedRequestCount = new AtomicLong();
+    private final AtomicLong hedgeWinCount = new AtomicLong();
+    
+    // 熔断
+    private final Map<String, ZegoQuickStartCircuitBreaker> circuitBreakers = new ConcurrentHashMap<>();
+    private final List<CircuitStateListener> circuitStateListeners = new CopyOnWriteArrayList<>();
+    
+    // 任务生命周期
+    private final List<TaskLifecycleListener> taskLifecycleListeners = new CopyOnWriteArrayList<>();
     
     private String serverURL;
     private long appId;  // 动态设置，从服务端返回的AppId
+    private volatile Executor callbackExecutor;  // 结果回调线程，默认主线程
     
     private ZegoQuickStartAPIService() {
         networkManager = ZegoQuickStartNetworkManager.getInstance();
-        gson = new Gson();
+        mainHandler = new Handler(Looper.getMainLooper());
+        mainExecutor = mainHandler::post;
+        callbackExecutor = mainExecutor;
+        coalescer = new ZegoQuickStartRequestCoalescer();
     }
     
     public static synchronized ZegoQuickStartAPIService getInstance() {
@@ -50,6 +79,13 @@ public class ZegoQuickStartAPIService {
         this.serverURL = serverURL;
     }
     
+    /**
+     * 开始到服务器的连接预热和保活，必须在主线程调用
+     */
+    public void startConnectionWarmUp(Context context) {
+        networkManager.startWarmUp(context, serverURL);
+    }
+    
     /**
      * 设置AppID（动态设置，从服务端返回的AppId）
      * 注意：创建任务后，从服务端返回的AppId会调用此方法设置
@@ -65,6 +101,22 @@ public class ZegoQuickStartAPIService {
         return this.appId;
     }
     
+    /**
+     * 设置结果回调的执行线程
+     * 响应解析和模型绑定始终在网络线程完成，只有最终结果会投递到该Executor
+     * @param executor 回调Executor，传null恢复为主线程
+     */
+    public void setCallbackExecutor(Executor executor) {
+        this.callbackExecutor = executor != null ? executor : mainExecutor;
+    }
+    
+    /**
+     * 获取当前结果回调的执行线程
+     */
+    public Executor getCallbackExecutor() {
+        return callbackExecutor;
+    }
+    
     /**
      * 构建完整的URL
      */
@@ -97,65 +149,426 @@ public class ZegoQuickStartAPIService {
     
     // ==================== API接口回调 ====================
     
-    public interface DigitalHumanInfoCallback {
+    /**
+     * 通用类型化结果回调
+     */
+    public interface ResultCallback<T> {
+        void onSuccess(T data);
+        void onFailure(int code, String message);
+    }
+    
+    public interface DigitalHumanInfoCallback extends ResultCallback<ZegoQuickStartDigitalHuman> {
         void onSuccess(ZegoQuickStartDigitalHuman digitalHuman);
         void onFailure(int code, String message);
     }
     
-    public interface TaskCallback {
-        void onSuccess(JsonObject data);
+    public interface TaskCallback extends ResultCallback<ZegoQuickStartTaskCreateResult> {
+        void onSuccess(ZegoQuickStartTaskCreateResult result);
         void onFailure(int code, String message);
     }
     
-    public interface TaskListCallback {
+    public interface TaskListCallback extends ResultCallback<List<ZegoQuickStartTask>> {
         void onSuccess(List<ZegoQuickStartTask> tasks);
         void onFailure(int code, String message);
     }
     
-    public interface CommonCallback {
+    public interface CommonCallback extends ResultCallback<JsonObject> {
         void onSuccess(JsonObject data);
         void onFailure(int code, String message);
     }
     
     /**
-     * 统一响应解析结果
+     * 统一请求入口
+     * 响应在网络线程上按 {Code, Message, Data} 流式解码并完成Code判断，
+     * 只有最终的类型化结果或错误会投递到回调Executor
+     *
+     * @param action       API路径
+     * @param params       请求参数
+     * @param decoder      Data字段解码器
+     * @param defaultData  Data缺失时返回的默认值
+     * @param errorMessage 服务端未返回Message时使用的错误描述
+     * @param coalesce     是否与进行中的相同请求合并（仅用于幂等接口）
+     * @param tag          请求标记（所属任务、优先级通道），可为null
+     * @param callback     回调
+     */
+    private <T> void request(String action, JsonObject params,
+                             ZegoQuickStartNetworkManager.ResponseDecoder<T> decoder,
+                             T defaultData, String errorMessage, boolean coalesce,
+                             ZegoQuickStartCallTag tag, ResultCallback<T> callback) {
+        request(action, params, decoder, defaultData, errorMessage, coalesce, tag, null, callback);
+    }
+    
+    /**
+     * 统一请求入口，附带共享结果观察者
+     *
+     * @param shared 每次实际发出的网络请求只回调一次的观察者（合并时不随等待方重复），
+     *               在回调Executor上先于各请求方的回调投递，可为null
+     */
+    private <T> void request(String action, JsonObject params,
+                             ZegoQuickStartNetworkManager.ResponseDecoder<T> decoder,
+                             T defaultData, String errorMessage, boolean coalesce,
+                             ZegoQuickStartCallTag tag, ResultCallback<T> shared, ResultCallback<T> callback) {
+        ResultCallback<T> delivery = deliverOn(callbackExecutor, tag, callback);
+        if (coalesce) {
+            ResultCallback<T> leader = coalescer.join(ZegoQuickStartRequestCoalescer.buildKey(action, params), delivery);
+            if (leader == null) {
+                Log.d(TAG, "合并进行中的相同请求: " + action);
+                return;
+            }
+            delivery = leader;
+        }
+        if (shared != null) {
+            delivery = observeShared(deliverOn(callbackExecutor, tag, shared), delivery);
+        }
+        execute(action, params, decoder, defaultData, errorMessage, tag, delivery);
+    }
+    
+    /**
+     * 先把结果交给共享观察者，再分发给请求方（合并时为所有等待方）
      */
-    private static class ParsedResponse {
-        int code;
-        String message;
-        JsonObject data;
+    private static <T> ResultCallback<T> observeShared(ResultCallback<T> shared, ResultCallback<T> delivery) {
+        return new ResultCallback<T>() {
+            @Override
+            public void onSuccess(T data) {
+                shared.onSuccess(data);
+                delivery.onSuccess(data);
+            }
+            
+            @Override
+            public void onFailure(int code, String message) {
+                shared.onFailure(code, message);
+                delivery.onFailure(code, message);
+            }
+        };
     }
     
     /**
-     * 统一解析服务端响应，规则：{Code, Message, Data:{}}
+     * 按接口策略发出网络请求，结果直接在网络线程回调
      */
-    private ParsedResponse parseResponse(JsonObject response) {
-        ParsedResponse result = new ParsedResponse();
-        if (response == null) {
-            result.code = ZegoQuickStartConstants.ERROR_CODE_PARSE_ERROR;
-            result.message = "响应为空";
-            result.data = new JsonObject();
-            return result;
+    private <T> void execute(String action, JsonObject params,
+                             ZegoQuickStartNetworkManager.ResponseDecoder<T> decoder,
+                             T defaultData, String errorMessage, ZegoQuickStartCallTag tag, ResultCallback<T> callback) {
+        ZegoQuickStartRequestPolicy policy = ZegoQuickStartRequestPolicy.forAction(action);
+        ZegoQuickStartSpanRecorder.getInstance().markActive(ZegoQuickStartSpanRecorder.POINT_HTTP_SENT + action);
+        if (policy.isHedged() && ZegoQuickStartConstants.INTERRUPT_HEDGE_ENABLED) {
+            executeHedged(action, params, decoder, defaultData, errorMessage, tag, policy, callback);
+        } else {
+            attempt(action, params, decoder, defaultData, errorMessage, tag, policy, 1, callback);
         }
+    }
+    
+    /**
+     * 单次尝试，失败且可重试时按指数退避再次尝试
+     */
+    private <T> void attempt(String action, JsonObject params,
+                             ZegoQuickStartNetworkManager.ResponseDecoder<T> decoder,
+                             T defaultData, String errorMessage, ZegoQuickStartCallTag tag,
+                             ZegoQuickStartRequestPolicy policy, int attemptNo, ResultCallback<T> callback) {
+        send(action, buildURL(action), params, tag, policy, decoder,
+                new ZegoQuickStartNetworkManager.TypedCallback<T>() {
+            @Override
+            public void onSuccess(ZegoQuickStartResponse<T> response) {
+                deliverResponse(action, response, defaultData, errorMessage, callback);
+            }
+            
+            @Override
+            public void onFailure(int code, String message) {
+                boolean cancelled = tag != null && tag.isCancelled();
+                if (!cancelled && attemptNo < policy.getMaxAttempts() && policy.shouldRetry(code)) {
+                    long delay = policy.backoffMs(attemptNo);
+                    retryCount.incrementAndGet();
+                    Log.d(TAG, "请求失败，" + delay + "ms后重试: " + action + ", 第" + (attemptNo + 1) + "次, " + message);
+                    mainHandler.postDelayed(() -> attempt(action, params, decoder, defaultData, errorMessage,
+                            tag, policy, attemptNo + 1, callback), delay);
+                    return;
+                }
+                ZegoQuickStartSpanRecorder.getInstance().markActive(ZegoQuickStartSpanRecorder.POINT_HTTP_RECEIVED + action);
+                callback.onFailure(code, message);
+            }
+        });
+    }
+    
+    /**
+     * 对冲请求：主请求超过该接口p95耗时仍未返回时，再发出一次相同请求，采用先成功的结果
+     * 两次都失败时返回后失败的错误；主请求在对冲发出前失败则直接返回
+     * 仅用于幂等接口
+     */
+    private <T> void executeHedged(String action, JsonObject params,
+                                   ZegoQuickStartNetworkManager.ResponseDecoder<T> decoder,
+                                   T defaultData, String errorMessage, ZegoQuickStartCallTag tag,
+                                   ZegoQuickStartRequestPolicy policy, ResultCallback<T> callback) {
+        String taskId = tag != null ? tag.getTaskId() : null;
+        ZegoQuickStartCallTag.Priority priority = tag != null ? tag.getPriority() : ZegoQuickStartCallTag.Priority.CONTROL;
+        // 两次尝试使用各自的标记，取消落后的一方不影响外层回调
+        ZegoQuickStartCallTag primaryTag = new ZegoQuickStartCallTag(taskId, priority, false);
+        ZegoQuickStartCallTag hedgeTag = new ZegoQuickStartCallTag(taskId, priority, false);
+        AtomicBoolean done = new AtomicBoolean(false);
+        AtomicBoolean hedgeSlotClaimed = new AtomicBoolean(false);
+        AtomicInteger outstanding = new AtomicInteger(2);  // 主请求 + 对冲名额
         
-        try {
-            result.code = response.has("Code") ? response.get("Code").getAsInt() : 0;
-            result.message = response.has("Message") ? response.get("Message").getAsString() : "";
-            if (response.has("Data") && response.get("Data").isJsonObject()) {
-                result.data = response.getAsJsonObject("Data");
+        class Attempt implements ZegoQuickStartNetworkManager.TypedCallback<T> {
+            private final boolean isHedge;
+            private Runnable fireHedge;
+            
+            Attempt(boolean isHedge) {
+                this.isHedge = isHedge;
+            }
+            
+            @Override
+            public void onSuccess(ZegoQuickStartResponse<T> response) {
+                if (!done.compareAndSet(false, true)) {
+                    return;
+                }
+                hedgeSlotClaimed.set(true);
+                if (fireHedge != null) {
+                    mainHandler.removeCallbacks(fireHedge);
+                }
+                if (isHedge) {
+                    hedgeWinCount.incrementAndGet();
+                    primaryTag.cancel();
+                } else {
+                    hedgeTag.cancel();
+                }
+                deliverResponse(action, response, defaultData, errorMessage, callback);
             }
             
-            if (result.data == null) {
-                result.data = new JsonObject();
+            @Override
+            public void onFailure(int code, String message) {
+                if (!isHedge && hedgeSlotClaimed.compareAndSet(false, true)) {
+                    // 对冲尚未发出，不再发出
+                    mainHandler.removeCallbacks(fireHedge);
+                    outstanding.decrementAndGet();
+                }
+                if (outstanding.decrementAndGet() == 0 && done.compareAndSet(false, true)) {
+                    ZegoQuickStartSpanRecorder.getInstance().markActive(ZegoQuickStartSpanRecorder.POINT_HTTP_RECEIVED + action);
+                    callback.onFailure(code, message);
+                }
             }
-        } catch (Exception e) {
-            Log.e(TAG, "统一解析响应失败", e);
-            result.code = ZegoQuickStartConstants.ERROR_CODE_PARSE_ERROR;
-            result.message = "解析响应失败";
-            result.data = new JsonObject();
         }
         
-        return result;
+        String url = buildURL(action);
+        Attempt primary = new Attempt(false);
+        primary.fireHedge = () -> {
+            if (!hedgeSlotClaimed.compareAndSet(false, true) || done.get()) {
+                return;
+            }
+            hedgedRequestCount.incrementAndGet();
+            Log.d(TAG, "请求超过p95未返回，发出对冲请求: " + action);
+            Attempt hedge = new Attempt(true);
+            send(action, url, params, hedgeTag, policy, decoder, hedge);
+        };
+        mainHandler.postDelayed(primary.fireHedge, hedgeDelayMs(action, policy));
+        send(action, url, params, primaryTag, policy, decoder, primary);
+    }
+    
+    /**
+     * 经过熔断器发出一次网络请求
+     * 熔断中直接以 ERROR_CODE_CIRCUIT_OPEN 失败；请求结束后按结果和耗时更新熔断器
+     */
+    private <T> void send(String action, String url, JsonObject params, ZegoQuickStartCallTag tag,
+                          ZegoQuickStartRequestPolicy policy, ZegoQuickStartNetworkManager.ResponseDecoder<T> decoder,
+                          ZegoQuickStartNetworkManager.TypedCallback<T> callback) {
+        ZegoQuickStartCircuitBreaker breaker = getCircuitBreaker(action, policy);
+        if (!breaker.tryAcquire()) {
+            callback.onFailure(ZegoQuickStartConstants.ERROR_CODE_CIRCUIT_OPEN, "服务暂时不可用，请稍后重试");
+            return;
+        }
+        long startTime = SystemClock.elapsedRealtime();
+        networkManager.postTyped(url, params, buildHeaders(), tag, policy.getDeadlineMs(), decoder,
+                new ZegoQuickStartNetworkManager.TypedCallback<T>() {
+            @Override
+            public void onSuccess(ZegoQuickStartResponse<T> response) {
+                breaker.onResult(true, SystemClock.elapsedRealtime() - startTime);
+                callback.onSuccess(response);
+            }
+            
+            @Override
+            public void onFailure(int code, String message) {
+                // 网络错误、超时、5xx 说明服务不可用；其它错误（如4xx、解析失败）说明服务仍有响应
+                breaker.onResult(!ZegoQuickStartRequestPolicy.isRetryable(code), SystemClock.elapsedRealtime() - startTime);
+                callback.onFailure(code, message);
+            }
+        });
+    }
+    
+    private ZegoQuickStartCircuitBreaker getCircuitBreaker(String action, ZegoQuickStartRequestPolicy policy) {
+        ZegoQuickStartCircuitBreaker breaker = circuitBreakers.get(action);
+        if (breaker == null) {
+            breaker = circuitBreakers.computeIfAbsent(action, key -> new ZegoQuickStartCircuitBreaker(key,
+                    policy.getDeadlineMs() / 2, policy.getDeadlineMs(), this::onCircuitStateChanged));
+        }
+        return breaker;
+    }
+    
+    private void onCircuitStateChanged(ZegoQuickStartCircuitBreaker breaker, ZegoQuickStartCircuitBreaker.State from,
+                                       ZegoQuickStartCircuitBreaker.State to) {
+        String action = breaker.getAction();
+        mainHandler.post(() -> {
+            for (CircuitStateListener listener : circuitStateListeners) {
+                listener.onCircuitStateChanged(action, to);
+            }
+        });
+    }
+    
+    /**
+     * 对冲延迟：该接口成功调用整体耗时的p95（不含失败和被取消的调用），样本不足时使用默认值
+     */
+    private long hedgeDelayMs(String action, ZegoQuickStartRequestPolicy policy) {
+        ZegoQuickStartLatencyHistogram histogram = networkManager.getNetworkMetrics()
+                .getHistogram(action, ZegoQuickStartNetworkMetrics.Phase.TOTAL);
+        long delay = histogram.getCount() >= ZegoQuickStartConstants.HEDGE_MIN_SAMPLES
+                ? (long) Math.ceil(histogram.percentileMs(0.95))
+                : ZegoQuickStartConstants.HEDGE_DEFAULT_DELAY_MS;
+        return Math.max(ZegoQuickStartConstants.HEDGE_MIN_DELAY_MS, Math.min(delay, policy.getDeadlineMs() / 2));
+    }
+    
+    /**
+     * 检查业务Code并回调，Data缺失时使用默认值
+     */
+    private <T> void deliverResponse(String action, ZegoQuickStartResponse<T> response, T defaultData,
+                                     String errorMessage, ResultCallback<T> callback) {
+        ZegoQuickStartSpanRecorder.getInstance().markActive(ZegoQuickStartSpanRecorder.POINT_HTTP_RECEIVED + action);
+        if (!response.isSuccess()) {
+            String message = response.getMessage();
+            callback.onFailure(response.getCode(), TextUtils.isEmpty(message) ? errorMessage : message);
+            return;
+        }
+        T data = response.getData();
+        callback.onSuccess(data != null ? data : defaultData);
+    }
+    
+    /**
+     * 将回调包装为在指定Executor上执行，请求被取消后（包括已投递到Executor但尚未执行的）不再回调
+     */
+    private static <T> ResultCallback<T> deliverOn(Executor executor, ZegoQuickStartCallTag tag, ResultCallback<T> callback) {
+        return new ResultCallback<T>() {
+            @Override
+            public void onSuccess(T data) {
+                if (callback != null) {
+                    executor.execute(() -> {
+                        if (tag == null || !tag.isCancelled()) {
+                            callback.onSuccess(data);
+                        }
+                    });
+                }
+            }
+            
+            @Override
+            public void onFailure(int code, String message) {
+                if (callback != null) {
+                    executor.execute(() -> {
+                        if (tag == null || !tag.isCancelled()) {
+                            callback.onFailure(code, message);
+                        }
+                    });
+                }
+            }
+        };
+    }
+    
+    // ==================== 请求合并统计 ====================
+    
+    /**
+     * 可合并接口实际发出的网络请求数
+     */
+    public long getCoalescableRequestCount() {
+        return coalescer.getIssuedCount();
+    }
+    
+    /**
+     * 因合并而节省的网络请求数
+     */
+    public long getCoalescedRequestCount() {
+        return coalescer.getCoalescedCount();
+    }
+    
+    // ==================== 重试与对冲统计 ====================
+    
+    /**
+     * 幂等接口的重试次数
+     */
+    public long getRetryCount() {
+        return retryCount.get();
+    }
+    
+    /**
+     * 发出的对冲请求数
+     */
+    public long getHedgedRequestCount() {
+        return hedgedRequestCount.get();
+    }
+    
+    /**
+     * 对冲请求先于主请求成功的次数
+     */
+    public long getHedgeWinCount() {
+        return hedgeWinCount.get();
+    }
+    
+    /**
+     * 对冲胜率：对冲请求先成功的次数 / 发出的对冲请求数，没有对冲时返回0
+     */
+    public double getHedgeWinRate() {
+        long hedged = hedgedRequestCount.get();
+        return hedged > 0 ? (double) hedgeWinCount.get() / hedged : 0;
+    }
+    
+    // ==================== 熔断状态 ====================
+    
+    /**
+     * 熔断状态监听，在主线程回调
+     */
+    public interface CircuitStateListener {
+        void onCircuitStateChanged(String action, ZegoQuickStartCircuitBreaker.State state);
+    }
+    
+    public void addCircuitStateListener(CircuitStateListener listener) {
+        if (listener != null) {
+            circuitStateListeners.add(listener);
+        }
+    }
+    
+    public void removeCircuitStateListener(CircuitStateListener listener) {
+        circuitStateListeners.remove(listener);
+    }
+    
+    /**
+     * 获取接口当前的熔断状态
+     */
+    public ZegoQuickStartCircuitBreaker.State getCircuitState(String action) {
+        ZegoQuickStartCircuitBreaker breaker = circuitBreakers.get(action);
+        return breaker != null ? breaker.getState() : ZegoQuickStartCircuitBreaker.State.CLOSED;
+    }
+    
+    /**
+     * 因熔断被直接拒绝的请求总数
+     */
+    public long getCircuitRejectedCount() {
+        long total = 0;
+        for (ZegoQuickStartCircuitBreaker breaker : circuitBreakers.values()) {
+            total += breaker.getRejectedCount();
+        }
+        return total;
+    }
+    
+    // ==================== 任务生命周期 ====================
+    
+    /**
+     * 任务创建/停止成功监听，在API服务的回调线程（默认主线程）执行，先于请求方的回调
+     */
+    public interface TaskLifecycleListener {
+        void onTaskCreated(ZegoQuickStartTaskCreateResult result);
+        void onTaskStopped(String taskId);
+    }
+    
+    public void addTaskLifecycleListener(TaskLifecycleListener listener) {
+        if (listener != null) {
+            taskLifecycleListeners.add(listener);
+        }
+    }
+    
+    public void removeTaskLifecycleListener(TaskLifecycleListener listener) {
+        taskLifecycleListeners.remove(listener);
     }
     
     // ==================== 2. 获取数字人详情 ====================
@@ -174,47 +587,29 @@ public class ZegoQuickStartAPIService {
             return;
         }
         
-        String url = buildURL(ZegoQuickStartAPIConstants.ACTION_GET_DIGITAL_HUMAN_INFO);
         JsonObject params = new JsonObject();
         params.addProperty("UserId", userId);
         
-        networkManager.post(url, params, buildHeaders(), new ZegoQuickStartNetworkManager.NetworkCallback() {
-            @Override
-            public void onSuccess(JsonObject response) {
-                try {
-                    ParsedResponse parsed = parseResponse(response);
-                    if (parsed.code != 0) {
-                        if (callback != null) {
-                            callback.onFailure(parsed.code, TextUtils.isEmpty(parsed.message) ? "获取数字人信息失败" : parsed.message);
-                        }
-                        return;
-                    }
-                    JsonObject data = parsed.data != null ? parsed.data : new JsonObject();
-                    
-                    ZegoQuickStartDigitalHuman digitalHuman = gson.fromJson(data, ZegoQuickStartDigitalHuman.class);
-                    if (callback != null) {
-                        callback.onSuccess(digitalHuman);
-                    }
-                } catch (Exception e) {
-                    Log.e(TAG, "解析数字人信息失败", e);
-                    if (callback != null) {
-                        callback.onFailure(ZegoQuickStartConstants.ERROR_CODE_PARSE_ERROR, "解析响应失败");
-                    }
-                }
-            }
-            
-            @Override
-            public void onFailure(int code, String message) {
-                if (callback != null) {
-                    callback.onFailure(code, message);
-                }
-            }
-        });
+        request(ZegoQuickStartAPIConstants.ACTION_GET_DIGITAL_HUMAN_INFO, params,
+                ZegoQuickStartResponseDecoders.forClass(ZegoQuickStartDigitalHuman.class),
+                new ZegoQuickStartDigitalHuman(), "获取数字人信息失败", true, null, callback);
     }
     
     // ==================== 3. 创建数字人流任务 ====================
     
     public void createDigitalHumanStreamTask(JsonObject config, TaskCallback callback) {
+        createDigitalHumanStreamTask(config, UUID.randomUUID().toString(), callback);
+    }
+    
+    /**
+     * 创建数字人流任务
+     * 请求体携带幂等键，网络错误重试时使用同一个键，服务端对相同的键只创建一次任务
+     *
+     * @param config         创建参数，不会被修改
+     * @param idempotencyKey 幂等键，同一次创建的所有尝试必须相同
+     * @param callback       回调
+     */
+    public void createDigitalHumanStreamTask(JsonObject config, String idempotencyKey, TaskCallback callback) {
         // 边界检查
         if (config == null) {
             if (callback != null) {
@@ -223,39 +618,29 @@ public class ZegoQuickStartAPIService {
             return;
         }
         
-        String url = buildURL(ZegoQuickStartAPIConstants.ACTION_CREATE_DIGITAL_HUMAN_STREAM_TASK);
+        JsonObject params = config.deepCopy();
+        params.addProperty(ZegoQuickStartAPIConstants.PARAM_IDEMPOTENCY_KEY, idempotencyKey);
         
-        networkManager.post(url, config, buildHeaders(), new ZegoQuickStartNetworkManager.NetworkCallback() {
-            @Override
-            public void onSuccess(JsonObject response) {
-                try {
-                    ParsedResponse parsed = parseResponse(response);
-                    if (parsed.code != 0) {
+        request(ZegoQuickStartAPIConstants.ACTION_CREATE_DIGITAL_HUMAN_STREAM_TASK, params,
+                ZegoQuickStartResponseDecoders.forClass(ZegoQuickStartTaskCreateResult.class),
+                new ZegoQuickStartTaskCreateResult(), "创建任务失败", false, null, new TaskCallback() {
+                    @Override
+                    public void onSuccess(ZegoQuickStartTaskCreateResult result) {
+                        for (TaskLifecycleListener listener : taskLifecycleListeners) {
+                            listener.onTaskCreated(result);
+                        }
                         if (callback != null) {
-                            callback.onFailure(parsed.code, TextUtils.isEmpty(parsed.message) ? "创建任务失败" : parsed.message);
+                            callback.onSuccess(result);
                         }
-                        return;
                     }
-                    JsonObject data = parsed.data != null ? parsed.data : new JsonObject();
                     
-                    if (callback != null) {
-                        callback.onSuccess(data);
-                    }
-                } catch (Exception e) {
-                    Log.e(TAG, "解析创建任务响应失败", e);
-                    if (callback != null) {
-                        callback.onFailure(ZegoQuickStartConstants.ERROR_CODE_PARSE_ERROR, "解析响应失败");
+                    @Override
+                    public void onFailure(int code, String message) {
+                        if (callback != null) {
+                            callback.onFailure(code, message);
+                        }
                     }
-                }
-            }
-            
-            @Override
-            public void onFailure(int code, String message) {
-                if (callback != null) {
-                    callback.onFailure(code, message);
-                }
-            }
-        });
+                });
     }
     
     // ==================== 4. 停止数字人流任务 ====================
@@ -269,79 +654,34 @@ public class ZegoQuickStartAPIService {
             return;
         }
         
-        String url = buildURL(ZegoQuickStartAPIConstants.ACTION_STOP_DIGITAL_HUMAN_STREAM_TASK);
-        JsonObject params = new JsonObject();
-        params.addProperty("TaskId", taskId);
+        // 停止任务时立即取消该任务未完成的驱动请求，它们的回调不会再投递
+        int cancelled = networkManager.cancelTaskCalls(taskId);
+        if (cancelled > 0) {
+            Log.d(TAG, "停止任务，已取消未完成的驱动请求: " + taskId + ", count=" + cancelled);
+        }
         
-        networkManager.post(url, params, buildHeaders(), new ZegoQuickStartNetworkManager.NetworkCallback() {
-            @Override
-            public void onSuccess(JsonObject response) {
-                handleCommonResponse(response, callback);
-            }
-            
-            @Override
-            public void onFailure(int code, String message) {
-                if (callback != null) {
-                    callback.onFailure(code, message);
-                }
-            }
-        });
+        // 停止请求会被合并，任务停止事件挂在共享结果上，每次实际停止只分发一次，先于各等待方的回调
+        requestCommon(ZegoQuickStartAPIConstants.ACTION_STOP_DIGITAL_HUMAN_STREAM_TASK, taskId, true,
+                ZegoQuickStartCallTag.Priority.CONTROL, new CommonCallback() {
+                    @Override
+                    public void onSuccess(JsonObject data) {
+                        for (TaskLifecycleListener listener : taskLifecycleListeners) {
+                            listener.onTaskStopped(taskId);
+                        }
+                    }
+                    
+                    @Override
+                    public void onFailure(int code, String message) {
+                    }
+                }, callback);
     }
     
     // ==================== 5. 查询数字人流任务列表 ====================
     
     public void queryDigitalHumanStreamTasks(TaskListCallback callback) {
-        String url = buildURL(ZegoQuickStartAPIConstants.ACTION_QUERY_DIGITAL_HUMAN_STREAM_TASKS);
-        
-        networkManager.post(url, new JsonObject(), buildHeaders(), new ZegoQuickStartNetworkManager.NetworkCallback() {
-            @Override
-            public void onSuccess(JsonObject response) {
-                try {
-                    ParsedResponse parsed = parseResponse(response);
-                    if (parsed.code != 0) {
-                        if (callback != null) {
-                            callback.onFailure(parsed.code, TextUtils.isEmpty(parsed.message) ? "查询任务列表失败" : parsed.message);
-                        }
-                        return;
-                    }
-                    JsonObject data = parsed.data != null ? parsed.data : new JsonObject();
-                    
-                    JsonArray tasksArray = null;
-                    if (data.has("Tasks") && data.get("Tasks").isJsonArray()) {
-                        tasksArray = data.getAsJsonArray("Tasks");
-                    } else if (data.has("TaskList") && data.get("TaskList").isJsonArray()) {
-                        tasksArray = data.getAsJsonArray("TaskList");
-                    } else if (data.isJsonArray()) {
-                        tasksArray = data.getAsJsonArray();
-                    }
-                    
-                    if (tasksArray == null) {
-                        tasksArray = new JsonArray();
-                    }
-                    
-                    List<ZegoQuickStartTask> tasks = gson.fromJson(tasksArray, new TypeToken<List<ZegoQuickStartTask>>(){}.getType());
-                    if (tasks == null) {
-                        tasks = new ArrayList<>();
-                    }
-                    
-                    if (callback != null) {
-                        callback.onSuccess(tasks);
-                    }
-                } catch (Exception e) {
-                    Log.e(TAG, "解析任务列表失败", e);
-                    if (callback != null) {
-                        callback.onFailure(ZegoQuickStartConstants.ERROR_CODE_PARSE_ERROR, "解析响应失败");
-                    }
-                }
-            }
-            
-            @Override
-            public void onFailure(int code, String message) {
-                if (callback != null) {
-                    callback.onFailure(code, message);
-                }
-            }
-        });
+        request(ZegoQuickStartAPIConstants.ACTION_QUERY_DIGITAL_HUMAN_STREAM_TASKS, new JsonObject(),
+                ZegoQuickStartResponseDecoders.taskList(),
+                new ArrayList<>(), "查询任务列表失败", true, null, callback);
     }
     
     // ==================== 6. 文本驱动 ====================
@@ -355,23 +695,8 @@ public class ZegoQuickStartAPIService {
             return;
         }
         
-        String url = buildURL(ZegoQuickStartAPIConstants.ACTION_DRIVE_BY_TEXT);
-        JsonObject params = new JsonObject();
-        params.addProperty("TaskId", taskId);
-        
-        networkManager.post(url, params, buildHeaders(), new ZegoQuickStartNetworkManager.NetworkCallback() {
-            @Override
-            public void onSuccess(JsonObject response) {
-                handleCommonResponse(response, callback);
-            }
-            
-            @Override
-            public void onFailure(int code, String message) {
-                if (callback != null) {
-                    callback.onFailure(code, message);
-                }
-            }
-        });
+        requestCommon(ZegoQuickStartAPIConstants.ACTION_DRIVE_BY_TEXT, taskId, false,
+                ZegoQuickStartCallTag.Priority.NORMAL, callback);
     }
     
     // ==================== 7. 音频驱动 ====================
@@ -385,23 +710,8 @@ public class ZegoQuickStartAPIService {
             return;
         }
         
-        String url = buildURL(ZegoQuickStartAPIConstants.ACTION_DRIVE_BY_AUDIO);
-        JsonObject params = new JsonObject();
-        params.addProperty("TaskId", taskId);
-        
-        networkManager.post(url, params, buildHeaders(), new ZegoQuickStartNetworkManager.NetworkCallback() {
-            @Override
-            public void onSuccess(JsonObject response) {
-                handleCommonResponse(response, callback);
-            }
-            
-            @Override
-            public void onFailure(int code, String message) {
-                if (callback != null) {
-                    callback.onFailure(code, message);
-                }
-            }
-        });
+        requestCommon(ZegoQuickStartAPIConstants.ACTION_DRIVE_BY_AUDIO, taskId, false,
+                ZegoQuickStartCallTag.Priority.NORMAL, callback);
     }
     
     // ==================== 7.1 WebSocket TTS驱动 ====================
@@ -415,23 +725,8 @@ public class ZegoQuickStartAPIService {
             return;
         }
         
-        String url = buildURL(ZegoQuickStartAPIConstants.ACTION_DRIVE_BY_WS_STREAM_WITH_TTS);
-        JsonObject params = new JsonObject();
-        params.addProperty("TaskId", taskId);
-        
-        networkManager.post(url, params, buildHeaders(), new ZegoQuickStartNetworkManager.NetworkCallback() {
-            @Override
-            public void onSuccess(JsonObject response) {
-                handleCommonResponse(response, callback);
-            }
-            
-            @Override
-            public void onFailure(int code, String message) {
-                if (callback != null) {
-                    callback.onFailure(code, message);
-                }
-            }
-        });
+        requestCommon(ZegoQuickStartAPIConstants.ACTION_DRIVE_BY_WS_STREAM_WITH_TTS, taskId, false,
+                ZegoQuickStartCallTag.Priority.NORMAL, callback);
     }
     
     // ==================== 8. 打断驱动任务 ====================
@@ -445,45 +740,33 @@ public class ZegoQuickStartAPIService {
             return;
         }
         
-        String url = buildURL(ZegoQuickStartAPIConstants.ACTION_INTERRUPT_DRIVE_TASK);
-        JsonObject params = new JsonObject();
-        params.addProperty("TaskId", taskId);
-        
-        networkManager.post(url, params, buildHeaders(), new ZegoQuickStartNetworkManager.NetworkCallback() {
-            @Override
-            public void onSuccess(JsonObject response) {
-                handleCommonResponse(response, callback);
-            }
-            
-            @Override
-            public void onFailure(int code, String message) {
-                if (callback != null) {
-                    callback.onFailure(code, message);
-                }
-            }
-        });
+        requestCommon(ZegoQuickStartAPIConstants.ACTION_INTERRUPT_DRIVE_TASK, taskId, true,
+                ZegoQuickStartCallTag.Priority.CONTROL, callback);
     }
     
     // ==================== 通用响应处理 ====================
     
-    private void handleCommonResponse(JsonObject response, CommonCallback callback) {
-        try {
-            ParsedResponse parsed = parseResponse(response);
-            if (parsed.code != 0) {
-                if (callback != null) {
-                    callback.onFailure(parsed.code, TextUtils.isEmpty(parsed.message) ? "操作失败" : parsed.message);
-                }
-                return;
-            }
-            if (callback != null) {
-                callback.onSuccess(parsed.data != null ? parsed.data : new JsonObject());
-            }
-        } catch (Exception e) {
-            Log.e(TAG, "解析响应失败", e);
-            if (callback != null) {
-                callback.onFailure(ZegoQuickStartConstants.ERROR_CODE_PARSE_ERROR, "解析响应失败");
-            }
-        }
+    /**
+     * 仅携带TaskId的通用请求，Data按JsonObject返回
+     * 驱动类接口每次调用都会触发一次播报，不可合并；停止、打断为幂等操作，可合并
+     * 控制类请求（停止、打断）走独立通道；普通请求（驱动）在任务停止时被取消
+     */
+    private void requestCommon(String action, String taskId, boolean coalesce,
+                               ZegoQuickStartCallTag.Priority priority, CommonCallback callback) {
+        requestCommon(action, taskId, coalesce, priority, null, callback);
+    }
+    
+    /**
+     * @param shared 共享结果观察者，每次实际发出的网络请求只回调一次，可为null
+     */
+    private void requestCommon(String action, String taskId, boolean coalesce,
+                               ZegoQuickStartCallTag.Priority priority, CommonCallback shared, CommonCallback callback) {
+        JsonObject params = new JsonObject();
+        params.addProperty("TaskId", taskId);
+        
+        boolean control = priority == ZegoQuickStartCallTag.Priority.CONTROL;
+        ZegoQuickStartCallTag tag = new ZegoQuickStartCallTag(taskId, priority, !control);
+        request(action, params, ZegoQuickStartResponseDecoders.jsonObject(),
+                new JsonObject(), "操作失败", coalesce, tag, shared, callback);
     }
 }
-
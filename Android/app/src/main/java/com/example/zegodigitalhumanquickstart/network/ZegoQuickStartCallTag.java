@@ -0,0 +1,72 @@
+package com.example.zegodigitalhumanquickstart.network;
+
+import okhttp3.Call;
+
+/**
+ * 请求标记
+ * 记录请求所属的任务和优先级通道，停止任务时用于找到并取消该任务未完成的驱动请求
+ * 被取消的请求不会再投递任何回调
+ */
+public final class ZegoQuickStartCallTag {
+
+    /**
+     * 优先级通道
+     */
+    public enum Priority {
+        /** 控制类请求（打断、停止），使用独立的调度器，不会排在普通请求之后 */
+        CONTROL,
+        /** 普通请求（查询、创建、驱动） */
+        NORMAL
+    }
+
+    private final String taskId;
+    private final Priority priority;
+    private final boolean cancelOnTaskStop;
+    private volatile Call call;
+    private volatile boolean cancelled;
+
+    /**
+     * @param taskId           所属任务ID，可为null
+     * @param priority         优先级通道
+     * @param cancelOnTaskStop 所属任务停止时是否取消该请求
+     */
+    public ZegoQuickStartCallTag(String taskId, Priority priority, boolean cancelOnTaskStop) {
+        this.taskId = taskId;
+        this.priority = priority != null ? priority : Priority.NORMAL;
+        this.cancelOnTaskStop = cancelOnTaskStop;
+    }
+
+    public String getTaskId() {
+        return taskId;
+    }
+
+    public Priority getPriority() {
+        return priority;
+    }
+
+    public boolean isCancelOnTaskStop() {
+        return cancelOnTaskStop;
+    }
+
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    void attach(Call call) {
+        this.call = call;
+        if (cancelled) {
+            call.cancel();
+        }
+    }
+
+    /**
+     * 取消请求，之后的回调都会被丢弃
+     */
+    void cancel() {
+        cancelled = true;
+        Call current = call;
+        if (current != null) {
+            current.cancel();
+        }
+    }
+}
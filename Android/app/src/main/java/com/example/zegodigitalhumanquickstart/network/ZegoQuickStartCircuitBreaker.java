@@ -0,0 +1,226 @@
+package com.example.zegodigitalhumanquickstart.network;
+
+import android.os.SystemClock;
+import android.util.Log;
+
+import com.example.zegodigitalhumanquickstart.ZegoQuickStartConstants;
+
+/**
+ * 单个接口的熔断器
+ * 以滚动时间窗口（按秒分桶）统计调用数、失败数和慢调用数：
+ * - CLOSED：正常放行；窗口内调用数达到下限且失败率或慢调用率超过阈值时转为 OPEN
+ * - OPEN：直接拒绝，持续一段时间后转为 HALF_OPEN
+ * - HALF_OPEN：只放行一个探测请求，成功则恢复 CLOSED，失败则重新 OPEN
+ * 失败指网络错误、超时和HTTP 5xx；服务端返回的业务错误码说明服务可用，不计为失败
+ */
+public final class ZegoQuickStartCircuitBreaker {
+
+    private static final String TAG = "ZegoQuickStartCircuitBreaker";
+
+    /**
+     * 熔断状态
+     */
+    public enum State {
+        CLOSED,
+        OPEN,
+        HALF_OPEN
+    }
+
+    /**
+     * 状态变化监听
+     */
+    interface StateListener {
+        void onStateChanged(ZegoQuickStartCircuitBreaker breaker, State from, State to);
+    }
+
+    private final String action;
+    private final long slowCallThresholdMs;
+    private final long probeTimeoutMs;
+    private final StateListener listener;
+
+    private final long bucketMs;
+    private final long[] bucketStart;
+    private final int[] bucketCalls;
+    private final int[] bucketFailures;
+    private final int[] bucketSlowCalls;
+
+    private State state = State.CLOSED;
+    private long openedAt;
+    private long probeStartedAt = -1;
+    private long rejectedCount;
+    private long openCount;
+
+    /**
+     * @param action              接口路径
+     * @param slowCallThresholdMs 超过该耗时记为慢调用
+     * @param probeTimeoutMs      半开探测请求超过该时长未返回时允许再次探测
+     * @param listener            状态变化监听，可为null
+     */
+    ZegoQuickStartCircuitBreaker(String action, long slowCallThresholdMs, long probeTimeoutMs, StateListener listener) {
+        this.action = action;
+        this.slowCallThresholdMs = slowCallThresholdMs;
+        this.probeTimeoutMs = probeTimeoutMs;
+        this.listener = listener;
+        int buckets = ZegoQuickStartConstants.CIRCUIT_WINDOW_BUCKETS;
+        this.bucketMs = Math.max(1, ZegoQuickStartConstants.CIRCUIT_WINDOW_MS / buckets);
+        this.bucketStart = new long[buckets];
+        this.bucketCalls = new int[buckets];
+        this.bucketFailures = new int[buckets];
+        this.bucketSlowCalls = new int[buckets];
+    }
+
+    public String getAction() {
+        return action;
+    }
+
+    public synchronized State getState() {
+        return state;
+    }
+
+    /**
+     * 被熔断直接拒绝的请求数
+     */
+    public synchronized long getRejectedCount() {
+        return rejectedCount;
+    }
+
+    /**
+     * 进入 OPEN 状态的次数
+     */
+    public synchronized long getOpenCount() {
+        return openCount;
+    }
+
+    /**
+     * 请求发出前调用
+     *
+     * @return 是否放行；返回false时调用方应直接以 ERROR_CODE_CIRCUIT_OPEN 失败
+     */
+    public boolean tryAcquire() {
+        State from;
+        State to;
+        boolean allowed;
+        synchronized (this) {
+            long now = SystemClock.elapsedRealtime();
+            from = state;
+            if (state == State.OPEN && now - openedAt >= ZegoQuickStartConstants.CIRCUIT_OPEN_DURATION_MS) {
+                state = State.HALF_OPEN;
+                probeStartedAt = -1;
+            }
+            if (state == State.CLOSED) {
+                allowed = true;
+            } else if (state == State.HALF_OPEN && (probeStartedAt < 0 || now - probeStartedAt >= probeTimeoutMs)) {
+                // 放行一个探测请求
+                probeStartedAt = now;
+                allowed = true;
+            } else {
+                rejectedCount++;
+                allowed = false;
+            }
+            to = state;
+        }
+        if (from != to) {
+            notifyStateChanged(from, to);
+        }
+        return allowed;
+    }
+
+    /**
+     * 请求结束后调用
+     *
+     * @param success   服务是否可用（收到了非5xx的响应）
+     * @param latencyMs 请求耗时
+     */
+    public void onResult(boolean success, long latencyMs) {
+        State from;
+        State to;
+        synchronized (this) {
+            long now = SystemClock.elapsedRealtime();
+            from = state;
+            boolean slow = latencyMs >= slowCallThresholdMs;
+            if (state == State.HALF_OPEN) {
+                probeStartedAt = -1;
+                if (success && !slow) {
+                    resetWindow();
+                    state = State.CLOSED;
+                } else {
+                    open(now);
+                }
+            } else if (state == State.CLOSED) {
+                record(now, success, slow);
+                if (shouldTrip(now)) {
+                    open(now);
+                }
+            }
+            to = state;
+        }
+        if (from != to) {
+            notifyStateChanged(from, to);
+        }
+    }
+
+    private void open(long now) {
+        state = State.OPEN;
+        openedAt = now;
+        openCount++;
+    }
+
+    private void record(long now, boolean success, boolean slow) {
+        int index = bucketIndex(now);
+        bucketCalls[index]++;
+        if (!success) {
+            bucketFailures[index]++;
+        }
+        if (slow) {
+            bucketSlowCalls[index]++;
+        }
+    }
+
+    private boolean shouldTrip(long now) {
+        int calls = 0;
+        int failures = 0;
+        int slowCalls = 0;
+        for (int i = 0; i < bucketCalls.length; i++) {
+            if (now - bucketStart[i] < ZegoQuickStartConstants.CIRCUIT_WINDOW_MS) {
+                calls += bucketCalls[i];
+                failures += bucketFailures[i];
+                slowCalls += bucketSlowCalls[i];
+            }
+        }
+        if (calls < ZegoQuickStartConstants.CIRCUIT_MIN_CALLS) {
+            return false;
+        }
+        return failures >= calls * ZegoQuickStartConstants.CIRCUIT_FAILURE_RATE_THRESHOLD
+                || slowCalls >= calls * ZegoQuickStartConstants.CIRCUIT_SLOW_CALL_RATE_THRESHOLD;
+    }
+
+    private int bucketIndex(long now) {
+        long slot = now / bucketMs;
+        int index = (int) (slot % bucketCalls.length);
+        long start = slot * bucketMs;
+        if (bucketStart[index] != start) {
+            // 桶已过期，复用前清零
+            bucketStart[index] = start;
+            bucketCalls[index] = 0;
+            bucketFailures[index] = 0;
+            bucketSlowCalls[index] = 0;
+        }
+        return index;
+    }
+
+    private void resetWindow() {
+        for (int i = 0; i < bucketCalls.length; i++) {
+            bucketStart[i] = 0;
+            bucketCalls[i] = 0;
+            bucketFailures[i] = 0;
+            bucketSlowCalls[i] = 0;
+        }
+    }
+
+    private void notifyStateChanged(State from, State to) {
+        Log.w(TAG, "[熔断] " + action + ": " + from + " -> " + to);
+        if (listener != null) {
+            listener.onStateChanged(this, from, to);
+        }
+    }
+}
@@ -0,0 +1,247 @@
+package com.example.zegodigitalhumanquickstart.network;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+import android.os.Handler;
+import android.os.Looper;
+import android.text.TextUtils;
+import android.util.Log;
+
+import com.example.zegodigitalhumanquickstart.ZegoQuickStartConstants;
+import com.example.zegodigitalhumanquickstart.model.ZegoQuickStartDigitalHuman;
+import com.google.gson.Gson;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 数字人信息缓存（内存 + 磁盘）
+ * 以 用户ID + 数字人ID 为键缓存 GetDigitalHumanInfo 的结果，按服务端返回的 ExpireTime（毫秒时间戳）判断有效期：
+ * 1. Token 距离过期超过提前刷新窗口：直接返回缓存，并在进入刷新窗口时定时后台刷新
+ * 2. 处于刷新窗口内或已过期：先返回缓存（已过期时 Token 不可用，仅用于展示），同时后台刷新
+ * 3. 无缓存：请求网络，成功后写入缓存
+ * 后台刷新得到的数据与缓存不同时才再次回调；刷新成功后按新的 ExpireTime 安排下一次刷新，失败时间隔重试
+ * 定时刷新持有最近一次查询的回调，调用方销毁时需调用 {@link #cancelScheduledRefresh()}
+ */
+public class ZegoQuickStartDigitalHumanCache {
+
+    private static final String TAG = "ZegoQuickStartDigitalHumanCache";
+    // 含 RTC Token，已在 res/xml/backup_rules.xml 和 data_extraction_rules.xml 中排除备份，改名时需同步
+    private static final String PREFS_NAME = "zego_quick_start_digital_human_cache";
+    private static final String KEY_LAST_USER_ID = "last_user_id";
+    private static final String KEY_LATEST_PREFIX = "latest_";
+    private static final String KEY_ENTRY_PREFIX = "entry_";
+
+    private static ZegoQuickStartDigitalHumanCache instance;
+
+    private final SharedPreferences preferences;
+    private final ZegoQuickStartAPIService apiService;
+    private final Gson gson;
+    private final Map<String, ZegoQuickStartDigitalHuman> memoryCache = new HashMap<>();  // 用户ID/数字人ID -> 数字人信息
+    private final Map<String, String> latestDigitalHumanIds = new HashMap<>();          // 用户ID -> 最近一次的数字人ID
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    private Runnable scheduledRefresh;  // 主线程访问
+
+    /**
+     * 缓存查询回调
+     */
+    public interface Callback {
+        /**
+         * 数字人信息可用
+         * @param digitalHuman 数字人信息，来自缓存时 Token 可能已过期（{@link ZegoQuickStartDigitalHuman#getExpireTime()}）
+         * @param fromCache 是否来自缓存；后台刷新得到的数据有变化时会以 false 再次回调
+         */
+        void onDigitalHumanInfo(ZegoQuickStartDigitalHuman digitalHuman, boolean fromCache);
+
+        /**
+         * 没有未过期的缓存且网络请求失败；缓存仍在有效期内时后台刷新失败不会回调
+         */
+        void onFailure(int code, String message);
+    }
+
+    private ZegoQuickStartDigitalHumanCache(Context context) {
+        preferences = context.getApplicationContext().getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE);
+        apiService = ZegoQuickStartAPIService.getInstance();
+        gson = new Gson();
+    }
+
+    public static synchronized ZegoQuickStartDigitalHumanCache getInstance(Context context) {
+        if (instance == null) {
+            instance = new ZegoQuickStartDigitalHumanCache(context);
+        }
+        return instance;
+    }
+
+    /**
+     * 获取上一次成功获取数字人信息时使用的用户ID
+     * Token与用户ID绑定，复用该ID才能命中缓存
+     * @return 用户ID，没有记录时返回null
+     */
+    public synchronized String getLastUserId() {
+        String userId = preferences.getString(KEY_LAST_USER_ID, null);
+        return TextUtils.isEmpty(userId) ? null : userId;
+    }
+
+    /**
+     * 获取数字人信息，优先使用缓存
+     * 回调在主线程执行；命中缓存时在调用线程同步回调，必须在主线程调用
+     */
+    public void getDigitalHumanInfo(String userId, Callback callback) {
+        cancelScheduledRefresh();
+        ZegoQuickStartDigitalHuman cached = TextUtils.isEmpty(userId) ? null : getLatest(userId);
+        if (cached == null) {
+            fetch(userId, callback, null);
+            return;
+        }
+
+        long remaining = cached.getExpireTime() - System.currentTimeMillis();
+        Log.d(TAG, "[缓存] 命中数字人信息缓存: " + cached.getDigitalHumanId() + ", 剩余有效期(ms): " + remaining);
+        if (callback != null) {
+            callback.onDigitalHumanInfo(cached, true);
+        }
+        if (remaining <= ZegoQuickStartConstants.DIGITAL_HUMAN_TOKEN_REFRESH_AHEAD_MS) {
+            Log.d(TAG, remaining > 0 ? "[缓存] Token即将过期，后台刷新" : "[缓存] Token已过期，先返回缓存并后台刷新");
+            fetch(userId, callback, cached);
+        } else {
+            scheduleRefresh(userId, callback, cached);
+        }
+    }
+
+    /**
+     * 取消定时刷新，之后不再回调
+     */
+    public void cancelScheduledRefresh() {
+        if (scheduledRefresh != null) {
+            mainHandler.removeCallbacks(scheduledRefresh);
+            scheduledRefresh = null;
+        }
+    }
+
+    /**
+     * 清除指定用户的缓存
+     */
+    public synchronized void invalidate(String userId) {
+        String digitalHumanId = latestDigitalHumanIds.remove(userId);
+        if (digitalHumanId == null) {
+            digitalHumanId = preferences.getString(KEY_LATEST_PREFIX + userId, null);
+        }
+        SharedPreferences.Editor editor = preferences.edit().remove(KEY_LATEST_PREFIX + userId);
+        if (digitalHumanId != null) {
+            memoryCache.remove(entryKey(userId, digitalHumanId));
+            editor.remove(KEY_ENTRY_PREFIX + entryKey(userId, digitalHumanId));
+        }
+        editor.apply();
+    }
+
+    /**
+     * 在 Token 进入提前刷新窗口时后台刷新
+     */
+    private void scheduleRefresh(String userId, Callback callback, ZegoQuickStartDigitalHuman current) {
+        long delay = current.getExpireTime() - ZegoQuickStartConstants.DIGITAL_HUMAN_TOKEN_REFRESH_AHEAD_MS
+                - System.currentTimeMillis();
+        scheduleFetch(userId, callback, current, Math.max(ZegoQuickStartConstants.DIGITAL_HUMAN_TOKEN_REFRESH_MIN_INTERVAL_MS, delay));
+    }
+
+    private void scheduleFetch(String userId, Callback callback, ZegoQuickStartDigitalHuman current, long delayMs) {
+        cancelScheduledRefresh();
+        scheduledRefresh = () -> {
+            scheduledRefresh = null;
+            Log.d(TAG, "[缓存] 定时后台刷新数字人信息");
+            fetch(userId, callback, current);
+        };
+        mainHandler.postDelayed(scheduledRefresh, delayMs);
+    }
+
+    /**
+     * @param current 已回调给调用方的缓存，null 表示没有缓存（失败需要回调）；非 null 时仅在数据变化时再次回调
+     */
+    private void fetch(String userId, Callback callback, ZegoQuickStartDigitalHuman current) {
+        apiService.getDigitalHumanInfo(userId, new ZegoQuickStartAPIService.DigitalHumanInfoCallback() {
+            @Override
+            public void onSuccess(ZegoQuickStartDigitalHuman digitalHuman) {
+                if (digitalHuman == null) {
+                    if (current == null && callback != null) {
+                        callback.onDigitalHumanInfo(null, false);
+                    }
+                    return;
+                }
+                put(userId, digitalHuman);
+                if (!TextUtils.isEmpty(userId) && digitalHuman.getExpireTime() > 0) {
+                    scheduleRefresh(userId, callback, digitalHuman);
+                }
+                if (current != null && gson.toJson(current).equals(gson.toJson(digitalHuman))) {
+                    Log.d(TAG, "[缓存] 后台刷新完成，数据未变化");
+                    return;
+                }
+                if (callback != null) {
+                    callback.onDigitalHumanInfo(digitalHuman, false);
+                }
+            }
+
+            @Override
+            public void onFailure(int code, String message) {
+                if (current == null) {
+                    if (callback != null) {
+                        callback.onFailure(code, message);
+                    }
+                    return;
+                }
+                Log.w(TAG, "[缓存] 后台刷新数字人信息失败，稍后重试: " + message);
+                scheduleFetch(userId, callback, current, ZegoQuickStartConstants.DIGITAL_HUMAN_TOKEN_REFRESH_MIN_INTERVAL_MS);
+                if (current.getExpireTime() <= System.currentTimeMillis() && callback != null) {
+                    // 返回的缓存已过期，调用方没有可用的Token
+                    callback.onFailure(code, message);
+                }
+            }
+        });
+    }
+
+    private synchronized ZegoQuickStartDigitalHuman getLatest(String userId) {
+        String digitalHumanId = latestDigitalHumanIds.get(userId);
+        if (digitalHumanId == null) {
+            digitalHumanId = preferences.getString(KEY_LATEST_PREFIX + userId, null);
+            if (digitalHumanId == null) {
+                return null;
+            }
+            latestDigitalHumanIds.put(userId, digitalHumanId);
+        }
+
+        String key = entryKey(userId, digitalHumanId);
+        ZegoQuickStartDigitalHuman digitalHuman = memoryCache.get(key);
+        if (digitalHuman == null) {
+            String json = preferences.getString(KEY_ENTRY_PREFIX + key, null);
+            if (json == null) {
+                return null;
+            }
+            try {
+                digitalHuman = gson.fromJson(json, ZegoQuickStartDigitalHuman.class);
+            } catch (Exception e) {
+                Log.e(TAG, "[缓存] 读取磁盘缓存失败", e);
+                return null;
+            }
+            if (digitalHuman != null) {
+                memoryCache.put(key, digitalHuman);
+            }
+        }
+        return digitalHuman;
+    }
+
+    private synchronized void put(String userId, ZegoQuickStartDigitalHuman digitalHuman) {
+        String digitalHumanId = digitalHuman.getDigitalHumanId();
+        if (TextUtils.isEmpty(userId) || TextUtils.isEmpty(digitalHumanId) || digitalHuman.getExpireTime() <= 0) {
+            return;
+        }
+        String key = entryKey(userId, digitalHumanId);
+        memoryCache.put(key, digitalHuman);
+        latestDigitalHumanIds.put(userId, digitalHumanId);
+        preferences.edit()
+                .putString(KEY_ENTRY_PREFIX + key, gson.toJson(digitalHuman))
+                .putString(KEY_LATEST_PREFIX + userId, digitalHumanId)
+                .putString(KEY_LAST_USER_ID, userId)
+                .apply();
+    }
+
+    private static String entryKey(String userId, String digitalHumanId) {
+        return userId + "/" + digitalHumanId;
+    }
+}
@@ -1,28 +1,43 @@
 package com.example.zegodigitalhumanquickstart.network;
 
+import android.content.Context;
+import android.net.ConnectivityManager;
+import android.net.Network;
 import android.os.Handler;
 import android.os.Looper;
+import android.os.SystemClock;
 import android.util.Log;
 
 import com.example.zegodigitalhumanquickstart.ZegoQuickStartConstants;
+import com.example.zegodigitalhumanquickstart.log.ZegoQuickStartLog;
 import com.google.gson.Gson;
 import com.google.gson.JsonObject;
+import com.google.gson.stream.JsonReader;
 
+import java.io.EOFException;
 import java.io.IOException;
+import java.util.Arrays;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
 
 import okhttp3.Call;
 import okhttp3.Callback;
+import okhttp3.ConnectionPool;
+import okhttp3.Dispatcher;
+import okhttp3.HttpUrl;
 import okhttp3.MediaType;
 import okhttp3.OkHttpClient;
+import okhttp3.Protocol;
 import okhttp3.Request;
 import okhttp3.RequestBody;
 import okhttp3.Response;
+import okhttp3.ResponseBody;
 
 /**
  * 网络请求管理器
- * 封装OkHttp的GET和POST请求，提供统一的网络请求接口
+ * 封装OkHttp的POST请求，响应直接从流中解码为类型化结果，提供统一的网络请求接口
  */
 public class ZegoQuickStartNetworkManager {
     
@@ -31,16 +46,39 @@ public class ZegoQuickStartNetworkManager {
     
     private static ZegoQuickStartNetworkManager instance;
     private final OkHttpClient okHttpClient;
+    private final OkHttpClient controlClient;  // 控制类请求通道，与普通请求共享连接池，但使用独立调度器
+    private final Set<ZegoQuickStartCallTag> activeTags = ConcurrentHashMap.newKeySet();
     private final Gson gson;
     private final Handler mainHandler;
+    private final ZegoQuickStartNetworkMetrics networkMetrics;
+    
+    // 连接预热
+    private volatile HttpUrl warmUpUrl;
+    private volatile long lastRequestTime;
+    private boolean keepAliveScheduled;  // 仅在主线程访问
+    private ConnectivityManager.NetworkCallback networkCallback;
+    private final Runnable keepAliveRunnable = this::onKeepAliveTick;
+    private final Runnable scheduleKeepAliveRunnable = this::scheduleKeepAlive;
     
     private ZegoQuickStartNetworkManager() {
+        networkMetrics = new ZegoQuickStartNetworkMetrics();
+        
         // 配置OkHttpClient
         okHttpClient = new OkHttpClient.Builder()
                 .connectTimeout(ZegoQuickStartConstants.NETWORK_TIMEOUT, TimeUnit.SECONDS)
                 .readTimeout(ZegoQuickStartConstants.NETWORK_TIMEOUT, TimeUnit.SECONDS)
                 .writeTimeout(ZegoQuickStartConstants.NETWORK_TIMEOUT, TimeUnit.SECONDS)
                 .retryOnConnectionFailure(true)
+                // 空闲连接在服务端/中间设备回收之前由连接池主动淘汰，避免复用已失效的连接
+                .connectionPool(new ConnectionPool(5, ZegoQuickStartConstants.SERVER_IDLE_TIMEOUT_MS, TimeUnit.MILLISECONDS))
+                // 服务端支持时（TLS + ALPN）优先使用HTTP/2多路复用，所有请求共享一条连接
+                .protocols(Arrays.asList(Protocol.HTTP_2, Protocol.HTTP_1_1))
+                .eventListenerFactory(networkMetrics)
+                .build();
+        
+        // 打断、停止等控制类请求不与查询、驱动请求争用调度器的并发名额
+        controlClient = okHttpClient.newBuilder()
+                .dispatcher(new Dispatcher())
                 .build();
         
         gson = new Gson();
@@ -55,192 +93,327 @@ public class ZegoQuickStartNetworkManager {
     }
     
     /**
-     * 网络请求回调接口
+     * 获取网络阶段耗时统计（按接口统计DNS、建连、TLS、首字节等耗时和连接复用率）
      */
-    public interface NetworkCallback {
-        void onSuccess(JsonObject response);
-        void onFailure(int code, String message);
+    public ZegoQuickStartNetworkMetrics getNetworkMetrics() {
+        return networkMetrics;
     }
     
+    // ==================== 连接预热 ====================
+    
     /**
-     * 发送GET请求
+     * 开始连接预热，必须在主线程调用，可重复调用（仅更新服务器地址）
+     * 1. 立即在后台建立到服务器的池化连接
+     * 2. 网络切换时淘汰旧连接并重新预热
+     * 3. 最近有请求时定期发送保活请求，间隔小于服务端空闲回收时间
      *
-     * @param url      请求URL
-     * @param headers  请求头
-     * @param callback 回调接口
+     * @param context   任意Context，内部使用ApplicationContext
+     * @param serverURL 服务器地址
      */
-    public void get(String url, Map<String, String> headers, NetworkCallback callback) {
-        // 边界检查
-        if (url == null || url.isEmpty()) {
-            if (callback != null) {
-                mainHandler.post(() -> callback.onFailure(ZegoQuickStartConstants.ERROR_CODE_INVALID_PARAMETER, "URL不能为空"));
-            }
+    public void startWarmUp(Context context, String serverURL) {
+        HttpUrl base = serverURL != null ? HttpUrl.parse(serverURL) : null;
+        if (base == null) {
+            Log.w(TAG, "[预热] 服务器地址无效，跳过连接预热: " + serverURL);
             return;
         }
+        warmUpUrl = base.newBuilder().encodedPath(ZegoQuickStartConstants.WARM_UP_PATH).build();
+        lastRequestTime = SystemClock.elapsedRealtime();
         
-        try {
-            Request.Builder requestBuilder = new Request.Builder().url(url);
-            
-            // 添加请求头
-            if (headers != null && !headers.isEmpty()) {
-                for (Map.Entry<String, String> entry : headers.entrySet()) {
-                    if (entry.getKey() != null && entry.getValue() != null) {
-                        requestBuilder.addHeader(entry.getKey(), entry.getValue());
-                    }
-                }
-            }
-            
-            Request request = requestBuilder.build();
-            
-            Log.d(TAG, "GET请求: " + url);
-            
-            okHttpClient.newCall(request).enqueue(new Callback() {
+        if (networkCallback == null) {
+            ConnectivityManager connectivityManager = (ConnectivityManager) context.getApplicationContext()
+                    .getSystemService(Context.CONNECTIVITY_SERVICE);
+            networkCallback = new ConnectivityManager.NetworkCallback() {
                 @Override
-                public void onFailure(Call call, IOException e) {
-                    Log.e(TAG, "GET请求失败: " + url, e);
-                    if (callback != null) {
-                        mainHandler.post(() -> callback.onFailure(
-                                ZegoQuickStartConstants.ERROR_CODE_NETWORK_ERROR,
-                                "网络请求失败: " + e.getMessage()
-                        ));
-                    }
+                public void onAvailable(Network network) {
+                    // 注册时若已有可用网络也会回调，兼作启动预热
+                    okHttpClient.connectionPool().evictAll();
+                    preconnect();
                 }
                 
                 @Override
-                public void onResponse(Call call, Response response) {
-                    handleResponse(response, callback);
+                public void onLost(Network network) {
+                    okHttpClient.connectionPool().evictAll();
                 }
-            });
+            };
+            try {
+                connectivityManager.registerDefaultNetworkCallback(networkCallback, mainHandler);
+            } catch (Exception e) {
+                Log.e(TAG, "[预热] 注册网络变化监听失败", e);
+                networkCallback = null;
+                preconnect();
+            }
+        } else {
+            preconnect();
+        }
+        scheduleKeepAlive();
+    }
+    
+    /**
+     * 在后台建立到服务器的池化连接（DNS解析 + TCP/TLS握手），结果忽略
+     */
+    public void preconnect() {
+        HttpUrl url = warmUpUrl;
+        if (url == null) {
+            return;
+        }
+        Request request = new Request.Builder().url(url).get().build();
+        okHttpClient.newCall(request).enqueue(new Callback() {
+            @Override
+            public void onFailure(Call call, IOException e) {
+                Log.d(TAG, "[预热] 预连接失败: " + e.getMessage());
+            }
             
-        } catch (Exception e) {
-            Log.e(TAG, "GET请求异常: " + url, e);
-            if (callback != null) {
-                mainHandler.post(() -> callback.onFailure(
-                        ZegoQuickStartConstants.ERROR_CODE_UNKNOWN,
-                        "请求异常: " + e.getMessage()
-                ));
+            @Override
+            public void onResponse(Call call, Response response) {
+                // 任何HTTP状态都说明连接已建立并进入连接池
+                response.close();
             }
+        });
+    }
+    
+    /**
+     * 记录一次业务请求，保活在最近有请求时才进行
+     */
+    private void markRequestActivity() {
+        lastRequestTime = SystemClock.elapsedRealtime();
+        if (warmUpUrl != null && !keepAliveScheduled) {
+            mainHandler.post(scheduleKeepAliveRunnable);
+        }
+    }
+    
+    private void scheduleKeepAlive() {
+        if (keepAliveScheduled) {
+            return;
+        }
+        keepAliveScheduled = true;
+        mainHandler.postDelayed(keepAliveRunnable, ZegoQuickStartConstants.KEEP_ALIVE_PING_INTERVAL_MS);
+    }
+    
+    private void onKeepAliveTick() {
+        keepAliveScheduled = false;
+        if (SystemClock.elapsedRealtime() - lastRequestTime > ZegoQuickStartConstants.KEEP_WARM_WINDOW_MS) {
+            // 长时间没有请求，停止保活，下次请求时恢复
+            Log.d(TAG, "[预热] 长时间无请求，停止连接保活");
+            return;
         }
+        preconnect();
+        scheduleKeepAlive();
     }
     
     /**
-     * 发送POST请求
+     * 响应数据解码器
+     * 从流式JsonReader中读取Data字段并直接绑定为目标类型
+     */
+    public interface ResponseDecoder<T> {
+        T decode(JsonReader reader, Gson gson) throws IOException;
+    }
+    
+    /**
+     * 类型化网络请求回调接口
+     */
+    public interface TypedCallback<T> {
+        void onSuccess(ZegoQuickStartResponse<T> response);
+        void onFailure(int code, String message);
+    }
+    
+    /**
+     * 发送POST请求，并将响应直接从流中解码为类型化结果
+     * 响应体不会被完整读入字符串，也不会构建中间JsonObject
+     * 注意：回调直接在OkHttp线程（参数错误时在调用线程）执行，不会切换到主线程，
+     * 由调用方自行决定结果投递到哪个线程
      *
      * @param url        请求URL
      * @param parameters 请求参数（JSON对象）
      * @param headers    请求头
+     * @param decoder    Data字段解码器
      * @param callback   回调接口
      */
-    public void post(String url, JsonObject parameters, Map<String, String> headers, NetworkCallback callback) {
+    public <T> void postTyped(String url, JsonObject parameters, Map<String, String> headers,
+                              ResponseDecoder<T> decoder, TypedCallback<T> callback) {
+        postTyped(url, parameters, headers, null, 0, decoder, callback);
+    }
+    
+    /**
+     * 发送带标记的类型化POST请求
+     * 控制类请求走独立调度器；请求被 {@link #cancelTaskCalls(String)} 取消后不再回调
+     *
+     * @param tag        请求标记，为null时按普通请求处理
+     * @param deadlineMs 整体截止时间（毫秒），覆盖默认的连接/读/写超时，<=0 时不限制
+     */
+    public <T> void postTyped(String url, JsonObject parameters, Map<String, String> headers,
+                              ZegoQuickStartCallTag tag, long deadlineMs,
+                              ResponseDecoder<T> decoder, TypedCallback<T> callback) {
         // 边界检查
         if (url == null || url.isEmpty()) {
             if (callback != null) {
-                mainHandler.post(() -> callback.onFailure(ZegoQuickStartConstants.ERROR_CODE_INVALID_PARAMETER, "URL不能为空"));
+                callback.onFailure(ZegoQuickStartConstants.ERROR_CODE_INVALID_PARAMETER, "URL不能为空");
             }
             return;
         }
         
         try {
-            // 构建请求体
-            String jsonBody = parameters != null ? parameters.toString() : "{}";
-            RequestBody body = RequestBody.create(jsonBody, JSON);
-            
-            Request.Builder requestBuilder = new Request.Builder()
-                    .url(url)
-                    .post(body);
-            
-            // 添加请求头
-            if (headers != null && !headers.isEmpty()) {
-                for (Map.Entry<String, String> entry : headers.entrySet()) {
-                    if (entry.getKey() != null && entry.getValue() != null) {
-                        requestBuilder.addHeader(entry.getKey(), entry.getValue());
-                    }
-                }
+            Request request = buildPostRequest(url, parameters, headers);
+            boolean control = tag != null && tag.getPriority() == ZegoQuickStartCallTag.Priority.CONTROL;
+            Call newCall = (control ? controlClient : okHttpClient).newCall(request);
+            if (deadlineMs > 0) {
+                newCall.timeout().timeout(deadlineMs, TimeUnit.MILLISECONDS);
+            }
+            if (tag != null) {
+                activeTags.add(tag);
+                tag.attach(newCall);
             }
             
-            Request request = requestBuilder.build();
-            
-            Log.d(TAG, "POST请求: " + url);
-            Log.d(TAG, "请求体: " + jsonBody);
-            
-            okHttpClient.newCall(request).enqueue(new Callback() {
+            newCall.enqueue(new Callback() {
                 @Override
                 public void onFailure(Call call, IOException e) {
+                    if (tag != null) {
+                        activeTags.remove(tag);
+                        if (tag.isCancelled()) {
+                            Log.d(TAG, "POST请求已取消: " + url);
+                            return;
+                        }
+                    }
                     Log.e(TAG, "POST请求失败: " + url, e);
                     if (callback != null) {
-                        mainHandler.post(() -> callback.onFailure(
+                        callback.onFailure(
                                 ZegoQuickStartConstants.ERROR_CODE_NETWORK_ERROR,
                                 "网络请求失败: " + e.getMessage()
-                        ));
+                        );
                     }
                 }
                 
                 @Override
                 public void onResponse(Call call, Response response) {
-                    handleResponse(response, callback);
+                    if (tag != null) {
+                        activeTags.remove(tag);
+                        if (tag.isCancelled()) {
+                            response.close();
+                            return;
+                        }
+                    }
+                    handleTypedResponse(url, response, decoder, callback);
                 }
             });
             
         } catch (Exception e) {
             Log.e(TAG, "POST请求异常: " + url, e);
             if (callback != null) {
-                mainHandler.post(() -> callback.onFailure(
+                callback.onFailure(
                         ZegoQuickStartConstants.ERROR_CODE_UNKNOWN,
                         "请求异常: " + e.getMessage()
-                ));
+                );
+            }
+        }
+    }
+    
+    /**
+     * 取消指定任务所有未完成、且标记为任务停止时取消的请求（驱动类请求）
+     * 已取消的请求不会再回调，包括已收到响应但尚未投递的结果
+     *
+     * @return 取消的请求数
+     */
+    public int cancelTaskCalls(String taskId) {
+        if (taskId == null) {
+            return 0;
+        }
+        int cancelled = 0;
+        for (ZegoQuickStartCallTag tag : activeTags) {
+            if (tag.isCancelOnTaskStop() && taskId.equals(tag.getTaskId())) {
+                tag.cancel();
+                activeTags.remove(tag);
+                cancelled++;
             }
         }
+        return cancelled;
     }
     
     /**
-     * 处理响应
+     * 构建POST请求
      */
-    private void handleResponse(Response response, NetworkCallback callback) {
+    private Request buildPostRequest(String url, JsonObject parameters, Map<String, String> headers) {
+        markRequestActivity();
+        
+        // 构建请求体
+        String jsonBody = parameters != null ? parameters.toString() : "{}";
+        RequestBody body = RequestBody.create(jsonBody, JSON);
+        
+        Request.Builder requestBuilder = new Request.Builder()
+                .url(url)
+                .post(body);
+        
+        // 添加请求头
+        if (headers != null && !headers.isEmpty()) {
+            for (Map.Entry<String, String> entry : headers.entrySet()) {
+                if (entry.getKey() != null && entry.getValue() != null) {
+                    requestBuilder.addHeader(entry.getKey(), entry.getValue());
+                }
+            }
+        }
+        
+        ZegoQuickStartLog.d(TAG, "POST请求: {}", url);
+        ZegoQuickStartLog.body(Log.DEBUG, TAG, "请求体: {}", jsonBody);
+        
+        return requestBuilder.build();
+    }
+    
+    /**
+     * 处理类型化响应
+     * 在OkHttp线程上直接从BufferedSource流式解析信封和Data，并在当前线程回调
+     */
+    private <T> void handleTypedResponse(String url, Response response, ResponseDecoder<T> decoder, TypedCallback<T> callback) {
+        ResponseBody body = response.body();
         try {
             if (!response.isSuccessful()) {
                 Log.e(TAG, "响应失败: code=" + response.code());
                 if (callback != null) {
                     int code = response.code();
-                    mainHandler.post(() -> callback.onFailure(code, "HTTP错误: " + code));
+                    callback.onFailure(code, "HTTP错误: " + code);
                 }
                 return;
             }
             
-            String responseBody = response.body() != null ? response.body().string() : null;
-            
             // 边界检查
-            if (responseBody == null || responseBody.isEmpty()) {
+            if (body == null) {
                 if (callback != null) {
-                    mainHandler.post(() -> callback.onFailure(
+                    callback.onFailure(
                             ZegoQuickStartConstants.ERROR_CODE_PARSE_ERROR,
                             "响应体为空"
-                    ));
+                    );
                 }
                 return;
             }
             
-            Log.d(TAG, "响应成功: " + responseBody);
+            ZegoQuickStartResponse<T> parsed;
+            try (JsonReader reader = new JsonReader(body.charStream())) {
+                parsed = ZegoQuickStartResponseDecoders.readEnvelope(reader, gson, decoder);
+            } catch (EOFException e) {
+                if (callback != null) {
+                    callback.onFailure(
+                            ZegoQuickStartConstants.ERROR_CODE_PARSE_ERROR,
+                            "响应体为空"
+                    );
+                }
+                return;
+            }
             
-            // 解析JSON
-            JsonObject jsonObject = gson.fromJson(responseBody, JsonObject.class);
+            ZegoQuickStartLog.d(TAG, "响应成功: {}, Code={}", url, parsed.getCode());
             
             if (callback != null) {
-                mainHandler.post(() -> callback.onSuccess(jsonObject));
+                callback.onSuccess(parsed);
             }
             
         } catch (Exception e) {
             Log.e(TAG, "响应解析失败", e);
             if (callback != null) {
-                mainHandler.post(() -> callback.onFailure(
+                callback.onFailure(
                         ZegoQuickStartConstants.ERROR_CODE_PARSE_ERROR,
                         "响应解析失败: " + e.getMessage()
-                ));
+                );
             }
         } finally {
-            if (response.body() != null) {
-                response.body().close();
+            if (body != null) {
+                body.close();
             }
         }
     }
 }
-
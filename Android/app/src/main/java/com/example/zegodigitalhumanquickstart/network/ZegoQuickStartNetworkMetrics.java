@@ -0,0 +1,327 @@
+package com.example.zegodigitalhumanquickstart.network;
+
+import com.example.zegodigitalhumanquickstart.metrics.ZegoQuickStartLatencyHistogram;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Proxy;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import okhttp3.Call;
+import okhttp3.Connection;
+import okhttp3.EventListener;
+import okhttp3.Handshake;
+import okhttp3.Protocol;
+import okhttp3.Request;
+import okhttp3.Response;
+
+/**
+ * 网络阶段耗时统计
+ * 作为 OkHttp 的 EventListener.Factory，按接口（ZegoQuickStartAPIConstants.ACTION_* 路径）
+ * 记录 DNS、建连、TLS、发送请求、首字节、读取响应体以及整体耗时，并统计连接复用率
+ * 整体耗时按结果分开记录：成功（HTTP 2xx）的调用记入 TOTAL，失败、取消（如对冲落败）和非2xx 响应记入 FAILED，
+ * 避免快速失败或被取消的调用拉低 TOTAL 的分位数
+ */
+public final class ZegoQuickStartNetworkMetrics implements EventListener.Factory {
+
+    /**
+     * 统计的阶段
+     */
+    public enum Phase {
+        DNS,
+        CONNECT,
+        TLS,
+        REQUEST_WRITE,
+        TTFB,
+        BODY_READ,
+        /** 成功调用的整体耗时 */
+        TOTAL,
+        /** 失败、取消或非2xx 响应的调用的整体耗时 */
+        FAILED
+    }
+
+    private final Map<String, ActionStats> actionStats = new ConcurrentHashMap<>();
+
+    /**
+     * 单个接口的统计数据
+     */
+    private static final class ActionStats {
+        final ZegoQuickStartLatencyHistogram[] histograms = new ZegoQuickStartLatencyHistogram[Phase.values().length];
+        final AtomicLong acquiredConnections = new AtomicLong();
+        final AtomicLong reusedConnections = new AtomicLong();
+        final AtomicLong failedCalls = new AtomicLong();
+
+        ActionStats() {
+            for (int i = 0; i < histograms.length; i++) {
+                histograms[i] = new ZegoQuickStartLatencyHistogram();
+            }
+        }
+    }
+
+    /**
+     * 单个接口的统计快照
+     */
+    public static final class ActionSnapshot {
+        private final String action;
+        private final Map<Phase, ZegoQuickStartLatencyHistogram.Snapshot> phases;
+        private final long acquiredConnections;
+        private final long reusedConnections;
+        private final long failedCalls;
+
+        ActionSnapshot(String action, Map<Phase, ZegoQuickStartLatencyHistogram.Snapshot> phases,
+                       long acquiredConnections, long reusedConnections, long failedCalls) {
+            this.action = action;
+            this.phases = Collections.unmodifiableMap(phases);
+            this.acquiredConnections = acquiredConnections;
+            this.reusedConnections = reusedConnections;
+            this.failedCalls = failedCalls;
+        }
+
+        public String getAction() {
+            return action;
+        }
+
+        public ZegoQuickStartLatencyHistogram.Snapshot getPhase(Phase phase) {
+            return phases.get(phase);
+        }
+
+        public Map<Phase, ZegoQuickStartLatencyHistogram.Snapshot> getPhases() {
+            return phases;
+        }
+
+        public long getFailedCalls() {
+            return failedCalls;
+        }
+
+        /**
+         * 连接复用率：复用已有连接的调用 / 获取到连接的调用，没有样本时返回0
+         */
+        public double getConnectionReuseRatio() {
+            return acquiredConnections > 0 ? (double) reusedConnections / acquiredConnections : 0;
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder builder = new StringBuilder(action)
+                    .append(" reuse=").append(reusedConnections).append('/').append(acquiredConnections)
+                    .append(" failed=").append(failedCalls);
+            for (Map.Entry<Phase, ZegoQuickStartLatencyHistogram.Snapshot> entry : phases.entrySet()) {
+                builder.append("\n  ").append(entry.getKey()).append(": ").append(entry.getValue());
+            }
+            return builder.toString();
+        }
+    }
+
+    @Override
+    public EventListener create(Call call) {
+        return new CallListener(stats(actionOf(call.request())));
+    }
+
+    /**
+     * 获取指定接口的统计快照，没有记录时返回null
+     *
+     * @param action ZegoQuickStartAPIConstants.ACTION_* 路径
+     */
+    public ActionSnapshot getSnapshot(String action) {
+        ActionStats stats = actionStats.get(action);
+        return stats != null ? snapshotOf(action, stats) : null;
+    }
+
+    /**
+     * 获取所有接口的统计快照
+     */
+    public List<ActionSnapshot> getSnapshots() {
+        List<ActionSnapshot> snapshots = new ArrayList<>();
+        for (Map.Entry<String, ActionStats> entry : actionStats.entrySet()) {
+            snapshots.add(snapshotOf(entry.getKey(), entry.getValue()));
+        }
+        return snapshots;
+    }
+
+    /**
+     * 所有接口合计的连接复用率
+     */
+    public double getConnectionReuseRatio() {
+        long acquired = 0;
+        long reused = 0;
+        for (ActionStats stats : actionStats.values()) {
+            acquired += stats.acquiredConnections.get();
+            reused += stats.reusedConnections.get();
+        }
+        return acquired > 0 ? (double) reused / acquired : 0;
+    }
+
+    /**
+     * 指定接口某阶段的直方图，供其它模块读取分位数据
+     */
+    public ZegoQuickStartLatencyHistogram getHistogram(String action, Phase phase) {
+        return stats(action).histograms[phase.ordinal()];
+    }
+
+    public void reset() {
+        actionStats.clear();
+    }
+
+    private ActionStats stats(String action) {
+        ActionStats stats = actionStats.get(action);
+        if (stats == null) {
+            stats = actionStats.computeIfAbsent(action, key -> new ActionStats());
+        }
+        return stats;
+    }
+
+    private static ActionSnapshot snapshotOf(String action, ActionStats stats) {
+        Map<Phase, ZegoQuickStartLatencyHistogram.Snapshot> phases = new EnumMap<>(Phase.class);
+        for (Phase phase : Phase.values()) {
+            phases.put(phase, stats.histograms[phase.ordinal()].snapshot());
+        }
+        return new ActionSnapshot(action, phases, stats.acquiredConnections.get(),
+                stats.reusedConnections.get(), stats.failedCalls.get());
+    }
+
+    /**
+     * 由请求URL的最后一段路径得到接口名，与 ACTION_* 常量一致（以 / 开头）
+     */
+    static String actionOf(Request request) {
+        List<String> segments = request.url().pathSegments();
+        String last = segments.isEmpty() ? "" : segments.get(segments.size() - 1);
+        return "/" + last;
+    }
+
+    /**
+     * 单次调用的事件监听，OkHttp 保证同一调用的事件顺序回调
+     */
+    private static final class CallListener extends EventListener {
+        private final ActionStats stats;
+        private long callStart;
+        private long dnsStart;
+        private long connectStart;
+        private long secureConnectStart;
+        private long requestStart;
+        private long requestEnd;
+        private long responseBodyStart;
+        private boolean connectedInCall;
+        private boolean responseOk;
+
+        CallListener(ActionStats stats) {
+            this.stats = stats;
+        }
+
+        private void record(Phase phase, long start) {
+            if (start > 0) {
+                stats.histograms[phase.ordinal()].recordNanos(System.nanoTime() - start);
+            }
+        }
+
+        @Override
+        public void callStart(Call call) {
+            callStart = System.nanoTime();
+        }
+
+        @Override
+        public void dnsStart(Call call, String domainName) {
+            dnsStart = System.nanoTime();
+        }
+
+        @Override
+        public void dnsEnd(Call call, String domainName, List<InetAddress> inetAddressList) {
+            record(Phase.DNS, dnsStart);
+        }
+
+        @Override
+        public void connectStart(Call call, InetSocketAddress inetSocketAddress, Proxy proxy) {
+            connectStart = System.nanoTime();
+            connectedInCall = true;
+        }
+
+        @Override
+        public void secureConnectStart(Call call) {
+            secureConnectStart = System.nanoTime();
+        }
+
+        @Override
+        public void secureConnectEnd(Call call, Handshake handshake) {
+            record(Phase.TLS, secureConnectStart);
+        }
+
+        @Override
+        public void connectEnd(Call call, InetSocketAddress inetSocketAddress, Proxy proxy, Protocol protocol) {
+            record(Phase.CONNECT, connectStart);
+        }
+
+        @Override
+        public void connectFailed(Call call, InetSocketAddress inetSocketAddress, Proxy proxy, Protocol protocol, IOException ioe) {
+            record(Phase.CONNECT, connectStart);
+        }
+
+        @Override
+        public void connectionAcquired(Call call, Connection connection) {
+            stats.acquiredConnections.incrementAndGet();
+            if (!connectedInCall) {
+                stats.reusedConnections.incrementAndGet();
+            }
+        }
+
+        @Override
+        public void requestHeadersStart(Call call) {
+            requestStart = System.nanoTime();
+        }
+
+        @Override
+        public void requestHeadersEnd(Call call, Request request) {
+            requestEnd = System.nanoTime();
+        }
+
+        @Override
+        public void requestBodyEnd(Call call, long byteCount) {
+            requestEnd = System.nanoTime();
+        }
+
+        @Override
+        public void responseHeadersStart(Call call) {
+            if (requestStart > 0 && requestEnd > 0) {
+                stats.histograms[Phase.REQUEST_WRITE.ordinal()].recordNanos(requestEnd - requestStart);
+            }
+            record(Phase.TTFB, requestEnd);
+        }
+
+        @Override
+        public void responseHeadersEnd(Call call, Response response) {
+            responseOk = response.isSuccessful();
+        }
+
+        @Override
+        public void responseBodyStart(Call call) {
+            responseBodyStart = System.nanoTime();
+        }
+
+        @Override
+        public void responseBodyEnd(Call call, long byteCount) {
+            record(Phase.BODY_READ, responseBodyStart);
+        }
+
+        @Override
+        public void callEnd(Call call) {
+            if (responseOk) {
+                record(Phase.TOTAL, callStart);
+            } else {
+                stats.failedCalls.incrementAndGet();
+                record(Phase.FAILED, callStart);
+            }
+        }
+
+        @Override
+        public void callFailed(Call call, IOException ioe) {
+            // 包括被取消的调用
+            stats.failedCalls.incrementAndGet();
+            record(Phase.FAILED, callStart);
+        }
+    }
+}
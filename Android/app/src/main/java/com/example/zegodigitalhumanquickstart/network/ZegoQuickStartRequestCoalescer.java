@@ -0,0 +1,138 @@
+package com.example.zegodigitalhumanquickstart.network;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonPrimitive;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 请求合并器（single-flight）
+ * 相同 action + 请求体 的并发请求只发出一次网络调用，所有调用方共享同一个结果
+ * 注意：共享的结果对象是同一个实例，调用方不应修改它
+ */
+final class ZegoQuickStartRequestCoalescer {
+
+    private final Map<String, InFlightCall<?>> inFlightCalls = new HashMap<>();
+    private final AtomicLong leaderCount = new AtomicLong();
+    private final AtomicLong coalescedCount = new AtomicLong();
+
+    /**
+     * 正在进行中的请求，记录所有等待结果的调用方
+     */
+    private static final class InFlightCall<T> {
+        final List<ZegoQuickStartAPIService.ResultCallback<T>> waiters = new ArrayList<>();
+    }
+
+    /**
+     * 构建合并键：action + 按字段名排序后的规范化请求体
+     */
+    static String buildKey(String action, JsonObject params) {
+        StringBuilder builder = new StringBuilder(action != null ? action : "");
+        builder.append('#');
+        appendCanonical(builder, params != null ? params : new JsonObject());
+        return builder.toString();
+    }
+
+    /**
+     * 加入一次请求
+     *
+     * @param key      合并键
+     * @param callback 调用方回调
+     * @return 若当前没有相同请求在进行中，返回需要传给真实网络调用的回调（调用方负责发起请求）；
+     * 否则返回null，结果会在进行中的请求完成后分发给该调用方
+     */
+    @SuppressWarnings("unchecked")
+    <T> ZegoQuickStartAPIService.ResultCallback<T> join(String key, ZegoQuickStartAPIService.ResultCallback<T> callback) {
+        synchronized (inFlightCalls) {
+            InFlightCall<T> existing = (InFlightCall<T>) inFlightCalls.get(key);
+            if (existing != null) {
+                existing.waiters.add(callback);
+                coalescedCount.incrementAndGet();
+                return null;
+            }
+            InFlightCall<T> call = new InFlightCall<>();
+            call.waiters.add(callback);
+            inFlightCalls.put(key, call);
+            leaderCount.incrementAndGet();
+        }
+
+        return new ZegoQuickStartAPIService.ResultCallback<T>() {
+            @Override
+            public void onSuccess(T data) {
+                for (ZegoQuickStartAPIService.ResultCallback<T> waiter : complete(key)) {
+                    waiter.onSuccess(data);
+                }
+            }
+
+            @Override
+            public void onFailure(int code, String message) {
+                for (ZegoQuickStartAPIService.ResultCallback<T> waiter : complete(key)) {
+                    waiter.onFailure(code, message);
+                }
+            }
+        };
+    }
+
+    /**
+     * 实际发出的网络请求数
+     */
+    long getIssuedCount() {
+        return leaderCount.get();
+    }
+
+    /**
+     * 被合并而节省的网络请求数
+     */
+    long getCoalescedCount() {
+        return coalescedCount.get();
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> List<ZegoQuickStartAPIService.ResultCallback<T>> complete(String key) {
+        synchronized (inFlightCalls) {
+            InFlightCall<T> call = (InFlightCall<T>) inFlightCalls.remove(key);
+            return call != null ? call.waiters : new ArrayList<>();
+        }
+    }
+
+    private static void appendCanonical(StringBuilder builder, JsonElement element) {
+        if (element == null || element.isJsonNull()) {
+            builder.append("null");
+        } else if (element.isJsonObject()) {
+            TreeMap<String, JsonElement> sorted = new TreeMap<>();
+            for (Map.Entry<String, JsonElement> entry : element.getAsJsonObject().entrySet()) {
+                sorted.put(entry.getKey(), entry.getValue());
+            }
+            builder.append('{');
+            boolean first = true;
+            for (Map.Entry<String, JsonElement> entry : sorted.entrySet()) {
+                if (!first) {
+                    builder.append(',');
+                }
+                first = false;
+                builder.append(new JsonPrimitive(entry.getKey())).append(':');
+                appendCanonical(builder, entry.getValue());
+            }
+            builder.append('}');
+        } else if (element.isJsonArray()) {
+            JsonArray array = element.getAsJsonArray();
+            builder.append('[');
+            for (int i = 0; i < array.size(); i++) {
+                if (i > 0) {
+                    builder.append(',');
+                }
+                appendCanonical(builder, array.get(i));
+            }
+            builder.append(']');
+        } else {
+            builder.append(element);
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package com.example.zegodigitalhumanquickstart.network;
+
+import com.example.zegodigitalhumanquickstart.ZegoQuickStartConstants;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * 接口请求策略
+ * 每个接口独立的整体截止时间、重试次数（仅幂等接口）和是否对冲请求
+ * 只有网络错误和HTTP 5xx会重试，业务错误码直接返回
+ */
+public final class ZegoQuickStartRequestPolicy {
+
+    private static final long BACKOFF_BASE_MS = 200;
+    private static final long BACKOFF_MAX_MS = 2000;
+
+    private static final ZegoQuickStartRequestPolicy DEFAULT = new ZegoQuickStartRequestPolicy(10_000, 1, false, true);
+    private static final Map<String, ZegoQuickStartRequestPolicy> POLICIES = new HashMap<>();
+
+    static {
+        // 幂等接口：短截止时间 + 指数退避重试
+        POLICIES.put(ZegoQuickStartAPIConstants.ACTION_GET_DIGITAL_HUMAN_INFO, new ZegoQuickStartRequestPolicy(8_000, 3, false));
+        POLICIES.put(ZegoQuickStartAPIConstants.ACTION_QUERY_DIGITAL_HUMAN_STREAM_TASKS, new ZegoQuickStartRequestPolicy(8_000, 3, false));
+        POLICIES.put(ZegoQuickStartAPIConstants.ACTION_STOP_DIGITAL_HUMAN_STREAM_TASK, new ZegoQuickStartRequestPolicy(5_000, 3, false));
+        // 创建任务需要服务端拉起推流，耗时较长；请求携带幂等键，仅在网络错误时重试
+        // 服务端对业务失败同样返回500，重试无意义
+        POLICIES.put(ZegoQuickStartAPIConstants.ACTION_CREATE_DIGITAL_HUMAN_STREAM_TASK, new ZegoQuickStartRequestPolicy(15_000, 3, false, false));
+        // 驱动类接口每次调用都会触发播报，不重试；超时后结果已无意义
+        POLICIES.put(ZegoQuickStartAPIConstants.ACTION_DRIVE_BY_TEXT, new ZegoQuickStartRequestPolicy(8_000, 1, false));
+        POLICIES.put(ZegoQuickStartAPIConstants.ACTION_DRIVE_BY_AUDIO, new ZegoQuickStartRequestPolicy(8_000, 1, false));
+        POLICIES.put(ZegoQuickStartAPIConstants.ACTION_DRIVE_BY_WS_STREAM_WITH_TTS, new ZegoQuickStartRequestPolicy(8_000, 1, false));
+        // 打断需要尽快生效：截止时间短，超过p95仍未返回时发出对冲请求
+        POLICIES.put(ZegoQuickStartAPIConstants.ACTION_INTERRUPT_DRIVE_TASK, new ZegoQuickStartRequestPolicy(3_000, 1, true));
+    }
+
+    private final long deadlineMs;
+    private final int maxAttempts;
+    private final boolean hedged;
+    private final boolean retryServerErrors;
+
+    ZegoQuickStartRequestPolicy(long deadlineMs, int maxAttempts, boolean hedged) {
+        this(deadlineMs, maxAttempts, hedged, true);
+    }
+
+    ZegoQuickStartRequestPolicy(long deadlineMs, int maxAttempts, boolean hedged, boolean retryServerErrors) {
+        this.deadlineMs = deadlineMs;
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.hedged = hedged;
+        this.retryServerErrors = retryServerErrors;
+    }
+
+    /**
+     * 获取接口的请求策略，未配置的接口使用默认策略
+     */
+    public static ZegoQuickStartRequestPolicy forAction(String action) {
+        ZegoQuickStartRequestPolicy policy = POLICIES.get(action);
+        return policy != null ? policy : DEFAULT;
+    }
+
+    /**
+     * 单次请求的整体截止时间（DNS、建连、发送、等待和读取响应合计）
+     */
+    public long getDeadlineMs() {
+        return deadlineMs;
+    }
+
+    /**
+     * 最大尝试次数（含首次）
+     */
+    public int getMaxAttempts() {
+        return maxAttempts;
+    }
+
+    /**
+     * 所有尝试都用满截止时间、每次退避都取上限时的总耗时上限
+     * 调用方在外层再设超时时应不小于该值，否则会在重试仍在进行时判定超时
+     */
+    public long getTotalBudgetMs() {
+        long total = deadlineMs * maxAttempts;
+        for (int attempt = 1; attempt < maxAttempts; attempt++) {
+            total += Math.min(BACKOFF_MAX_MS, BACKOFF_BASE_MS << Math.min(attempt - 1, 10));
+        }
+        return total;
+    }
+
+    /**
+     * 是否对冲请求
+     */
+    public boolean isHedged() {
+        return hedged;
+    }
+
+    /**
+     * 第 attempt 次重试前的等待时间：指数退避，在 [上限/2, 上限] 内随机抖动
+     *
+     * @param attempt 已失败的次数，从1开始
+     */
+    long backoffMs(int attempt) {
+        long cap = Math.min(BACKOFF_MAX_MS, BACKOFF_BASE_MS << Math.min(attempt - 1, 10));
+        return ThreadLocalRandom.current().nextLong(cap / 2, cap + 1);
+    }
+
+    /**
+     * 按该接口策略判断失败是否需要重试
+     */
+    boolean shouldRetry(int code) {
+        return retryServerErrors ? isRetryable(code) : code == ZegoQuickStartConstants.ERROR_CODE_NETWORK_ERROR;
+    }
+
+    /**
+     * 判断失败是否可以重试：网络错误或HTTP 5xx
+     */
+    static boolean isRetryable(int code) {
+        return code == ZegoQuickStartConstants.ERROR_CODE_NETWORK_ERROR
+                || (code >= 500 && code < 600);
+    }
+}
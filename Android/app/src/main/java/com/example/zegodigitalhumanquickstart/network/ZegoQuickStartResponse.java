@@ -0,0 +1,61 @@
+package com.example.zegodigitalhumanquickstart.network;
+
+/**
+ * 服务端统一响应信封：{Code, Message, Data}
+ * Data 由 {@link ZegoQuickStartResponseDecoders} 中的解码器直接从流中解析为目标模型
+ */
+public class ZegoQuickStartResponse<T> {
+
+    private int code;
+    private String message;
+    private T data;
+
+    public ZegoQuickStartResponse() {
+    }
+
+    public ZegoQuickStartResponse(int code, String message, T data) {
+        this.code = code;
+        this.message = message;
+        this.data = data;
+    }
+
+    public int getCode() {
+        return code;
+    }
+
+    void setCode(int code) {
+        this.code = code;
+    }
+
+    public String getMessage() {
+        return message != null ? message : "";
+    }
+
+    void setMessage(String message) {
+        this.message = message;
+    }
+
+    /**
+     * 业务数据，服务端未返回 Data 或 Data 为 null 时为 null
+     */
+    public T getData() {
+        return data;
+    }
+
+    void setData(T data) {
+        this.data = data;
+    }
+
+    public boolean isSuccess() {
+        return code == 0;
+    }
+
+    @Override
+    public String toString() {
+        return "ZegoQuickStartResponse{" +
+                "code=" + code +
+                ", message='" + message + '\'' +
+                ", data=" + data +
+                '}';
+    }
+}
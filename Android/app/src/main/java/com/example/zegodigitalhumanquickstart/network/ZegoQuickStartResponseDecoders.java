@@ -0,0 +1,151 @@
+package com.example.zegodigitalhumanquickstart.network;
+
+import com.example.zegodigitalhumanquickstart.model.ZegoQuickStartTask;
+import com.google.gson.Gson;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 流式响应解码器集合
+ * 基于 Gson 的 JsonReader 直接从响应流中读取 {Code, Message, Data}，
+ * Data 字段一次性绑定到目标模型，不再构建中间的 JsonObject 树
+ */
+public final class ZegoQuickStartResponseDecoders {
+
+    private static final String FIELD_CODE = "Code";
+    private static final String FIELD_MESSAGE = "Message";
+    private static final String FIELD_DATA = "Data";
+    private static final String FIELD_TASKS = "Tasks";
+    private static final String FIELD_TASK_LIST = "TaskList";
+
+    private ZegoQuickStartResponseDecoders() {
+        throw new AssertionError("Cannot instantiate ZegoQuickStartResponseDecoders");
+    }
+
+    /**
+     * 从流中读取统一响应信封
+     * 字段顺序不做要求，未知字段直接跳过
+     */
+    static <T> ZegoQuickStartResponse<T> readEnvelope(JsonReader reader, Gson gson,
+                                                      ZegoQuickStartNetworkManager.ResponseDecoder<T> decoder) throws IOException {
+        ZegoQuickStartResponse<T> response = new ZegoQuickStartResponse<>();
+        reader.beginObject();
+        while (reader.hasNext()) {
+            String name = reader.nextName();
+            if (FIELD_CODE.equals(name)) {
+                response.setCode(readInt(reader));
+            } else if (FIELD_MESSAGE.equals(name)) {
+                response.setMessage(readString(reader));
+            } else if (FIELD_DATA.equals(name) && decoder != null) {
+                if (reader.peek() == JsonToken.NULL) {
+                    reader.nextNull();
+                } else {
+                    response.setData(decoder.decode(reader, gson));
+                }
+            } else {
+                reader.skipValue();
+            }
+        }
+        reader.endObject();
+        return response;
+    }
+
+    /**
+     * 将 Data 绑定为指定模型类，Data 不是对象时返回 null
+     */
+    public static <T> ZegoQuickStartNetworkManager.ResponseDecoder<T> forClass(Class<T> clazz) {
+        return (reader, gson) -> {
+            if (reader.peek() != JsonToken.BEGIN_OBJECT) {
+                reader.skipValue();
+                return null;
+            }
+            return gson.getAdapter(clazz).read(reader);
+        };
+    }
+
+    /**
+     * 解析任务列表
+     * 兼容 Data.Tasks、Data.TaskList 以及 Data 本身为数组三种格式
+     */
+    public static ZegoQuickStartNetworkManager.ResponseDecoder<List<ZegoQuickStartTask>> taskList() {
+        return (reader, gson) -> {
+            TypeAdapter<ZegoQuickStartTask> adapter = gson.getAdapter(ZegoQuickStartTask.class);
+            List<ZegoQuickStartTask> tasks = new ArrayList<>();
+            JsonToken token = reader.peek();
+            if (token == JsonToken.BEGIN_ARRAY) {
+                readTaskArray(reader, adapter, tasks);
+            } else if (token == JsonToken.BEGIN_OBJECT) {
+                boolean found = false;
+                reader.beginObject();
+                while (reader.hasNext()) {
+                    String name = reader.nextName();
+                    if (!found && (FIELD_TASKS.equals(name) || FIELD_TASK_LIST.equals(name))
+                            && reader.peek() == JsonToken.BEGIN_ARRAY) {
+                        readTaskArray(reader, adapter, tasks);
+                        found = true;
+                    } else {
+                        reader.skipValue();
+                    }
+                }
+                reader.endObject();
+            } else {
+                reader.skipValue();
+            }
+            return tasks;
+        };
+    }
+
+    /**
+     * 将 Data 读取为 JsonObject，用于没有专门模型的通用接口
+     */
+    public static ZegoQuickStartNetworkManager.ResponseDecoder<JsonObject> jsonObject() {
+        return (reader, gson) -> {
+            JsonElement element = gson.getAdapter(JsonElement.class).read(reader);
+            return element != null && element.isJsonObject() ? element.getAsJsonObject() : new JsonObject();
+        };
+    }
+
+    private static void readTaskArray(JsonReader reader, TypeAdapter<ZegoQuickStartTask> adapter,
+                                      List<ZegoQuickStartTask> out) throws IOException {
+        reader.beginArray();
+        while (reader.hasNext()) {
+            if (reader.peek() == JsonToken.BEGIN_OBJECT) {
+                ZegoQuickStartTask task = adapter.read(reader);
+                if (task != null) {
+                    out.add(task);
+                }
+            } else {
+                reader.skipValue();
+            }
+        }
+        reader.endArray();
+    }
+
+    private static int readInt(JsonReader reader) throws IOException {
+        if (reader.peek() == JsonToken.NULL) {
+            reader.nextNull();
+            return 0;
+        }
+        return reader.nextInt();
+    }
+
+    private static String readString(JsonReader reader) throws IOException {
+        JsonToken token = reader.peek();
+        if (token == JsonToken.NULL) {
+            reader.nextNull();
+            return "";
+        }
+        if (token == JsonToken.STRING || token == JsonToken.NUMBER) {
+            return reader.nextString();
+        }
+        reader.skipValue();
+        return "";
+    }
+}
@@ -0,0 +1,144 @@
+package com.example.zegodigitalhumanquickstart.render;
+
+import android.util.Log;
+
+import java.nio.ByteBuffer;
+
+import im.zego.digitalmobile.IZegoDigitalMobile;
+import im.zego.zegoexpress.constants.ZegoVideoFrameFormat;
+import im.zego.zegoexpress.entity.ZegoVideoFrameParam;
+
+/**
+ * 远端视频帧转发桥
+ * 将 Express 自定义渲染回调的视频帧转交给数字人SDK，热路径上不产生任何对象分配：
+ * 1. 当前拉流会话以不可变快照的形式通过 volatile 字段发布，渲染线程只读一次引用
+ * 2. 每个会话复用同一个数字人SDK帧参数对象
+ * 3. 像素格式通过预先计算的查找表按 ordinal 转换
+ */
+public final class ZegoQuickStartFrameBridge {
+
+    private static final String TAG = "ZegoQuickStartFrameBridge";
+    private static final int STRIDE_COUNT = 4;
+
+    /**
+     * Express格式 ordinal -> 数字人SDK格式
+     */
+    private static final IZegoDigitalMobile.ZegoVideoFrameFormat[] FORMAT_TABLE = buildFormatTable();
+
+    private volatile Session session;
+
+    /**
+     * 拉流会话快照，创建后不再修改（帧参数对象仅由渲染线程写入）
+     */
+    private static final class Session {
+        final String streamId;
+        final IZegoDigitalMobile digitalMobile;
+        final IZegoDigitalMobile.ZegoVideoFrameParam frameParam = new IZegoDigitalMobile.ZegoVideoFrameParam();
+
+        Session(String streamId, IZegoDigitalMobile digitalMobile) {
+            this.streamId = streamId;
+            this.digitalMobile = digitalMobile;
+        }
+    }
+
+    /**
+     * 设置当前需要转发的流
+     * 可在任意线程调用，渲染线程会在下一帧看到新的会话
+     */
+    public void setSession(String streamId, IZegoDigitalMobile digitalMobile) {
+        if (streamId == null || streamId.isEmpty() || digitalMobile == null) {
+            session = null;
+            return;
+        }
+        Session current = session;
+        if (current != null && current.streamId.equals(streamId) && current.digitalMobile == digitalMobile) {
+            return;
+        }
+        session = new Session(streamId, digitalMobile);
+        Log.d(TAG, "[渲染] 转发会话已更新: " + streamId);
+    }
+
+    /**
+     * 清除当前会话，之后的帧都会被忽略
+     */
+    public void clearSession() {
+        session = null;
+    }
+
+    /**
+     * 当前转发的流ID，没有会话时返回null
+     */
+    public String getStreamId() {
+        Session current = session;
+        return current != null ? current.streamId : null;
+    }
+
+    /**
+     * 判断是否为当前会话的流
+     */
+    public boolean isCurrentStream(String streamID) {
+        Session current = session;
+        return current != null && streamID != null && current.streamId.equals(streamID);
+    }
+
+    /**
+     * 转发一帧远端视频，在 Express 渲染回调线程调用
+     *
+     * @return 是否已转交给数字人SDK
+     */
+    public boolean onRemoteVideoFrame(ByteBuffer[] data, int[] dataLength, ZegoVideoFrameParam param, String streamID) {
+        Session current = session;
+        if (current == null || streamID == null || data == null || data.length == 0 || param == null) {
+            return false;
+        }
+        if (current.streamId != streamID && !current.streamId.equals(streamID)) {
+            return false;
+        }
+
+        IZegoDigitalMobile.ZegoVideoFrameParam sdkParam = current.frameParam;
+        sdkParam.width = param.width;
+        sdkParam.height = param.height;
+        sdkParam.rotation = param.rotation;
+        sdkParam.format = convertFormat(param.format);
+        if (param.strides != null && param.strides.length >= STRIDE_COUNT) {
+            System.arraycopy(param.strides, 0, sdkParam.strides, 0, STRIDE_COUNT);
+        }
+
+        current.digitalMobile.onRemoteVideoFrameRawData(data, dataLength, sdkParam, streamID);
+        return true;
+    }
+
+    /**
+     * 转换像素格式，无对应格式时返回 Unknown
+     */
+    public static IZegoDigitalMobile.ZegoVideoFrameFormat convertFormat(ZegoVideoFrameFormat format) {
+        if (format == null) {
+            return IZegoDigitalMobile.ZegoVideoFrameFormat.Unknown;
+        }
+        return FORMAT_TABLE[format.ordinal()];
+    }
+
+    private static IZegoDigitalMobile.ZegoVideoFrameFormat[] buildFormatTable() {
+        ZegoVideoFrameFormat[] formats = ZegoVideoFrameFormat.values();
+        IZegoDigitalMobile.ZegoVideoFrameFormat[] table = new IZegoDigitalMobile.ZegoVideoFrameFormat[formats.length];
+        for (ZegoVideoFrameFormat format : formats) {
+            IZegoDigitalMobile.ZegoVideoFrameFormat mapped;
+            switch (format) {
+                case I420:
+                    mapped = IZegoDigitalMobile.ZegoVideoFrameFormat.I420;
+                    break;
+                case NV12:
+                    mapped = IZegoDigitalMobile.ZegoVideoFrameFormat.NV12;
+                    break;
+                case NV21:
+                    mapped = IZegoDigitalMobile.ZegoVideoFrameFormat.NV21;
+                    break;
+                default:
+                    mapped = IZegoDigitalMobile.ZegoVideoFrameFormat.Unknown;
+                    break;
+            }
+            table[format.ordinal()] = mapped;
+        }
+        return table;
+    }
+}
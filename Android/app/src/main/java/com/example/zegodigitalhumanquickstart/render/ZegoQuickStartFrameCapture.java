@@ -0,0 +1,233 @@
+package com.example.zegodigitalhumanquickstart.render;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicLong;
+
+import im.zego.zegoexpress.entity.ZegoVideoFrameParam;
+
+/**
+ * 视频帧/SEI采集
+ * 将 Express 回调收到的原始视频帧（各平面数据、步长、帧参数）和SEI按到达时间写入内存映射文件，
+ * 供 {@link ZegoQuickStartFrameReplay} 离线回放，在没有真实房间的情况下评测帧转发链路
+ * 写入只是向映射内存复制数据，不产生系统调用；文件写满后停止采集并计数丢弃
+ * 视频帧和SEI来自不同回调线程，写入时加锁保证记录完整
+ * 只依赖 java.* 和 Express 帧参数类，可在本地 JVM 中使用
+ *
+ * 文件格式（小端）：
+ * <pre>
+ * 文件头:   magic(int "ZQFC") version(int) 起始时间(long, System.nanoTime)
+ * 流定义:   type=3(byte) 流序号(byte) 长度(short) 流ID(UTF-8)
+ * 视频帧:   type=1(byte) 流序号(byte) 相对时间纳秒(long) 格式ordinal(byte) rotation(short)
+ *           width(int) height(int) 平面数(byte) [stride(int) 长度(int) 数据]×平面数
+ * SEI:      type=2(byte) 流序号(byte) 相对时间纳秒(long) 长度(int) 数据
+ * 结束:     type=0(byte)，之后的内容无效
+ * </pre>
+ */
+public final class ZegoQuickStartFrameCapture {
+
+    static final int MAGIC = 0x4346515A;  // "ZQFC"
+    static final int VERSION = 1;
+    static final int HEADER_SIZE = 16;
+    static final byte TYPE_END = 0;
+    static final byte TYPE_FRAME = 1;
+    static final byte TYPE_SEI = 2;
+    static final byte TYPE_STREAM = 3;
+    static final int PLANE_COUNT = 4;
+    private static final int MAX_STREAMS = 16;
+
+    private final File file;
+    private final RandomAccessFile raf;
+    private final FileChannel channel;
+    private final MappedByteBuffer buffer;
+    private final long startNanos;
+    private final String[] streams = new String[MAX_STREAMS];
+    private int streamCount;
+    private boolean closed;
+
+    private final AtomicLong frameCount = new AtomicLong();
+    private final AtomicLong seiCount = new AtomicLong();
+    private final AtomicLong droppedCount = new AtomicLong();
+
+    /**
+     * @param file     采集文件，已存在时覆盖
+     * @param maxBytes 文件最大长度，写满后停止采集
+     */
+    public ZegoQuickStartFrameCapture(File file, long maxBytes) throws IOException {
+        this.file = file;
+        raf = new RandomAccessFile(file, "rw");
+        raf.setLength(0);
+        channel = raf.getChannel();
+        buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, Math.min(Integer.MAX_VALUE, Math.max(HEADER_SIZE + 1, maxBytes)));
+        buffer.order(ByteOrder.LITTLE_ENDIAN);
+        startNanos = System.nanoTime();
+        buffer.putInt(MAGIC);
+        buffer.putInt(VERSION);
+        buffer.putLong(startNanos);
+    }
+
+    public File getFile() {
+        return file;
+    }
+
+    /**
+     * 写入一帧视频（Express 渲染回调线程），帧数据只在回调期间有效，这里直接复制
+     *
+     * @return 是否写入，文件已满或已关闭时返回false
+     */
+    public synchronized boolean writeFrame(ByteBuffer[] data, int[] dataLength, ZegoVideoFrameParam param, String streamID) {
+        if (closed || data == null || param == null) {
+            return false;
+        }
+        int planes = Math.min(PLANE_COUNT, data.length);
+        int size = 1 + 1 + 8 + 1 + 2 + 4 + 4 + 1;
+        for (int i = 0; i < planes; i++) {
+            size += 8 + planeLength(data, dataLength, i);
+        }
+        int stream = streamIndex(streamID, size);
+        if (stream < 0) {
+            return false;
+        }
+
+        buffer.put(TYPE_FRAME);
+        buffer.put((byte) stream);
+        buffer.putLong(System.nanoTime() - startNanos);
+        buffer.put((byte) (param.format != null ? param.format.ordinal() : 0));
+        buffer.putShort((short) param.rotation);
+        buffer.putInt(param.width);
+        buffer.putInt(param.height);
+        buffer.put((byte) planes);
+        for (int i = 0; i < planes; i++) {
+            int length = planeLength(data, dataLength, i);
+            buffer.putInt(param.strides != null && i < param.strides.length ? param.strides[i] : 0);
+            buffer.putInt(length);
+            if (length > 0) {
+                ByteBuffer src = data[i];
+                int oldPosition = src.position();
+                int oldLimit = src.limit();
+                src.limit(oldPosition + length);
+                buffer.put(src);
+                src.limit(oldLimit);
+                src.position(oldPosition);
+            }
+        }
+        frameCount.incrementAndGet();
+        return true;
+    }
+
+    /**
+     * 写入一条SEI（Express 事件回调线程）
+     *
+     * @return 是否写入，文件已满或已关闭时返回false
+     */
+    public synchronized boolean writeSEI(String streamID, byte[] data) {
+        if (closed || data == null) {
+            return false;
+        }
+        int stream = streamIndex(streamID, 1 + 1 + 8 + 4 + data.length);
+        if (stream < 0) {
+            return false;
+        }
+        buffer.put(TYPE_SEI);
+        buffer.put((byte) stream);
+        buffer.putLong(System.nanoTime() - startNanos);
+        buffer.putInt(data.length);
+        buffer.put(data);
+        seiCount.incrementAndGet();
+        return true;
+    }
+
+    /**
+     * 结束采集：写入结束标记，落盘并截断到实际长度
+     */
+    public synchronized void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        int end = buffer.position();
+        if (buffer.remaining() > 0) {
+            buffer.put(TYPE_END);
+        }
+        buffer.force();
+        try {
+            channel.truncate(Math.min(end + 1, buffer.capacity()));
+        } finally {
+            raf.close();
+        }
+    }
+
+    /**
+     * 查找或登记流序号，并检查剩余空间（包含流定义记录和结束标记）
+     * @return 流序号，空间不足或流过多时返回-1
+     */
+    private int streamIndex(String streamID, int recordSize) {
+        String id = streamID != null ? streamID : "";
+        for (int i = 0; i < streamCount; i++) {
+            String known = streams[i];
+            if (known == id || known.equals(id)) {
+                return reserve(recordSize) ? i : -1;
+            }
+        }
+        if (streamCount >= MAX_STREAMS) {
+            droppedCount.incrementAndGet();
+            return -1;
+        }
+        byte[] name = id.getBytes(StandardCharsets.UTF_8);
+        if (!reserve(recordSize + 4 + name.length)) {
+            return -1;
+        }
+        int index = streamCount++;
+        streams[index] = id;
+        buffer.put(TYPE_STREAM);
+        buffer.put((byte) index);
+        buffer.putShort((short) name.length);
+        buffer.put(name);
+        return index;
+    }
+
+    private boolean reserve(int size) {
+        // 保留1字节给结束标记
+        if (buffer.remaining() < size + 1) {
+            droppedCount.incrementAndGet();
+            return false;
+        }
+        return true;
+    }
+
+    private static int planeLength(ByteBuffer[] data, int[] dataLength, int index) {
+        ByteBuffer plane = data[index];
+        if (plane == null) {
+            return 0;
+        }
+        int length = dataLength != null && index < dataLength.length ? dataLength[index] : plane.remaining();
+        return Math.max(0, Math.min(length, plane.remaining()));
+    }
+
+    // ==================== 统计 ====================
+
+    public long getFrameCount() {
+        return frameCount.get();
+    }
+
+    public long getSEICount() {
+        return seiCount.get();
+    }
+
+    /**
+     * 因文件写满而未写入的记录数
+     */
+    public long getDroppedCount() {
+        return droppedCount.get();
+    }
+
+    public String statsToString() {
+        return "frames=" + frameCount.get() + ", sei=" + seiCount.get() + ", dropped=" + droppedCount.get();
+    }
+}
@@ -0,0 +1,436 @@
+package com.example.zegodigitalhumanquickstart.render;
+
+import android.util.Log;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+import im.zego.zegoexpress.constants.ZegoVideoFrameFormat;
+import im.zego.zegoexpress.entity.ZegoVideoFrameParam;
+
+/**
+ * 视频帧流水线（可选）
+ * 在 Express 渲染回调线程与数字人SDK之间加入一个有界、无锁的视频帧环形队列，
+ * 由独立线程把帧交给数字人SDK，SDK偶发卡顿时不会阻塞RTC解码线程
+ * - 视频帧：单生产者（渲染回调线程）；出队通过 CAS 推进 head 认领槽位，生产端丢弃最旧帧时同样以 CAS 认领，
+ *   每个槽位只会被一方认领并归还缓冲区
+ * - SEI：独立的无界队列，入队永不阻塞、永不丢弃；与视频帧共用递增序号，消费端按序号合并，顺序与到达顺序一致
+ * - 停止后由消费线程退出时清空队列；停止后才入队的生产者发现已停止时自行清空
+ * 注意：Express回调中的帧数据只在回调期间有效，入队时会复制到从平面缓冲池租用的direct ByteBuffer，
+ * 出队处理（或跳过）后归还；缓冲池超出预算时丢弃该帧
+ */
+public final class ZegoQuickStartFramePipeline {
+
+    private static final String TAG = "ZegoQuickStartFramePipeline";
+    private static final int PLANE_COUNT = 4;
+    private static final long BLOCK_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(200);
+    private static final long STOP_JOIN_MS = 500;
+
+    /**
+     * 队列满时的处理策略
+     */
+    public enum Policy {
+        /** 丢弃队列中最旧的帧给新帧腾出位置；消费端只渲染队列中最新的一帧，跳过过期帧 */
+        LATEST_WINS,
+        /** 生产端等待队列空位 */
+        BLOCK,
+        /** 丢弃新帧，并继续跳过之后的N帧，给消费端追赶时间 */
+        SKIP_N
+    }
+
+    /**
+     * 出队后的处理者，在流水线线程调用
+     */
+    public interface Sink {
+        void onFrame(ByteBuffer[] data, int[] dataLength, ZegoVideoFrameParam param, String streamID);
+
+        void onSEI(String streamID, byte[] data);
+    }
+
+    /**
+     * 视频帧槽位，平面缓冲区在入队时租用、出队后归还
+     * 队列中的槽位只由生产端写入；认领方先把内容复制到自己的 Slot 再 CAS，成功后才使用
+     */
+    private static final class Slot {
+        long seq;
+        String streamId;
+        long enqueueNanos;
+        final ZegoQuickStartPlaneBufferPool.Lease[] leases = new ZegoQuickStartPlaneBufferPool.Lease[PLANE_COUNT];
+        final ByteBuffer[] planes = new ByteBuffer[PLANE_COUNT];
+        final int[] planeLengths = new int[PLANE_COUNT];
+        final ZegoVideoFrameParam param = new ZegoVideoFrameParam();
+    }
+
+    private static final class SEI {
+        final long seq;
+        final String streamId;
+        final byte[] data;
+
+        SEI(long seq, String streamId, byte[] data) {
+            this.seq = seq;
+            this.streamId = streamId;
+            this.data = data;
+        }
+    }
+
+    private final Slot[] slots;
+    private final int mask;
+    private final Policy policy;
+    private final int skipCount;
+    private final long lateThresholdNanos;
+    private final Sink sink;
+    private final ZegoQuickStartPlaneBufferPool bufferPool;
+    private final ConcurrentLinkedQueue<SEI> seiQueue = new ConcurrentLinkedQueue<>();
+    private final AtomicLong sequence = new AtomicLong();
+
+    // 生产者写 tail；head 由消费者和丢弃最旧帧的生产者以 CAS 推进
+    private final AtomicLong head = new AtomicLong();
+    private final AtomicLong tail = new AtomicLong();
+
+    private final AtomicLong enqueuedCount = new AtomicLong();
+    private final AtomicLong droppedCount = new AtomicLong();
+    private final AtomicLong lateCount = new AtomicLong();
+    private final AtomicLong deliveredCount = new AtomicLong();
+
+    private volatile boolean running;
+    private volatile Thread consumerThread;
+    private int skipRemaining;                   // 仅生产者线程访问
+    private final Slot producerScratch = new Slot();  // 仅生产者线程访问，用于丢弃最旧帧
+
+    /**
+     * @param capacity        视频帧队列容量，会向上取整为2的幂
+     * @param policy          队列满时的策略
+     * @param skipCount       SKIP_N 策略下额外跳过的帧数
+     * @param lateThresholdMs 帧在队列中停留超过该时长记为迟到
+     * @param sink            出队处理者
+     * @param bufferPool      平面缓冲池
+     */
+    public ZegoQuickStartFramePipeline(int capacity, Policy policy, int skipCount, long lateThresholdMs, Sink sink,
+                                       ZegoQuickStartPlaneBufferPool bufferPool) {
+        int size = Integer.highestOneBit(Math.max(2, capacity) - 1) << 1;
+        this.slots = new Slot[size];
+        for (int i = 0; i < size; i++) {
+            slots[i] = new Slot();
+        }
+        this.mask = size - 1;
+        this.policy = policy != null ? policy : Policy.LATEST_WINS;
+        this.skipCount = Math.max(0, skipCount);
+        this.lateThresholdNanos = TimeUnit.MILLISECONDS.toNanos(lateThresholdMs);
+        this.sink = sink;
+        this.bufferPool = bufferPool;
+    }
+
+    /**
+     * 启动流水线线程
+     */
+    public synchronized void start() {
+        if (running) {
+            return;
+        }
+        running = true;
+        Thread thread = new Thread(this::consumeLoop, "zego-frame-pipeline");
+        thread.setPriority(Thread.MAX_PRIORITY);
+        consumerThread = thread;
+        thread.start();
+        Log.d(TAG, "[渲染] 帧流水线已启动: capacity=" + slots.length + ", policy=" + policy);
+    }
+
+    /**
+     * 停止流水线线程，队列中未处理的数据会被丢弃
+     * 清空由消费线程退出时完成；数字人SDK卡住导致等待超时时直接返回，消费线程处理完当前帧后再清空
+     */
+    public synchronized void stop() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        Thread thread = consumerThread;
+        consumerThread = null;
+        if (thread != null) {
+            LockSupport.unpark(thread);
+            try {
+                thread.join(STOP_JOIN_MS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            if (thread.isAlive()) {
+                Log.w(TAG, "[渲染] 帧流水线线程仍在处理，退出时清空队列");
+            }
+        }
+        Log.d(TAG, "[渲染] 帧流水线已停止: " + statsToString() + ", 缓冲池: " + bufferPool.getStats());
+    }
+
+    public boolean isRunning() {
+        return running;
+    }
+
+    // ==================== 生产端（Express回调线程） ====================
+
+    /**
+     * 视频帧入队，只能由同一个线程调用
+     * @return 是否入队成功
+     */
+    public boolean offerFrame(ByteBuffer[] data, int[] dataLength, ZegoVideoFrameParam param, String streamID) {
+        if (!running || data == null || param == null) {
+            return false;
+        }
+
+        if (skipRemaining > 0) {
+            skipRemaining--;
+            droppedCount.incrementAndGet();
+            return false;
+        }
+
+        long t = tail.get();
+        while (t - head.get() >= slots.length) {
+            if (policy == Policy.LATEST_WINS) {
+                // 丢弃最旧的帧；与消费端竞争失败说明已有空位
+                dropOldest();
+            } else if (policy == Policy.BLOCK) {
+                if (!awaitSpace(t)) {
+                    return false;
+                }
+            } else {
+                droppedCount.incrementAndGet();
+                skipRemaining = skipCount;
+                return false;
+            }
+        }
+
+        Slot slot = slots[(int) (t & mask)];
+        Arrays.fill(slot.leases, null);
+        int planes = Math.min(PLANE_COUNT, data.length);
+        for (int i = 0; i < PLANE_COUNT; i++) {
+            if (i < planes && data[i] != null) {
+                int length = dataLength != null && i < dataLength.length ? dataLength[i] : data[i].remaining();
+                if (!copyPlane(data[i], length, slot, i)) {
+                    // 缓冲池超出预算
+                    releasePlanes(slot);
+                    droppedCount.incrementAndGet();
+                    return false;
+                }
+            } else {
+                slot.planes[i] = null;
+                slot.planeLengths[i] = 0;
+            }
+        }
+        slot.streamId = streamID;
+        copyParam(param, slot.param);
+        slot.seq = sequence.getAndIncrement();
+        slot.enqueueNanos = System.nanoTime();
+        tail.lazySet(t + 1);
+        enqueuedCount.incrementAndGet();
+        afterPublish();
+        return true;
+    }
+
+    /**
+     * SEI入队，永不阻塞、永不丢弃，可在任意线程调用
+     */
+    public boolean offerSEI(String streamID, byte[] data) {
+        if (!running || data == null) {
+            return false;
+        }
+        seiQueue.offer(new SEI(sequence.getAndIncrement(), streamID, Arrays.copyOf(data, data.length)));
+        enqueuedCount.incrementAndGet();
+        afterPublish();
+        return true;
+    }
+
+    private void afterPublish() {
+        Thread thread = consumerThread;
+        if (thread != null) {
+            LockSupport.unpark(thread);
+        }
+        if (!running) {
+            // 入队期间流水线已停止，消费线程可能已经清空过队列；SEI可能来自其他线程，不使用生产端的临时槽位
+            drain(new Slot());
+        }
+    }
+
+    private boolean awaitSpace(long t) {
+        while (running && t - head.get() >= slots.length) {
+            LockSupport.parkNanos(BLOCK_PARK_NANOS);
+        }
+        return running;
+    }
+
+    private void dropOldest() {
+        long h = head.get();
+        if (claim(h, producerScratch)) {
+            releasePlanes(producerScratch);
+            droppedCount.incrementAndGet();
+        }
+    }
+
+    private static void copyParam(ZegoVideoFrameParam src, ZegoVideoFrameParam dst) {
+        dst.width = src.width;
+        dst.height = src.height;
+        dst.rotation = src.rotation;
+        dst.format = src.format != null ? src.format : ZegoVideoFrameFormat.UNKNOWN;
+        if (dst.strides == null || dst.strides.length < PLANE_COUNT) {
+            dst.strides = new int[PLANE_COUNT];
+        }
+        if (src.strides != null) {
+            System.arraycopy(src.strides, 0, dst.strides, 0, Math.min(PLANE_COUNT, src.strides.length));
+        }
+    }
+
+    /**
+     * 复制一个平面到租用的缓冲区
+     * @return 是否成功，缓冲池超出预算时返回false
+     */
+    private boolean copyPlane(ByteBuffer src, int length, Slot slot, int index) {
+        int oldPosition = src.position();
+        int oldLimit = src.limit();
+        int size = Math.max(0, Math.min(length, oldLimit - oldPosition));
+
+        ZegoQuickStartPlaneBufferPool.Lease lease = bufferPool.acquire(size);
+        if (lease == null) {
+            return false;
+        }
+        ByteBuffer dst = lease.buffer();
+        src.limit(oldPosition + size);
+        dst.put(src);
+        src.limit(oldLimit);
+        src.position(oldPosition);
+        dst.flip();
+        slot.leases[index] = lease;
+        slot.planes[index] = dst;
+        slot.planeLengths[index] = size;
+        return true;
+    }
+
+    private static void releasePlanes(Slot slot) {
+        for (int i = 0; i < PLANE_COUNT; i++) {
+            ZegoQuickStartPlaneBufferPool.Lease lease = slot.leases[i];
+            if (lease != null) {
+                slot.leases[i] = null;
+                lease.release();
+            }
+            slot.planes[i] = null;
+        }
+    }
+
+    // ==================== 认领 ====================
+
+    /**
+     * 认领 head 位置的帧：先把槽位内容复制到 into，再 CAS 推进 head
+     * head 未变化期间生产端不会写该槽位，因此 CAS 成功时复制的内容完整有效；失败时丢弃复制结果
+     *
+     * @return 是否认领成功，成功后 into 中的缓冲区归调用方所有
+     */
+    private boolean claim(long h, Slot into) {
+        if (h >= tail.get()) {
+            return false;
+        }
+        Slot slot = slots[(int) (h & mask)];
+        into.seq = slot.seq;
+        into.streamId = slot.streamId;
+        into.enqueueNanos = slot.enqueueNanos;
+        copyParam(slot.param, into.param);
+        for (int i = 0; i < PLANE_COUNT; i++) {
+            into.leases[i] = slot.leases[i];
+            into.planes[i] = slot.planes[i];
+            into.planeLengths[i] = slot.planeLengths[i];
+        }
+        if (head.compareAndSet(h, h + 1)) {
+            return true;
+        }
+        Arrays.fill(into.leases, null);
+        Arrays.fill(into.planes, null);
+        return false;
+    }
+
+    /**
+     * 清空队列并归还缓冲区；以 CAS 认领，可与另一方同时调用
+     */
+    private void drain(Slot scratch) {
+        long h;
+        while ((h = head.get()) < tail.get()) {
+            if (claim(h, scratch)) {
+                releasePlanes(scratch);
+            }
+        }
+        seiQueue.clear();
+    }
+
+    // ==================== 消费端（流水线线程） ====================
+
+    private void consumeLoop() {
+        Slot current = new Slot();
+        while (running) {
+            long h = head.get();
+            long t = tail.get();
+            SEI sei = seiQueue.peek();
+            // head 只增不减：认领成功说明读取序号到 CAS 期间 head 一直是 h，槽位未被覆盖，序号有效
+            long frameSeq = h < t ? slots[(int) (h & mask)].seq : Long.MAX_VALUE;
+
+            try {
+                if (sei != null && sei.seq < frameSeq) {
+                    seiQueue.poll();
+                    sink.onSEI(sei.streamId, sei.data);
+                    continue;
+                }
+                if (h >= t) {
+                    LockSupport.park(this);
+                    continue;
+                }
+                if (!claim(h, current)) {
+                    // 最旧帧已被生产端丢弃
+                    continue;
+                }
+                if (policy == Policy.LATEST_WINS && t - h > 1) {
+                    // 后面还有更新的帧，跳过这一帧，SEI仍按顺序处理
+                    droppedCount.incrementAndGet();
+                } else {
+                    if (System.nanoTime() - current.enqueueNanos > lateThresholdNanos) {
+                        lateCount.incrementAndGet();
+                    }
+                    sink.onFrame(current.planes, current.planeLengths, current.param, current.streamId);
+                    deliveredCount.incrementAndGet();
+                }
+            } catch (Exception e) {
+                Log.e(TAG, "[渲染] 帧流水线处理失败", e);
+            } finally {
+                releasePlanes(current);
+            }
+        }
+        drain(current);
+    }
+
+    // ==================== 统计 ====================
+
+    public long getEnqueuedCount() {
+        return enqueuedCount.get();
+    }
+
+    /**
+     * 丢弃的帧数（包括队列满时丢弃的最旧帧、SKIP_N跳过、LATEST_WINS消费端跳过的过期帧、缓冲池超出预算）
+     */
+    public long getDroppedCount() {
+        return droppedCount.get();
+    }
+
+    /**
+     * 出队时在队列中停留超过阈值的帧数
+     */
+    public long getLateCount() {
+        return lateCount.get();
+    }
+
+    public long getDeliveredCount() {
+        return deliveredCount.get();
+    }
+
+    public String statsToString() {
+        return "enqueued=" + enqueuedCount.get() +
+                ", delivered=" + deliveredCount.get() +
+                ", dropped=" + droppedCount.get() +
+                ", late=" + lateCount.get();
+    }
+}
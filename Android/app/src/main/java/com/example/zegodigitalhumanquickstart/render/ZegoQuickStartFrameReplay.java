@@ -0,0 +1,220 @@
+package com.example.zegodigitalhumanquickstart.render;
+
+import com.example.zegodigitalhumanquickstart.metrics.ZegoQuickStartLatencyHistogram;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import im.zego.zegoexpress.constants.ZegoVideoFrameFormat;
+import im.zego.zegoexpress.entity.ZegoVideoFrameParam;
+
+/**
+ * 视频帧/SEI回放
+ * 读取 {@link ZegoQuickStartFrameCapture} 采集的文件，按原始时间间隔或尽可能快地把视频帧和SEI交给
+ * {@link ZegoQuickStartFramePipeline.Sink}，与 Express 回调走同一条转发代码（会话宿主、转发桥或帧流水线）
+ * - 平面数据复制到复用的 direct ByteBuffer 后再回调，与 Express 回调的缓冲区形式一致，复制不计入耗时
+ * - 统计每次回调的耗时分布和总吞吐
+ * 只依赖 java.* 和 Express 帧参数类，可在本地 JVM 单元测试中回放（数字人SDK可用桩实现替代）
+ * 在调用线程同步回放，不能在主线程调用
+ */
+public final class ZegoQuickStartFrameReplay {
+
+    private final File file;
+    private final ByteBuffer[] planes = new ByteBuffer[ZegoQuickStartFrameCapture.PLANE_COUNT];
+    private final int[] planeLengths = new int[ZegoQuickStartFrameCapture.PLANE_COUNT];
+    private final ZegoVideoFrameParam param = new ZegoVideoFrameParam();
+    private final String[] streams = new String[256];
+    private volatile boolean cancelled;
+
+    /**
+     * 回放结果
+     */
+    public static final class Result {
+        private final long frameCount;
+        private final long seiCount;
+        private final long elapsedNanos;
+        private final ZegoQuickStartLatencyHistogram.Snapshot frameCost;
+        private final ZegoQuickStartLatencyHistogram.Snapshot seiCost;
+
+        Result(long frameCount, long seiCount, long elapsedNanos,
+               ZegoQuickStartLatencyHistogram.Snapshot frameCost, ZegoQuickStartLatencyHistogram.Snapshot seiCost) {
+            this.frameCount = frameCount;
+            this.seiCount = seiCount;
+            this.elapsedNanos = elapsedNanos;
+            this.frameCost = frameCost;
+            this.seiCost = seiCost;
+        }
+
+        public long getFrameCount() {
+            return frameCount;
+        }
+
+        public long getSEICount() {
+            return seiCount;
+        }
+
+        public long getElapsedMs() {
+            return TimeUnit.NANOSECONDS.toMillis(elapsedNanos);
+        }
+
+        /**
+         * 回放帧率
+         */
+        public double getFramesPerSecond() {
+            return elapsedNanos > 0 ? frameCount * 1e9 / elapsedNanos : 0;
+        }
+
+        /**
+         * 单帧回调耗时分布
+         */
+        public ZegoQuickStartLatencyHistogram.Snapshot getFrameCost() {
+            return frameCost;
+        }
+
+        /**
+         * 单条SEI回调耗时分布
+         */
+        public ZegoQuickStartLatencyHistogram.Snapshot getSEICost() {
+            return seiCost;
+        }
+
+        @Override
+        public String toString() {
+            return "frames=" + frameCount + ", sei=" + seiCount + ", elapsed=" + getElapsedMs() + "ms"
+                    + ", fps=" + Math.round(getFramesPerSecond())
+                    + ", frameCost={" + frameCost + "}, seiCost={" + seiCost + "}";
+        }
+    }
+
+    public ZegoQuickStartFrameReplay(File file) {
+        this.file = file;
+        param.strides = new int[ZegoQuickStartFrameCapture.PLANE_COUNT];
+    }
+
+    /**
+     * 回放整个文件
+     *
+     * @param sink     接收视频帧和SEI，与 Express 回调走同一条代码
+     * @param realtime true 按采集时的时间间隔回放；false 尽可能快地回放
+     */
+    public Result replay(ZegoQuickStartFramePipeline.Sink sink, boolean realtime) throws IOException {
+        cancelled = false;
+        ZegoQuickStartLatencyHistogram frameCost = new ZegoQuickStartLatencyHistogram();
+        ZegoQuickStartLatencyHistogram seiCost = new ZegoQuickStartLatencyHistogram();
+        long frames = 0;
+        long seis = 0;
+
+        try (RandomAccessFile raf = new RandomAccessFile(file, "r");
+             FileChannel channel = raf.getChannel()) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            buffer.order(ByteOrder.LITTLE_ENDIAN);
+            readHeader(buffer);
+
+            ZegoVideoFrameFormat[] formats = ZegoVideoFrameFormat.values();
+            long startNanos = System.nanoTime();
+            while (!cancelled && buffer.remaining() > 0) {
+                byte type = buffer.get();
+                if (type == ZegoQuickStartFrameCapture.TYPE_END) {
+                    break;
+                }
+                if (type == ZegoQuickStartFrameCapture.TYPE_STREAM) {
+                    int index = buffer.get() & 0xFF;
+                    byte[] name = new byte[buffer.getShort() & 0xFFFF];
+                    buffer.get(name);
+                    streams[index] = new String(name, StandardCharsets.UTF_8);
+                    continue;
+                }
+
+                String streamID = streams[buffer.get() & 0xFF];
+                long offsetNanos = buffer.getLong();
+                if (type == ZegoQuickStartFrameCapture.TYPE_FRAME) {
+                    int format = buffer.get() & 0xFF;
+                    param.format = format < formats.length ? formats[format] : ZegoVideoFrameFormat.UNKNOWN;
+                    param.rotation = buffer.getShort();
+                    param.width = buffer.getInt();
+                    param.height = buffer.getInt();
+                    readPlanes(buffer);
+                    if (realtime) {
+                        waitUntil(startNanos + offsetNanos);
+                    }
+                    long begin = System.nanoTime();
+                    sink.onFrame(planes, planeLengths, param, streamID);
+                    frameCost.recordNanos(System.nanoTime() - begin);
+                    frames++;
+                } else if (type == ZegoQuickStartFrameCapture.TYPE_SEI) {
+                    byte[] data = new byte[buffer.getInt()];
+                    buffer.get(data);
+                    if (realtime) {
+                        waitUntil(startNanos + offsetNanos);
+                    }
+                    long begin = System.nanoTime();
+                    sink.onSEI(streamID, data);
+                    seiCost.recordNanos(System.nanoTime() - begin);
+                    seis++;
+                } else {
+                    throw new IOException("未知记录类型: " + type + " @" + (buffer.position() - 10));
+                }
+            }
+            return new Result(frames, seis, System.nanoTime() - startNanos, frameCost.snapshot(), seiCost.snapshot());
+        }
+    }
+
+    /**
+     * 取消进行中的回放，当前记录处理完后返回
+     */
+    public void cancel() {
+        cancelled = true;
+    }
+
+    private static void readHeader(ByteBuffer buffer) throws IOException {
+        if (buffer.remaining() < ZegoQuickStartFrameCapture.HEADER_SIZE
+                || buffer.getInt() != ZegoQuickStartFrameCapture.MAGIC) {
+            throw new IOException("不是视频帧采集文件");
+        }
+        int version = buffer.getInt();
+        if (version != ZegoQuickStartFrameCapture.VERSION) {
+            throw new IOException("不支持的采集文件版本: " + version);
+        }
+        buffer.getLong();  // 采集起始时间
+    }
+
+    private void readPlanes(ByteBuffer buffer) {
+        int count = buffer.get() & 0xFF;
+        for (int i = 0; i < ZegoQuickStartFrameCapture.PLANE_COUNT; i++) {
+            if (i >= count) {
+                param.strides[i] = 0;
+                planeLengths[i] = 0;
+                continue;
+            }
+            param.strides[i] = buffer.getInt();
+            int length = buffer.getInt();
+            ByteBuffer plane = planes[i];
+            if (plane == null || plane.capacity() < length) {
+                plane = ByteBuffer.allocateDirect(length);
+                planes[i] = plane;
+            }
+            plane.clear();
+            int oldLimit = buffer.limit();
+            buffer.limit(buffer.position() + length);
+            plane.put(buffer);
+            buffer.limit(oldLimit);
+            plane.flip();
+            planeLengths[i] = length;
+        }
+    }
+
+    private void waitUntil(long deadlineNanos) {
+        long remaining;
+        while (!cancelled && (remaining = deadlineNanos - System.nanoTime()) > 0) {
+            LockSupport.parkNanos(remaining);
+        }
+    }
+}
@@ -0,0 +1,317 @@
+package com.example.zegodigitalhumanquickstart.render;
+
+import android.content.ComponentCallbacks2;
+import android.content.Context;
+import android.content.res.Configuration;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+
+import com.example.zegodigitalhumanquickstart.ZegoQuickStartConstants;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 视频平面 direct ByteBuffer 池
+ * 需要在 Express 回调之外持有帧数据时（帧流水线、快照等）从池中租用缓冲区，避免每帧重新分配（大图模式 I420 约 1MB/帧）：
+ * - 按 2 的幂分级（4KB ~ 8MB），同级缓冲区复用；超过最大级别的请求单独分配，归还后不保留
+ * - 租约带引用计数，可交给多个处理者共享，最后一个 release 后归还
+ * - 池分配的总字节数（租出 + 空闲）有上限，超出时先淘汰空闲缓冲区，仍不足则租用失败，调用方应丢弃该帧
+ * - 界面不可见或进入后台（onTrimMemory UI_HIDDEN/BACKGROUND）时释放空闲缓冲区
+ * 租用和归还可在任意线程调用，临界区只做队列操作，分配在锁外进行
+ */
+public final class ZegoQuickStartPlaneBufferPool implements ComponentCallbacks2 {
+
+    private static final String TAG = "ZegoQuickStartPlaneBufferPool";
+    private static final int MIN_SHIFT = 12;  // 4KB
+    private static final int MAX_SHIFT = 23;  // 8MB
+    private static final int CLASS_COUNT = MAX_SHIFT - MIN_SHIFT + 1;
+    private static final int UNPOOLED = -1;
+
+    private static ZegoQuickStartPlaneBufferPool instance;
+
+    private final long budgetBytes;
+    @SuppressWarnings("unchecked")
+    private final ArrayDeque<Lease>[] idle = new ArrayDeque[CLASS_COUNT];
+
+    // 以下字段由 this 保护
+    private long allocatedBytes;  // 租出 + 空闲
+    private long idleBytes;
+    private long peakBytes;
+    private int outstanding;
+    private long hits;
+    private long misses;
+    private long rejected;
+    private long trimmedBytes;
+
+    /**
+     * 缓冲区租约，持有期间缓冲区归调用方独占（或在共享者之间只读）
+     */
+    public static final class Lease {
+        private final ZegoQuickStartPlaneBufferPool pool;
+        private final ByteBuffer buffer;
+        private final int sizeClass;
+        private final AtomicInteger refCount = new AtomicInteger();
+
+        Lease(ZegoQuickStartPlaneBufferPool pool, ByteBuffer buffer, int sizeClass) {
+            this.pool = pool;
+            this.buffer = buffer;
+            this.sizeClass = sizeClass;
+        }
+
+        /**
+         * 租用的缓冲区，position 为0，limit 为请求的长度
+         */
+        public ByteBuffer buffer() {
+            return buffer;
+        }
+
+        /**
+         * 增加一个持有者
+         */
+        public Lease retain() {
+            if (refCount.getAndIncrement() <= 0) {
+                refCount.getAndDecrement();
+                throw new IllegalStateException("租约已归还");
+            }
+            return this;
+        }
+
+        /**
+         * 释放一个持有者，最后一个释放后缓冲区归还池中，之后不能再访问
+         */
+        public void release() {
+            int count = refCount.decrementAndGet();
+            if (count == 0) {
+                pool.recycle(this);
+            } else if (count < 0) {
+                refCount.incrementAndGet();
+                throw new IllegalStateException("租约重复归还");
+            }
+        }
+
+        int capacity() {
+            return buffer.capacity();
+        }
+    }
+
+    /**
+     * 池统计快照
+     */
+    public static final class Stats {
+        private final long hits;
+        private final long misses;
+        private final long rejected;
+        private final int outstanding;
+        private final long allocatedBytes;
+        private final long idleBytes;
+        private final long peakBytes;
+        private final long trimmedBytes;
+
+        Stats(long hits, long misses, long rejected, int outstanding, long allocatedBytes,
+              long idleBytes, long peakBytes, long trimmedBytes) {
+            this.hits = hits;
+            this.misses = misses;
+            this.rejected = rejected;
+            this.outstanding = outstanding;
+            this.allocatedBytes = allocatedBytes;
+            this.idleBytes = idleBytes;
+            this.peakBytes = peakBytes;
+            this.trimmedBytes = trimmedBytes;
+        }
+
+        /**
+         * 复用空闲缓冲区的次数
+         */
+        public long getHits() {
+            return hits;
+        }
+
+        /**
+         * 需要新分配的次数（包括超出预算被拒绝的）
+         */
+        public long getMisses() {
+            return misses;
+        }
+
+        /**
+         * 超出预算租用失败的次数
+         */
+        public long getRejected() {
+            return rejected;
+        }
+
+        /**
+         * 未归还的租约数
+         */
+        public int getOutstanding() {
+            return outstanding;
+        }
+
+        public long getAllocatedBytes() {
+            return allocatedBytes;
+        }
+
+        public long getIdleBytes() {
+            return idleBytes;
+        }
+
+        /**
+         * 池分配字节数（租出 + 空闲）的峰值
+         */
+        public long getPeakBytes() {
+            return peakBytes;
+        }
+
+        /**
+         * 因预算或内存紧张淘汰的空闲字节数
+         */
+        public long getTrimmedBytes() {
+            return trimmedBytes;
+        }
+
+        @Override
+        public String toString() {
+            return "hits=" + hits + ", misses=" + misses + ", rejected=" + rejected +
+                    ", outstanding=" + outstanding + ", allocatedKB=" + allocatedBytes / 1024 +
+                    ", idleKB=" + idleBytes / 1024 + ", peakKB=" + peakBytes / 1024 +
+                    ", trimmedKB=" + trimmedBytes / 1024;
+        }
+    }
+
+    /**
+     * @param budgetBytes 池分配的总字节数上限
+     */
+    public ZegoQuickStartPlaneBufferPool(long budgetBytes) {
+        this.budgetBytes = budgetBytes;
+        for (int i = 0; i < CLASS_COUNT; i++) {
+            idle[i] = new ArrayDeque<>();
+        }
+    }
+
+    /**
+     * 进程共享的池，首次获取时注册内存紧张回调
+     */
+    public static synchronized ZegoQuickStartPlaneBufferPool getInstance(Context context) {
+        if (instance == null) {
+            instance = new ZegoQuickStartPlaneBufferPool(ZegoQuickStartConstants.PLANE_POOL_BUDGET_BYTES);
+            context.getApplicationContext().registerComponentCallbacks(instance);
+        }
+        return instance;
+    }
+
+    /**
+     * 租用至少 size 字节的 direct ByteBuffer
+     *
+     * @return 租约，超出预算时返回null
+     */
+    public Lease acquire(int size) {
+        int sizeClass = sizeClassOf(size);
+        int capacity = sizeClass == UNPOOLED ? size : 1 << (MIN_SHIFT + sizeClass);
+        synchronized (this) {
+            Lease lease = sizeClass == UNPOOLED ? null : idle[sizeClass].pollLast();
+            if (lease != null) {
+                idleBytes -= capacity;
+                hits++;
+                outstanding++;
+                return activate(lease, size);
+            }
+            misses++;
+            long over = allocatedBytes + capacity - budgetBytes;
+            if (over > 0) {
+                evictIdle(over);
+                if (allocatedBytes + capacity > budgetBytes) {
+                    rejected++;
+                    return null;
+                }
+            }
+            allocatedBytes += capacity;
+            peakBytes = Math.max(peakBytes, allocatedBytes);
+            outstanding++;
+        }
+        return activate(new Lease(this, ByteBuffer.allocateDirect(capacity), sizeClass), size);
+    }
+
+    private static Lease activate(Lease lease, int size) {
+        lease.buffer.clear();
+        lease.buffer.limit(size);
+        lease.refCount.set(1);
+        return lease;
+    }
+
+    private synchronized void recycle(Lease lease) {
+        outstanding--;
+        int capacity = lease.capacity();
+        if (lease.sizeClass == UNPOOLED) {
+            allocatedBytes -= capacity;
+            return;
+        }
+        idle[lease.sizeClass].addLast(lease);
+        idleBytes += capacity;
+    }
+
+    /**
+     * 淘汰空闲缓冲区，从最大的级别开始，直到释放至少 bytes 字节
+     */
+    private void evictIdle(long bytes) {
+        long freed = 0;
+        for (int i = CLASS_COUNT - 1; i >= 0 && freed < bytes; i--) {
+            ArrayDeque<Lease> queue = idle[i];
+            while (!queue.isEmpty() && freed < bytes) {
+                freed += queue.pollFirst().capacity();
+            }
+        }
+        allocatedBytes -= freed;
+        idleBytes -= freed;
+        trimmedBytes += freed;
+    }
+
+    /**
+     * 释放空闲缓冲区
+     * @param keepRatio 保留的空闲字节比例（0-1）
+     */
+    public synchronized void trim(double keepRatio) {
+        long before = idleBytes;
+        evictIdle(idleBytes - (long) (idleBytes * keepRatio));
+        Log.d(TAG, "[缓冲池] 释放空闲(KB): " + (before - idleBytes) / 1024 + ", " + getStats());
+    }
+
+    public synchronized Stats getStats() {
+        return new Stats(hits, misses, rejected, outstanding, allocatedBytes, idleBytes, peakBytes, trimmedBytes);
+    }
+
+    private static int sizeClassOf(int size) {
+        if (size <= 1 << MIN_SHIFT) {
+            return 0;
+        }
+        int shift = 32 - Integer.numberOfLeadingZeros(size - 1);
+        return shift > MAX_SHIFT ? UNPOOLED : shift - MIN_SHIFT;
+    }
+
+    // ==================== 内存紧张 ====================
+
+    @Override
+    public void onTrimMemory(int level) {
+        // compileSdk 36 起 RUNNING_* 级别和 onLowMemory 已废弃，只在界面不可见或进入后台时释放
+        // 界面不可见时（仅音频播放）不需要视频帧，后台更不需要，都不再保留空闲缓冲区
+        if (level >= TRIM_MEMORY_UI_HIDDEN) {
+            trim(0);
+        }
+    }
+
+    /**
+     * 已废弃的回调，系统内存紧张时改由 onTrimMemory 处理
+     */
+    @Deprecated
+    @Override
+    public void onLowMemory() {
+        // 无需处理
+    }
+
+    @Override
+    public void onConfigurationChanged(@NonNull Configuration newConfig) {
+        // 无需处理
+    }
+}
@@ -0,0 +1,223 @@
+package com.example.zegodigitalhumanquickstart.session;
+
+import android.os.SystemClock;
+import android.util.Log;
+
+import com.example.zegodigitalhumanquickstart.ZegoQuickStartConstants;
+import com.example.zegodigitalhumanquickstart.metrics.ZegoQuickStartLatencyHistogram;
+
+import java.util.Locale;
+
+import im.zego.zegoexpress.ZegoExpressEngine;
+
+/**
+ * 拉流缓冲区自适应控制
+ * 采样远端视频帧和SEI的到达间隔抖动（与平滑后的平均间隔之差），按目标分位数持续调整每条流的
+ * setPlayStreamBufferIntervalRange：
+ * - 最小缓冲 = 窗口内抖动的目标分位数 × 倍数，丢包较多时额外放大以容纳重传
+ * - 最大缓冲 = 最小缓冲的若干倍，保证弱网下仍有足够的调整空间
+ * - 变化超过一定比例才重新设置，避免频繁调整
+ * 同时统计端到端延迟（拉流质量回调的 peerToPeerDelay + delay）
+ * 帧到达在渲染线程记录，无锁无分配；调整在质量回调线程进行
+ */
+public class ZegoQuickStartJitterBufferController {
+
+    private static final String TAG = "ZegoQuickStartJitterBufferController";
+    private static final int EWMA_SHIFT = 4;  // 平均间隔平滑系数 1/16
+
+    private final ZegoQuickStartLatencyHistogram windowJitter = new ZegoQuickStartLatencyHistogram();
+    private final ZegoQuickStartLatencyHistogram totalJitter = new ZegoQuickStartLatencyHistogram();
+    private final ZegoQuickStartLatencyHistogram glassToGlass = new ZegoQuickStartLatencyHistogram();
+
+    private volatile StreamState stream;
+
+    /**
+     * 单条流的采样和缓冲区状态
+     */
+    private static final class StreamState {
+        final String streamId;
+        final ArrivalTracker frames = new ArrivalTracker();
+        final ArrivalTracker sei = new ArrivalTracker();
+        volatile int minBufferMs = ZegoQuickStartConstants.JITTER_BUFFER_INITIAL_MIN_MS;
+        volatile int maxBufferMs = ZegoQuickStartConstants.JITTER_BUFFER_INITIAL_MAX_MS;
+        long lastRetuneAt = SystemClock.elapsedRealtime();
+
+        StreamState(String streamId) {
+            this.streamId = streamId;
+        }
+    }
+
+    /**
+     * 到达间隔跟踪，只在单一线程写入
+     */
+    private static final class ArrivalTracker {
+        long lastArrivalNanos;
+        long avgIntervalNanos;
+
+        /**
+         * @return 本次间隔相对平均间隔的偏差（纳秒），无法计算时返回-1
+         */
+        long onArrival(long now) {
+            long last = lastArrivalNanos;
+            lastArrivalNanos = now;
+            if (last == 0) {
+                return -1;
+            }
+            long interval = now - last;
+            if (interval > ZegoQuickStartConstants.JITTER_MAX_INTERVAL_MS * 1_000_000L) {
+                // 间隔过长视为中断（如切到仅音频），重新开始
+                avgIntervalNanos = 0;
+                return -1;
+            }
+            if (avgIntervalNanos == 0) {
+                avgIntervalNanos = interval;
+                return -1;
+            }
+            avgIntervalNanos += (interval - avgIntervalNanos) >> EWMA_SHIFT;
+            return Math.abs(interval - avgIntervalNanos);
+        }
+
+        void reset() {
+            lastArrivalNanos = 0;
+            avgIntervalNanos = 0;
+        }
+    }
+
+    /**
+     * 开始拉流时调用，设置初始缓冲区并开始采样
+     */
+    public void onPlayStarted(ZegoExpressEngine engine, String streamId) {
+        StreamState state = new StreamState(streamId);
+        stream = state;
+        windowJitter.reset();
+        engine.setPlayStreamBufferIntervalRange(streamId, state.minBufferMs, state.maxBufferMs);
+        Log.d(TAG, "[缓冲] 初始缓冲区: " + streamId + " [" + state.minBufferMs + ", " + state.maxBufferMs + "]ms");
+    }
+
+    /**
+     * 视频帧到达（渲染线程）
+     */
+    public void onFrameArrived(String streamId) {
+        StreamState state = stream;
+        if (state != null && state.streamId.equals(streamId)) {
+            record(state.frames.onArrival(System.nanoTime()));
+        }
+    }
+
+    /**
+     * SEI到达（RTC回调线程）
+     */
+    public void onSEIArrived(String streamId) {
+        StreamState state = stream;
+        if (state != null && state.streamId.equals(streamId)) {
+            record(state.sei.onArrival(System.nanoTime()));
+        }
+    }
+
+    /**
+     * 到达不连续时调用（如切换仅音频），避免把中断时长计为抖动
+     */
+    public void resetArrivals() {
+        StreamState state = stream;
+        if (state != null) {
+            state.frames.reset();
+            state.sei.reset();
+        }
+    }
+
+    /**
+     * 拉流质量回调：记录端到端延迟，按窗口抖动调整缓冲区
+     *
+     * @param peerToPeerDelay 推流端到拉流端的延迟（毫秒）
+     * @param playDelay       拉流端接收到播放的延迟（毫秒）
+     * @param packetLostRate  丢包率（0-1）
+     */
+    public void onPlayerQuality(String streamId, int peerToPeerDelay, int playDelay, double packetLostRate) {
+        StreamState state = stream;
+        if (state == null || !state.streamId.equals(streamId)) {
+            return;
+        }
+        if (peerToPeerDelay > 0) {
+            glassToGlass.recordNanos((peerToPeerDelay + Math.max(0, playDelay)) * 1_000_000L);
+        }
+
+        long now = SystemClock.elapsedRealtime();
+        if (now - state.lastRetuneAt < ZegoQuickStartConstants.JITTER_RETUNE_INTERVAL_MS
+                || windowJitter.getCount() < ZegoQuickStartConstants.JITTER_MIN_SAMPLES) {
+            return;
+        }
+        state.lastRetuneAt = now;
+        double jitterMs = windowJitter.percentileMs(ZegoQuickStartConstants.JITTER_TARGET_PERCENTILE);
+        windowJitter.reset();
+        retune(state, jitterMs, packetLostRate);
+    }
+
+    private void retune(StreamState state, double jitterMs, double packetLostRate) {
+        double target = jitterMs * ZegoQuickStartConstants.JITTER_BUFFER_MULTIPLIER;
+        if (packetLostRate > ZegoQuickStartConstants.JITTER_LOSS_THRESHOLD) {
+            target *= ZegoQuickStartConstants.JITTER_LOSS_BUFFER_FACTOR;
+        }
+        int min = clamp((int) Math.round(target), ZegoQuickStartConstants.JITTER_BUFFER_MIN_FLOOR_MS,
+                ZegoQuickStartConstants.JITTER_BUFFER_MIN_CEIL_MS);
+        int max = clamp(Math.max(min * 4, min + 500), ZegoQuickStartConstants.JITTER_BUFFER_MAX_FLOOR_MS,
+                ZegoQuickStartConstants.JITTER_BUFFER_MAX_CEIL_MS);
+
+        // 变化不足阈值时保持不变
+        if (Math.abs(min - state.minBufferMs) < state.minBufferMs * ZegoQuickStartConstants.JITTER_RETUNE_MIN_CHANGE) {
+            return;
+        }
+        ZegoExpressEngine engine = ZegoExpressEngine.getEngine();
+        if (engine == null || stream != state) {
+            return;
+        }
+        engine.setPlayStreamBufferIntervalRange(state.streamId, min, max);
+        Log.d(TAG, String.format(Locale.US, "[缓冲] 调整缓冲区: %s [%d, %d]ms -> [%d, %d]ms, 抖动p%.0f=%.1fms, 丢包率=%.3f",
+                state.streamId, state.minBufferMs, state.maxBufferMs, min, max,
+                ZegoQuickStartConstants.JITTER_TARGET_PERCENTILE * 100, jitterMs, packetLostRate));
+        state.minBufferMs = min;
+        state.maxBufferMs = max;
+    }
+
+    private void record(long deviationNanos) {
+        if (deviationNanos >= 0) {
+            windowJitter.recordNanos(deviationNanos);
+            totalJitter.recordNanos(deviationNanos);
+        }
+    }
+
+    private static int clamp(int value, int min, int max) {
+        return Math.max(min, Math.min(max, value));
+    }
+
+    // ==================== 统计 ====================
+
+    /**
+     * 当前流的最小缓冲（毫秒），未拉流时返回0
+     */
+    public int getMinBufferMs() {
+        StreamState state = stream;
+        return state != null ? state.minBufferMs : 0;
+    }
+
+    /**
+     * 当前流的最大缓冲（毫秒），未拉流时返回0
+     */
+    public int getMaxBufferMs() {
+        StreamState state = stream;
+        return state != null ? state.maxBufferMs : 0;
+    }
+
+    /**
+     * 到达间隔抖动分布
+     */
+    public ZegoQuickStartLatencyHistogram.Snapshot getJitterSnapshot() {
+        return totalJitter.snapshot();
+    }
+
+    /**
+     * 端到端延迟分布
+     */
+    public ZegoQuickStartLatencyHistogram.Snapshot getGlassToGlassSnapshot() {
+        return glassToGlass.snapshot();
+    }
+}
@@ -0,0 +1,138 @@
+package com.example.zegodigitalhumanquickstart.session;
+
+import android.content.Context;
+import android.net.ConnectivityManager;
+import android.net.Network;
+import android.net.NetworkCapabilities;
+import android.os.Build;
+import android.os.PowerManager;
+import android.os.SystemClock;
+import android.util.Log;
+
+import com.example.zegodigitalhumanquickstart.ZegoQuickStartConstants;
+import com.example.zegodigitalhumanquickstart.model.ZegoQuickStartOutputMode;
+
+import java.util.Locale;
+
+/**
+ * 输出模式治理
+ * 根据拉流期间的实际表现为下一个任务选择输出模式（小图/大图）：
+ * - 解码吞吐：解码帧率 / 接收帧率
+ * - 卡顿：视频卡顿率
+ * - 温控：系统温控状态（Android 10 及以上）
+ * - 下行带宽：系统估计的链路下行带宽
+ * 带迟滞：降级需要连续多个差样本（严重温控立即降级），升级需要更长时间的连续好样本，且两次切换之间有最短间隔
+ * 服务端不支持任务运行中修改输出模式，建议只对之后创建的任务生效
+ */
+public class ZegoQuickStartOutputModeGovernor {
+
+    private static final String TAG = "ZegoQuickStartOutputModeGovernor";
+
+    private final PowerManager powerManager;
+    private final ConnectivityManager connectivityManager;
+
+    private ZegoQuickStartOutputMode recommendedMode = ZegoQuickStartOutputMode.SMALL;
+    private int goodSamples;
+    private int badSamples;
+    private long lastChangeAt = -1;
+
+    public ZegoQuickStartOutputModeGovernor(Context context) {
+        Context appContext = context.getApplicationContext();
+        powerManager = (PowerManager) appContext.getSystemService(Context.POWER_SERVICE);
+        connectivityManager = (ConnectivityManager) appContext.getSystemService(Context.CONNECTIVITY_SERVICE);
+    }
+
+    /**
+     * 下一个任务建议使用的输出模式
+     */
+    public synchronized ZegoQuickStartOutputMode getRecommendedMode() {
+        return recommendedMode;
+    }
+
+    /**
+     * 拉流质量回调（约每3秒一次）
+     *
+     * @param recvFps     视频接收帧率
+     * @param decodeFps   视频解码帧率
+     * @param breakRate   视频卡顿率
+     * @param currentMode 当前任务的输出模式
+     */
+    public synchronized void onPlayerQuality(double recvFps, double decodeFps, double breakRate,
+                                             ZegoQuickStartOutputMode currentMode) {
+        if (recvFps <= 0) {
+            // 未收到视频（如仅音频播放），不作判断
+            return;
+        }
+        int thermalStatus = readThermalStatus();
+        double decodeRatio = decodeFps / recvFps;
+        int downlinkKbps = readDownlinkKbps();
+
+        if (thermalStatus >= PowerManager.THERMAL_STATUS_SEVERE && recommendedMode != ZegoQuickStartOutputMode.SMALL) {
+            change(ZegoQuickStartOutputMode.SMALL, "温控严重: " + thermalStatus);
+            return;
+        }
+
+        boolean bad = decodeRatio < ZegoQuickStartConstants.OUTPUT_MODE_DOWNGRADE_DECODE_RATIO
+                || breakRate > 0
+                || thermalStatus >= PowerManager.THERMAL_STATUS_MODERATE;
+        // 升级的门槛高于降级，两者之间的区间不改变计数方向
+        boolean good = decodeRatio >= ZegoQuickStartConstants.OUTPUT_MODE_UPGRADE_DECODE_RATIO
+                && breakRate <= 0
+                && thermalStatus <= PowerManager.THERMAL_STATUS_LIGHT
+                && (downlinkKbps <= 0 || downlinkKbps >= ZegoQuickStartConstants.DEFAULT_VIDEO_BITRATE_LARGE
+                        * ZegoQuickStartConstants.OUTPUT_MODE_UPGRADE_BANDWIDTH_HEADROOM);
+
+        if (bad) {
+            badSamples++;
+            goodSamples = 0;
+        } else if (good) {
+            goodSamples++;
+            badSamples = 0;
+        }
+
+        if (!canChange()) {
+            return;
+        }
+        if (badSamples >= ZegoQuickStartConstants.OUTPUT_MODE_DOWNGRADE_SAMPLES
+                && recommendedMode == ZegoQuickStartOutputMode.LARGE) {
+            change(ZegoQuickStartOutputMode.SMALL, String.format(Locale.US, "解码比=%.2f, 卡顿率=%.2f, 温控=%d", decodeRatio, breakRate, thermalStatus));
+        } else if (goodSamples >= ZegoQuickStartConstants.OUTPUT_MODE_UPGRADE_SAMPLES
+                && recommendedMode == ZegoQuickStartOutputMode.SMALL
+                && currentMode == ZegoQuickStartOutputMode.SMALL) {
+            // 只根据小图模式下的表现决定是否升级，大图模式下的好样本只说明无需降级
+            change(ZegoQuickStartOutputMode.LARGE, String.format(Locale.US, "解码比=%.2f, 下行带宽=%dkbps", decodeRatio, downlinkKbps));
+        }
+    }
+
+    private boolean canChange() {
+        return lastChangeAt < 0
+                || SystemClock.elapsedRealtime() - lastChangeAt >= ZegoQuickStartConstants.OUTPUT_MODE_MIN_DWELL_MS;
+    }
+
+    private void change(ZegoQuickStartOutputMode mode, String reason) {
+        Log.i(TAG, "[输出模式] " + recommendedMode + " -> " + mode + "（对下一个任务生效）, " + reason);
+        recommendedMode = mode;
+        lastChangeAt = SystemClock.elapsedRealtime();
+        goodSamples = 0;
+        badSamples = 0;
+    }
+
+    private int readThermalStatus() {
+        if (powerManager == null || Build.VERSION.SDK_INT < Build.VERSION_CODES.Q) {
+            return PowerManager.THERMAL_STATUS_NONE;
+        }
+        return powerManager.getCurrentThermalStatus();
+    }
+
+    /**
+     * 系统估计的下行带宽，未知时返回0
+     */
+    private int readDownlinkKbps() {
+        if (connectivityManager == null) {
+            return 0;
+        }
+        Network network = connectivityManager.getActiveNetwork();
+        NetworkCapabilities capabilities = network != null ? connectivityManager.getNetworkCapabilities(network) : null;
+        return capabilities != null ? capabilities.getLinkDownstreamBandwidthKbps() : 0;
+    }
+}
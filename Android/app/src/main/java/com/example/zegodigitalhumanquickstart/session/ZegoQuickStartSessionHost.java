@@ -0,0 +1,763 @@
+package com.example.zegodigitalhumanquickstart.session;
+
+import android.content.Context;
+import android.os.SystemClock;
+import android.util.Log;
+
+import com.example.zegodigitalhumanquickstart.ZegoQuickStartConstants;
+import com.example.zegodigitalhumanquickstart.log.ZegoQuickStartLog;
+import com.example.zegodigitalhumanquickstart.metrics.ZegoQuickStartPlaybackModeMetrics;
+import com.example.zegodigitalhumanquickstart.metrics.ZegoQuickStartSpanRecorder;
+import com.example.zegodigitalhumanquickstart.model.ZegoQuickStartOutputMode;
+import com.example.zegodigitalhumanquickstart.model.ZegoQuickStartTask;
+import com.example.zegodigitalhumanquickstart.network.ZegoQuickStartAPIService;
+import com.example.zegodigitalhumanquickstart.render.ZegoQuickStartFrameBridge;
+import com.example.zegodigitalhumanquickstart.render.ZegoQuickStartFrameCapture;
+import com.example.zegodigitalhumanquickstart.render.ZegoQuickStartFramePipeline;
+import com.example.zegodigitalhumanquickstart.render.ZegoQuickStartFrameReplay;
+import com.example.zegodigitalhumanquickstart.render.ZegoQuickStartPlaneBufferPool;
+import com.example.zegodigitalhumanquickstart.task.ZegoQuickStartStartupPipeline;
+import com.example.zegodigitalhumanquickstart.task.ZegoQuickStartTaskCreateRegistry;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+
+import im.zego.digitalmobile.IZegoDigitalMobile;
+import im.zego.digitalmobile.ZegoDigitalHuman;
+import im.zego.digitalmobile.ZegoDigitalView;
+import im.zego.zegoexpress.ZegoExpressEngine;
+import im.zego.zegoexpress.callback.IZegoCustomVideoRenderHandler;
+import im.zego.zegoexpress.callback.IZegoEventHandler;
+import im.zego.zegoexpress.constants.ZegoUpdateType;
+import im.zego.zegoexpress.constants.ZegoVideoFrameFormat;
+import im.zego.zegoexpress.entity.ZegoPlayStreamQuality;
+import im.zego.zegoexpress.entity.ZegoStream;
+import im.zego.zegoexpress.entity.ZegoVideoFrameParam;
+
+/**
+ * 进程级数字人会话宿主
+ * 持有数字人SDK实例、视频帧转发链路、Express 的渲染/事件回调，以及引擎、房间登录、任务和启动流程的状态，生命周期与进程一致：
+ * - Activity 只负责挂载/卸载自己的 ZegoDigitalView 和接收回调，会话状态都从宿主读写
+ * - 旋转、切换主题等配置变化导致 Activity 重建时，RTC 拉流和数字人渲染不中断；
+ *   启动流程进行中重建时流程继续执行，完成后通知新挂载的界面按宿主状态刷新
+ *   （重新挂载到新视图显示画面的耗时未测量，日志只记录卸载到重新挂载的间隔）
+ * - 界面不可见时切换为仅音频播放：停止拉取远端视频并丢弃视频帧，音频和SEI照常
+ * - 拉流期间监测视频卡顿，需要恢复时通知界面执行（重新拉流、重新登录房间、重新创建任务）
+ */
+public class ZegoQuickStartSessionHost implements IZegoDigitalMobile.ZegoDigitalMobileListener,
+        ZegoQuickStartStallWatchdog.Listener {
+
+    private static final String TAG = "ZegoQuickStartSessionHost";
+
+    private static ZegoQuickStartSessionHost instance;
+
+    private final Context appContext;
+    private final ZegoQuickStartFrameBridge frameBridge = new ZegoQuickStartFrameBridge();
+    private final ZegoQuickStartSpanRecorder spanRecorder = ZegoQuickStartSpanRecorder.getInstance();
+    private IZegoDigitalMobile digitalMobile;
+    private volatile ZegoQuickStartFramePipeline framePipeline;  // 未启用时为null，帧在RTC回调线程直接转交
+    private volatile ZegoQuickStartFrameCapture frameCapture;  // 采集模式下记录收到的视频帧和SEI
+    private volatile String livePlayStreamId;  // 正在拉的流，拉流期间不允许回放
+    private volatile boolean replaying;  // 回放期间丢弃 Express 回调的视频帧和SEI，转发链路只有回放线程一个生产者
+    private volatile Client client;
+    private volatile boolean firstFrameDrawn;
+    private volatile boolean audioOnly;  // 界面不可见，仅播放音频
+    private final ZegoQuickStartPlaybackModeMetrics playbackModeMetrics;
+    private final ZegoQuickStartOutputModeGovernor outputModeGovernor;
+    private final ZegoQuickStartJitterBufferController jitterBufferController = new ZegoQuickStartJitterBufferController();
+    private final ZegoQuickStartStallWatchdog stallWatchdog = new ZegoQuickStartStallWatchdog(this);
+    private volatile ZegoQuickStartOutputMode currentOutputMode = ZegoQuickStartOutputMode.SMALL;
+    private long detachedAt;  // 上次卸载界面的时间，0 表示未卸载过
+
+    // 引擎与房间
+    private boolean engineCreated;
+    private boolean roomLoggedIn;
+
+    // 任务
+    private ZegoQuickStartTask task;
+    private String roomId;
+    private String streamId;
+    private String userId;
+    private String token;
+    private String base64Config;
+    private String playingStreamId;
+    private String statusText;  // 最近一次显示的状态，重建后的界面沿用
+
+    // 启动流程
+    private final ZegoQuickStartTaskCreateRegistry taskCreateRegistry =
+            new ZegoQuickStartTaskCreateRegistry(ZegoQuickStartAPIService.getInstance());
+    private ZegoQuickStartStartupPipeline startupPipeline;
+    private String pendingCreateKey;  // 进行中的创建任务请求的幂等键
+    private volatile ZegoQuickStartStartupPipeline.StageHandle digitalHumanStartHandle;
+    private volatile ZegoQuickStartStartupPipeline.StageHandle firstFrameHandle;
+
+    /**
+     * 挂载到宿主的界面，接收数字人SDK和房间流更新回调
+     */
+    public interface Client extends IZegoDigitalMobile.ZegoDigitalMobileListener {
+        void onRoomStreamUpdate(String roomID, ZegoUpdateType updateType, ArrayList<ZegoStream> streamList);
+
+        /**
+         * 视频卡顿，执行一级恢复（主线程）
+         */
+        void onStreamStalled(ZegoQuickStartStallWatchdog.Stage stage, String streamId);
+
+        /**
+         * 视频卡顿所有恢复级别均未恢复（主线程）
+         */
+        void onStreamStallUnrecovered(String streamId);
+
+        /**
+         * 会话状态被其他界面实例更新（配置变化重建前发起的启动、停止流程完成），按宿主中的状态刷新界面
+         */
+        void onSessionChanged();
+    }
+
+    private ZegoQuickStartSessionHost(Context context) {
+        appContext = context.getApplicationContext();
+        playbackModeMetrics = new ZegoQuickStartPlaybackModeMetrics(appContext);
+        outputModeGovernor = new ZegoQuickStartOutputModeGovernor(appContext);
+    }
+
+    public static synchronized ZegoQuickStartSessionHost getInstance(Context context) {
+        if (instance == null) {
+            instance = new ZegoQuickStartSessionHost(context);
+        }
+        return instance;
+    }
+
+    // ==================== 挂载 ====================
+
+    /**
+     * 挂载界面：绑定数字人视图并接收回调
+     * @return 数字人SDK实例，创建失败时返回null
+     */
+    public IZegoDigitalMobile attach(ZegoDigitalView view, Client client) {
+        if (digitalMobile == null) {
+            digitalMobile = ZegoDigitalHuman.create(appContext);
+            Log.d(TAG, "[会话] 数字人SDK实例已创建");
+        }
+        this.client = client;
+        if (digitalMobile != null && view != null) {
+            digitalMobile.attach(view);
+            String gap = detachedAt > 0 ? ", 距上次卸载: " + (SystemClock.elapsedRealtime() - detachedAt) + "ms" : "";
+            Log.d(TAG, "[会话] 已挂载视图, 首帧已绘制: " + firstFrameDrawn + gap);
+        }
+        return digitalMobile;
+    }
+
+    /**
+     * 卸载界面，之后的回调不再转发给它；数字人SDK和拉流保持运行
+     */
+    public void detach(Client client) {
+        if (this.client == client) {
+            this.client = null;
+            detachedAt = SystemClock.elapsedRealtime();
+            Log.d(TAG, "[会话] 已卸载界面");
+        }
+    }
+
+    /**
+     * 会话状态由 source 更新后调用，当前挂载的是另一个界面实例时通知它刷新
+     */
+    public void notifySessionChanged(Client source) {
+        Client current = client;
+        if (current != null && current != source) {
+            current.onSessionChanged();
+        }
+    }
+
+    public ZegoQuickStartFrameBridge getFrameBridge() {
+        return frameBridge;
+    }
+
+    /**
+     * 当前数字人是否已绘制过首帧
+     */
+    public boolean isFirstFrameDrawn() {
+        return firstFrameDrawn;
+    }
+
+    // ==================== 会话状态 ====================
+
+    /**
+     * 是否有需要跨界面保留的会话：任务已创建，或启动流程仍在执行（创建任务请求可能尚未返回）
+     */
+    public boolean hasSession() {
+        return task != null || isStartupRunning();
+    }
+
+    public boolean isEngineCreated() {
+        return engineCreated;
+    }
+
+    public void setEngineCreated(boolean engineCreated) {
+        this.engineCreated = engineCreated;
+    }
+
+    public boolean isRoomLoggedIn() {
+        return roomLoggedIn;
+    }
+
+    public void setRoomLoggedIn(boolean roomLoggedIn) {
+        this.roomLoggedIn = roomLoggedIn;
+    }
+
+    public ZegoQuickStartTask getTask() {
+        return task;
+    }
+
+    /**
+     * 保存创建成功的任务及其房间、流、Token和数字人配置
+     */
+    public void setTask(ZegoQuickStartTask task, String roomId, String streamId, String token, String base64Config) {
+        this.task = task;
+        this.roomId = roomId;
+        this.streamId = streamId;
+        this.token = token;
+        this.base64Config = base64Config;
+    }
+
+    /**
+     * 任务停止后清理任务状态（包括用户ID，下个任务重新生成）
+     */
+    public void clearTask() {
+        task = null;
+        roomId = null;
+        streamId = null;
+        userId = null;
+        token = null;
+        base64Config = null;
+        playingStreamId = null;
+    }
+
+    public String getRoomId() {
+        return roomId;
+    }
+
+    public String getStreamId() {
+        return streamId;
+    }
+
+    public String getUserId() {
+        return userId;
+    }
+
+    public void setUserId(String userId) {
+        this.userId = userId;
+    }
+
+    public String getToken() {
+        return token;
+    }
+
+    public String getBase64Config() {
+        return base64Config;
+    }
+
+    public String getPlayingStreamId() {
+        return playingStreamId;
+    }
+
+    public void setPlayingStreamId(String playingStreamId) {
+        this.playingStreamId = playingStreamId;
+    }
+
+    public String getStatusText() {
+        return statusText;
+    }
+
+    public void setStatusText(String statusText) {
+        this.statusText = statusText;
+    }
+
+    // ==================== 启动流程 ====================
+
+    /**
+     * 创建任务登记表，与启动流程一起跨界面保留，重建后的界面也能放弃进行中的创建
+     */
+    public ZegoQuickStartTaskCreateRegistry getTaskCreateRegistry() {
+        return taskCreateRegistry;
+    }
+
+    public ZegoQuickStartStartupPipeline getStartupPipeline() {
+        return startupPipeline;
+    }
+
+    public void setStartupPipeline(ZegoQuickStartStartupPipeline startupPipeline) {
+        this.startupPipeline = startupPipeline;
+    }
+
+    public boolean isStartupRunning() {
+        return startupPipeline != null && startupPipeline.isRunning();
+    }
+
+    public String getPendingCreateKey() {
+        return pendingCreateKey;
+    }
+
+    public void setPendingCreateKey(String pendingCreateKey) {
+        this.pendingCreateKey = pendingCreateKey;
+    }
+
+    /**
+     * 等待数字人启动回调的步骤，回调可能送达重建后的界面
+     */
+    public void setDigitalHumanStartHandle(ZegoQuickStartStartupPipeline.StageHandle handle) {
+        digitalHumanStartHandle = handle;
+    }
+
+    /**
+     * 取出等待数字人启动回调的步骤，只能取出一次
+     * @return 步骤，没有时返回null
+     */
+    public ZegoQuickStartStartupPipeline.StageHandle takeDigitalHumanStartHandle() {
+        ZegoQuickStartStartupPipeline.StageHandle handle = digitalHumanStartHandle;
+        digitalHumanStartHandle = null;
+        return handle;
+    }
+
+    /**
+     * 等待首帧绘制回调的步骤，回调可能送达重建后的界面
+     */
+    public void setFirstFrameHandle(ZegoQuickStartStartupPipeline.StageHandle handle) {
+        firstFrameHandle = handle;
+    }
+
+    /**
+     * 取出等待首帧绘制回调的步骤，只能取出一次
+     * @return 步骤，没有时返回null
+     */
+    public ZegoQuickStartStartupPipeline.StageHandle takeFirstFrameHandle() {
+        ZegoQuickStartStartupPipeline.StageHandle handle = firstFrameHandle;
+        firstFrameHandle = null;
+        return handle;
+    }
+
+    // ==================== 可见性 ====================
+
+    /**
+     * 界面可见性变化
+     * 不可见时静音拉流视频（不再接收和解码视频），并丢弃仍在途的视频帧；音频和SEI不受影响
+     * 恢复可见时取消静音，引擎从下一个关键帧开始解码，之后的帧照常转交数字人SDK
+     *
+     * @param visible         界面是否可见
+     * @param playingStreamId 正在拉的流ID，未拉流时为null
+     */
+    public void setVisible(boolean visible, String playingStreamId) {
+        if (audioOnly == !visible) {
+            return;
+        }
+        audioOnly = !visible;
+        playbackModeMetrics.enter(visible ? ZegoQuickStartPlaybackModeMetrics.Mode.VISIBLE
+                : ZegoQuickStartPlaybackModeMetrics.Mode.AUDIO_ONLY);
+        if (playingStreamId != null) {
+            mutePlayStreamVideo(playingStreamId, !visible);
+        }
+        jitterBufferController.resetArrivals();
+        stallWatchdog.setPaused(!visible);
+        Log.d(TAG, "[播放] " + (visible ? "恢复音视频播放" : "切换为仅音频播放") + ", " + playbackModeMetrics.getReport());
+    }
+
+    /**
+     * 开始拉流前调用：设置初始缓冲区并开始抖动采样
+     */
+    public void onPlayStarting(ZegoExpressEngine engine, String streamId) {
+        livePlayStreamId = streamId;
+        if (replaying) {
+            Log.w(TAG, "[回放] 回放进行中，回放结束前丢弃拉流的视频帧: " + streamId);
+        }
+        jitterBufferController.onPlayStarted(engine, streamId);
+        if (ZegoQuickStartConstants.FRAME_CAPTURE_ENABLED && frameCapture == null) {
+            startFrameCapture();
+        }
+    }
+
+    /**
+     * 开始拉流后调用，界面不可见时立即静音视频
+     */
+    public void onPlayStarted(String streamId) {
+        if (audioOnly) {
+            mutePlayStreamVideo(streamId, true);
+        }
+        if (ZegoQuickStartConstants.STALL_WATCHDOG_ENABLED) {
+            stallWatchdog.arm(streamId);
+        }
+    }
+
+    /**
+     * 任务停止时调用，停止卡顿监测
+     */
+    public void onPlayStopped() {
+        livePlayStreamId = null;
+        stallWatchdog.disarm();
+        stopFrameCapture();
+    }
+
+    public boolean isAudioOnly() {
+        return audioOnly;
+    }
+
+    /**
+     * 可见/仅音频两种模式的CPU、码率和电量对比
+     */
+    public ZegoQuickStartPlaybackModeMetrics getPlaybackModeMetrics() {
+        return playbackModeMetrics;
+    }
+
+    // ==================== 输出模式 ====================
+
+    /**
+     * 选择下一个任务的输出模式：启用治理时使用其建议，否则为小图模式
+     */
+    public ZegoQuickStartOutputMode selectOutputMode() {
+        ZegoQuickStartOutputMode mode = ZegoQuickStartConstants.OUTPUT_MODE_GOVERNOR_ENABLED
+                ? outputModeGovernor.getRecommendedMode() : ZegoQuickStartOutputMode.SMALL;
+        currentOutputMode = mode;
+        return mode;
+    }
+
+    public ZegoQuickStartOutputModeGovernor getOutputModeGovernor() {
+        return outputModeGovernor;
+    }
+
+    /**
+     * 拉流缓冲区控制，提供当前缓冲区范围、抖动和端到端延迟统计
+     */
+    public ZegoQuickStartJitterBufferController getJitterBufferController() {
+        return jitterBufferController;
+    }
+
+    private void mutePlayStreamVideo(String streamId, boolean mute) {
+        ZegoExpressEngine engine = ZegoExpressEngine.getEngine();
+        if (engine == null) {
+            return;
+        }
+        try {
+            engine.mutePlayStreamVideo(streamId, mute);
+        } catch (Exception e) {
+            Log.e(TAG, "[播放] 设置视频静音失败", e);
+        }
+    }
+
+    // ==================== 卡顿恢复 ====================
+
+    /**
+     * 视频卡顿看门狗，提供每一级恢复的次数和恢复耗时统计
+     */
+    public ZegoQuickStartStallWatchdog getStallWatchdog() {
+        return stallWatchdog;
+    }
+
+    @Override
+    public void onEscalate(ZegoQuickStartStallWatchdog.Stage stage, String streamId) {
+        Client current = client;
+        if (current != null) {
+            current.onStreamStalled(stage, streamId);
+        } else {
+            Log.w(TAG, "[卡顿] 无界面，跳过恢复: " + stage);
+        }
+    }
+
+    @Override
+    public void onUnrecovered(String streamId) {
+        Client current = client;
+        if (current != null) {
+            current.onStreamStallUnrecovered(streamId);
+        }
+    }
+
+    // ==================== 数字人 ====================
+
+    /**
+     * 启动数字人，回调经宿主转发给当前挂载的界面
+     */
+    public void startDigitalHuman(String base64Config) {
+        firstFrameDrawn = false;
+        digitalMobile.start(base64Config, this);
+    }
+
+    public void stopDigitalHuman() {
+        firstFrameDrawn = false;
+        digitalMobile.stop();
+    }
+
+    @Override
+    public void onDigitalMobileStartSuccess() {
+        Client current = client;
+        if (current != null) {
+            current.onDigitalMobileStartSuccess();
+        }
+    }
+
+    @Override
+    public void onError(int errorCode, String errorMsg) {
+        Client current = client;
+        if (current != null) {
+            current.onError(errorCode, errorMsg);
+        } else {
+            Log.e(TAG, "[会话] 数字人错误(无界面): " + errorCode + " - " + errorMsg);
+        }
+    }
+
+    @Override
+    public void onSurfaceFirstFrameDraw() {
+        firstFrameDrawn = true;
+        Client current = client;
+        if (current != null) {
+            current.onSurfaceFirstFrameDraw();
+        }
+    }
+
+    // ==================== RTC 回调 ====================
+
+    /**
+     * 设置 Express 自定义渲染和事件回调，并按配置启动视频帧流水线
+     * 回调由宿主持有，界面重建期间视频帧和SEI仍持续转交给数字人SDK
+     */
+    public void installRenderHandlers(ZegoExpressEngine engine) {
+        startFramePipelineIfEnabled();
+
+        engine.setCustomVideoRenderHandler(new IZegoCustomVideoRenderHandler() {
+            // onCapturedVideoFrameRawData 可能是可选方法，不添加 @Override
+            public void onCapturedVideoFrameRawData(ByteBuffer[] data, int[] dataLength, ZegoVideoFrameParam param, ZegoVideoFrameFormat flipMode) {
+                // 不需要处理本地采集的视频帧
+            }
+
+            @Override
+            public void onRemoteVideoFrameRawData(ByteBuffer[] data, int[] dataLength, ZegoVideoFrameParam param, String streamID) {
+                jitterBufferController.onFrameArrived(streamID);
+                stallWatchdog.onFrameArrived(streamID);
+                if (replaying) {
+                    return;
+                }
+                ZegoQuickStartFrameCapture capture = frameCapture;
+                if (capture != null) {
+                    capture.writeFrame(data, dataLength, param, streamID);
+                }
+                handleRemoteVideoFrame(data, dataLength, param, streamID);
+            }
+        });
+
+        // 监听 Express SEI 数据和房间流更新
+        engine.setEventHandler(new IZegoEventHandler() {
+            @Override
+            public void onRoomStreamUpdate(String roomID, ZegoUpdateType updateType, ArrayList<ZegoStream> streamList, org.json.JSONObject extendedData) {
+                Client current = client;
+                if (current != null) {
+                    current.onRoomStreamUpdate(roomID, updateType, streamList);
+                }
+            }
+
+            @Override
+            public void onPlayerSyncRecvSEI(String streamID, byte[] data) {
+                jitterBufferController.onSEIArrived(streamID);
+                if (replaying) {
+                    return;
+                }
+                ZegoQuickStartFrameCapture capture = frameCapture;
+                if (capture != null) {
+                    capture.writeSEI(streamID, data);
+                }
+                handlePlayerSyncRecvSEI(streamID, data);
+            }
+
+            @Override
+            public void onPlayerQualityUpdate(String streamID, ZegoPlayStreamQuality quality) {
+                jitterBufferController.onPlayerQuality(streamID, quality.peerToPeerDelay, quality.delay, quality.packetLostRate);
+                if (frameBridge.isCurrentStream(streamID)) {
+                    playbackModeMetrics.onPlayerQuality(quality.videoKBPS, quality.audioKBPS);
+                    if (!audioOnly) {
+                        outputModeGovernor.onPlayerQuality(quality.videoRecvFPS, quality.videoDecodeFPS,
+                                quality.videoBreakRate, currentOutputMode);
+                    }
+                }
+            }
+        });
+    }
+
+    private void handleRemoteVideoFrame(ByteBuffer[] data, int[] dataLength, ZegoVideoFrameParam param, String streamID) {
+        if (audioOnly) {
+            // 不可见：静音生效前仍在途的帧直接丢弃，不再转交
+            playbackModeMetrics.onFrameDropped();
+            return;
+        }
+
+        ZegoQuickStartFramePipeline pipeline = framePipeline;
+        if (pipeline != null && frameBridge.isCurrentStream(streamID)) {
+            // 复制后交给流水线线程，不阻塞RTC回调线程
+            pipeline.offerFrame(data, dataLength, param, streamID);
+            return;
+        }
+
+        // 转发到数字人SDK（无分配，读取不可变的会话快照）
+        try {
+            if (forwardRemoteVideoFrame(data, dataLength, param, streamID)) {
+                return;
+            }
+        } catch (Exception e) {
+            Log.e(TAG, "[RTC] 处理视频帧失败", e);
+            return;
+        }
+
+        // 每帧都可能走到这里，限频输出且不在渲染线程拼接字符串
+        if (!frameBridge.isCurrentStream(streamID)) {
+            ZegoQuickStartLog.throttled(Log.VERBOSE, TAG, 1000, "[RTC] 忽略视频帧: streamID={} (期望: {})", streamID, frameBridge.getStreamId());
+        } else if (data == null || data.length == 0) {
+            ZegoQuickStartLog.throttled(Log.WARN, TAG, 1000, "[RTC] 视频帧数据为空: streamID={}", streamID);
+        }
+    }
+
+    private void handlePlayerSyncRecvSEI(String streamID, byte[] data) {
+        if (!frameBridge.isCurrentStream(streamID) || data == null || data.length == 0) {
+            return;
+        }
+        ZegoQuickStartFramePipeline pipeline = framePipeline;
+        if (pipeline != null) {
+            // 交给流水线按入队序号与视频帧合并，保持SEI与帧的先后顺序
+            pipeline.offerSEI(streamID, data);
+        } else {
+            forwardPlayerSyncRecvSEI(streamID, data);
+        }
+    }
+
+    private boolean forwardRemoteVideoFrame(ByteBuffer[] data, int[] dataLength, ZegoVideoFrameParam param, String streamID) {
+        if (frameBridge.onRemoteVideoFrame(data, dataLength, param, streamID)) {
+            spanRecorder.markActive(ZegoQuickStartSpanRecorder.POINT_FIRST_REMOTE_FRAME);
+            return true;
+        }
+        return false;
+    }
+
+    private void forwardPlayerSyncRecvSEI(String streamID, byte[] data) {
+        IZegoDigitalMobile mobile = digitalMobile;
+        if (mobile == null || !frameBridge.isCurrentStream(streamID)) {
+            return;
+        }
+        spanRecorder.markActive(ZegoQuickStartSpanRecorder.POINT_FIRST_SEI);
+        try {
+            mobile.onPlayerSyncRecvSEI(streamID, data);
+        } catch (Exception e) {
+            Log.e(TAG, "[RTC] 处理SEI数据失败", e);
+        }
+    }
+
+    // ==================== 采集与回放 ====================
+
+    /**
+     * 开始采集收到的视频帧和SEI，写入应用私有目录，已在采集时先结束上一次
+     * @return 采集文件，打开失败时返回null
+     */
+    public File startFrameCapture() {
+        stopFrameCapture();
+        File file = new File(appContext.getFilesDir(), ZegoQuickStartConstants.FRAME_CAPTURE_FILE_NAME);
+        try {
+            frameCapture = new ZegoQuickStartFrameCapture(file, ZegoQuickStartConstants.FRAME_CAPTURE_MAX_BYTES);
+            Log.d(TAG, "[采集] 开始采集: " + file.getAbsolutePath());
+            return file;
+        } catch (IOException e) {
+            Log.e(TAG, "[采集] 打开采集文件失败", e);
+            return null;
+        }
+    }
+
+    /**
+     * 结束采集
+     */
+    public void stopFrameCapture() {
+        ZegoQuickStartFrameCapture capture = frameCapture;
+        frameCapture = null;
+        if (capture == null) {
+            return;
+        }
+        try {
+            capture.close();
+            Log.d(TAG, "[采集] 采集结束: " + capture.getFile().getAbsolutePath() + ", " + capture.statsToString());
+        } catch (IOException e) {
+            Log.e(TAG, "[采集] 关闭采集文件失败", e);
+        }
+    }
+
+    /**
+     * 回放采集文件：与 Express 回调走同一条转发代码（仅音频丢帧、帧流水线、转发桥），
+     * 不计入抖动、卡顿统计，也不会被再次采集
+     * 转发桥的帧参数和帧流水线都只允许一个生产者，因此拉流期间拒绝回放，回放期间丢弃 Express 回调的帧和SEI
+     * 在调用线程同步回放，不能在主线程调用；回放的流ID需与当前转发会话一致
+     *
+     * @param realtime true 按采集时的时间间隔回放；false 尽可能快地回放
+     * @throws IllegalStateException 正在拉流或已有回放进行中
+     */
+    public ZegoQuickStartFrameReplay.Result replayCapture(File file, boolean realtime) throws IOException {
+        synchronized (this) {
+            if (livePlayStreamId != null) {
+                throw new IllegalStateException("正在拉流，停止任务后才能回放: " + livePlayStreamId);
+            }
+            if (replaying) {
+                throw new IllegalStateException("已有回放进行中");
+            }
+            replaying = true;
+        }
+        try {
+            Log.d(TAG, "[回放] 开始回放: " + file.getAbsolutePath());
+            ZegoQuickStartFrameReplay.Result result = new ZegoQuickStartFrameReplay(file).replay(
+                    new ZegoQuickStartFramePipeline.Sink() {
+                        @Override
+                        public void onFrame(ByteBuffer[] data, int[] dataLength, ZegoVideoFrameParam param, String streamID) {
+                            handleRemoteVideoFrame(data, dataLength, param, streamID);
+                        }
+
+                        @Override
+                        public void onSEI(String streamID, byte[] data) {
+                            handlePlayerSyncRecvSEI(streamID, data);
+                        }
+                    }, realtime);
+            Log.d(TAG, "[回放] 回放结束: " + result);
+            return result;
+        } finally {
+            replaying = false;
+        }
+    }
+
+    // ==================== 视频帧流水线 ====================
+
+    /**
+     * 按配置启动视频帧流水线，由独立线程向数字人SDK转交视频帧和SEI
+     */
+    private void startFramePipelineIfEnabled() {
+        if (!ZegoQuickStartConstants.FRAME_PIPELINE_ENABLED || framePipeline != null) {
+            return;
+        }
+        ZegoQuickStartFramePipeline pipeline = new ZegoQuickStartFramePipeline(
+                ZegoQuickStartConstants.FRAME_PIPELINE_CAPACITY,
+                ZegoQuickStartFramePipeline.Policy.LATEST_WINS,
+                ZegoQuickStartConstants.FRAME_PIPELINE_SKIP_COUNT,
+                ZegoQuickStartConstants.FRAME_PIPELINE_LATE_THRESHOLD_MS,
+                new ZegoQuickStartFramePipeline.Sink() {
+                    @Override
+                    public void onFrame(ByteBuffer[] data, int[] dataLength, ZegoVideoFrameParam param, String streamID) {
+                        forwardRemoteVideoFrame(data, dataLength, param, streamID);
+                    }
+
+                    @Override
+                    public void onSEI(String streamID, byte[] data) {
+                        forwardPlayerSyncRecvSEI(streamID, data);
+                    }
+                },
+                ZegoQuickStartPlaneBufferPool.getInstance(appContext));
+        pipeline.start();
+        framePipeline = pipeline;
+    }
+
+    /**
+     * 停止视频帧流水线（销毁引擎时调用）
+     */
+    public void stopFramePipeline() {
+        ZegoQuickStartFramePipeline pipeline = framePipeline;
+        framePipeline = null;
+        if (pipeline != null) {
+            pipeline.stop();
+        }
+    }
+}
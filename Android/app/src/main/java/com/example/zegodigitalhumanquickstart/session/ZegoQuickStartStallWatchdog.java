@@ -0,0 +1,238 @@
+package com.example.zegodigitalhumanquickstart.session;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+
+import com.example.zegodigitalhumanquickstart.ZegoQuickStartConstants;
+import com.example.zegodigitalhumanquickstart.metrics.ZegoQuickStartLatencyHistogram;
+
+/**
+ * 视频卡顿看门狗
+ * 任务运行中当前流超过阈值未收到远端视频帧时，逐级尝试恢复：
+ * 1. 重新拉流
+ * 2. 重新登录房间后拉流
+ * 3. 停止并重新创建任务
+ * 每一级执行后等待一段时间，仍未收到视频帧再升级；重新创建任务后仍未恢复则放弃并通知
+ * 帧到达在渲染线程只写一个 volatile 时间戳，无锁无分配；检查和恢复回调都在主线程
+ * 统计每一级的触发次数、恢复次数和恢复耗时（从卡顿前最后一帧到恢复后第一帧，即用户看到的卡住时长）
+ */
+public class ZegoQuickStartStallWatchdog {
+
+    private static final String TAG = "ZegoQuickStartStallWatchdog";
+
+    /**
+     * 恢复级别，按顺序升级
+     */
+    public enum Stage {
+        RESTART_PLAY,
+        RELOGIN_ROOM,
+        RECREATE_TASK
+    }
+
+    /**
+     * 恢复回调，在主线程执行
+     */
+    public interface Listener {
+        /**
+         * 执行一级恢复
+         */
+        void onEscalate(Stage stage, String streamId);
+
+        /**
+         * 所有级别都未能恢复
+         */
+        void onUnrecovered(String streamId);
+    }
+
+    private final Handler handler = new Handler(Looper.getMainLooper());
+    private final Runnable check = this::check;
+    private final Listener listener;
+
+    private final int[] escalations = new int[Stage.values().length];
+    private final int[] recoveries = new int[Stage.values().length];
+    private final ZegoQuickStartLatencyHistogram[] recoveryTimes = new ZegoQuickStartLatencyHistogram[Stage.values().length];
+    private int unrecovered;
+
+    private volatile StreamState stream;
+    private boolean paused;
+    private Stage stage;               // 当前已执行的恢复级别，未卡顿时为null
+    private long stageStartedNanos;    // 当前级别的执行时间
+    private long stallBeganNanos;      // 卡顿前最后一帧的时间
+
+    /**
+     * 单条流的帧到达状态
+     */
+    private static final class StreamState {
+        final String streamId;
+        volatile long lastFrameNanos;  // 0 表示开始拉流后尚未收到帧
+        long armedAtNanos;             // 开始拉流或恢复可见的时间，之前的空白不计为卡顿
+
+        StreamState(String streamId, long now) {
+            this.streamId = streamId;
+            this.armedAtNanos = now;
+        }
+    }
+
+    public ZegoQuickStartStallWatchdog(Listener listener) {
+        this.listener = listener;
+        for (int i = 0; i < recoveryTimes.length; i++) {
+            recoveryTimes[i] = new ZegoQuickStartLatencyHistogram();
+        }
+    }
+
+    /**
+     * 开始监测一条流（开始拉流时调用，主线程）
+     * 恢复过程中重新拉流时保留当前恢复级别，之后收到帧计为该级别恢复成功
+     */
+    public void arm(String streamId) {
+        stream = new StreamState(streamId, System.nanoTime());
+        handler.removeCallbacks(check);
+        handler.postDelayed(check, ZegoQuickStartConstants.STALL_CHECK_INTERVAL_MS);
+    }
+
+    /**
+     * 停止监测（任务停止时调用，主线程），进行中的恢复计为未恢复
+     */
+    public void disarm() {
+        handler.removeCallbacks(check);
+        stream = null;
+        if (stage != null) {
+            Log.w(TAG, "[卡顿] 恢复中停止监测, 级别: " + stage);
+            unrecovered++;
+            stage = null;
+        }
+    }
+
+    /**
+     * 暂停/恢复监测（仅音频播放期间不接收视频帧，主线程）
+     */
+    public void setPaused(boolean paused) {
+        if (this.paused == paused) {
+            return;
+        }
+        this.paused = paused;
+        StreamState state = stream;
+        if (!paused && state != null) {
+            // 取消视频静音后需要等待关键帧
+            state.armedAtNanos = System.nanoTime();
+        }
+    }
+
+    /**
+     * 视频帧到达（渲染线程）
+     */
+    public void onFrameArrived(String streamId) {
+        StreamState state = stream;
+        if (state != null && state.streamId.equals(streamId)) {
+            state.lastFrameNanos = System.nanoTime();
+        }
+    }
+
+    private void check() {
+        StreamState state = stream;
+        if (state == null) {
+            return;
+        }
+        handler.postDelayed(check, ZegoQuickStartConstants.STALL_CHECK_INTERVAL_MS);
+        if (paused) {
+            return;
+        }
+
+        long now = System.nanoTime();
+        long lastFrame = state.lastFrameNanos;
+        if (stage != null) {
+            if (lastFrame > stageStartedNanos) {
+                onRecovered(lastFrame);
+            } else if (now - Math.max(stageStartedNanos, state.armedAtNanos)
+                    >= ZegoQuickStartConstants.STALL_RECOVERY_WAIT_MS * 1_000_000L) {
+                escalate(state);
+            }
+            return;
+        }
+
+        long lastProgress = Math.max(lastFrame, state.armedAtNanos);
+        if (now - lastProgress >= ZegoQuickStartConstants.STALL_TIMEOUT_MS * 1_000_000L) {
+            stallBeganNanos = lastProgress;
+            Log.w(TAG, "[卡顿] 超过(ms) " + (now - lastProgress) / 1_000_000 + " 未收到视频帧: " + state.streamId);
+            escalate(state);
+        }
+    }
+
+    private void escalate(StreamState state) {
+        int next = stage == null ? 0 : stage.ordinal() + 1;
+        if (next >= Stage.values().length) {
+            Log.e(TAG, "[卡顿] 所有恢复级别均未恢复: " + state.streamId + ", " + getReport());
+            unrecovered++;
+            stage = null;
+            handler.removeCallbacks(check);
+            stream = null;
+            if (listener != null) {
+                listener.onUnrecovered(state.streamId);
+            }
+            return;
+        }
+
+        stage = Stage.values()[next];
+        stageStartedNanos = System.nanoTime();
+        escalations[next]++;
+        Log.w(TAG, "[卡顿] 执行恢复: " + stage + ", 流: " + state.streamId);
+        if (stage == Stage.RECREATE_TASK) {
+            // 重新创建任务期间没有可监测的流，等待新流 arm 后再检查
+            handler.removeCallbacks(check);
+            stream = null;
+        }
+        if (listener != null) {
+            listener.onEscalate(stage, state.streamId);
+        }
+    }
+
+    private void onRecovered(long firstFrameNanos) {
+        int index = stage.ordinal();
+        long recoverNanos = firstFrameNanos - stallBeganNanos;
+        recoveries[index]++;
+        recoveryTimes[index].recordNanos(recoverNanos);
+        Log.i(TAG, "[卡顿] 已恢复, 级别: " + stage + ", 卡住时长(ms): " + recoverNanos / 1_000_000);
+        stage = null;
+    }
+
+    // ==================== 统计 ====================
+
+    /**
+     * 某一级恢复的执行次数
+     */
+    public int getEscalationCount(Stage target) {
+        return escalations[target.ordinal()];
+    }
+
+    /**
+     * 某一级恢复成功的次数
+     */
+    public int getRecoveryCount(Stage target) {
+        return recoveries[target.ordinal()];
+    }
+
+    /**
+     * 在某一级恢复成功时的卡住时长分布
+     */
+    public ZegoQuickStartLatencyHistogram.Snapshot getRecoverySnapshot(Stage target) {
+        return recoveryTimes[target.ordinal()].snapshot();
+    }
+
+    /**
+     * 所有级别都未恢复（或恢复中被停止）的次数
+     */
+    public int getUnrecoveredCount() {
+        return unrecovered;
+    }
+
+    public String getReport() {
+        StringBuilder sb = new StringBuilder();
+        for (Stage s : Stage.values()) {
+            int i = s.ordinal();
+            sb.append(s).append(": ").append(recoveries[i]).append('/').append(escalations[i])
+                    .append(' ').append(recoveryTimes[i].snapshot()).append("; ");
+        }
+        return sb.append("unrecovered=").append(unrecovered).toString();
+    }
+}
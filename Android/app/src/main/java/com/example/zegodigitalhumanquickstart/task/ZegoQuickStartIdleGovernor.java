@@ -0,0 +1,197 @@
+package com.example.zegodigitalhumanquickstart.task;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.os.SystemClock;
+import android.util.Log;
+
+/**
+ * 空闲任务治理
+ * 跟踪当前任务最后一次驱动/打断的时间和应用前后台状态，空闲超过阈值时通知调用方停止任务，避免无人使用的任务持续计费
+ * - 前台和后台使用不同的空闲阈值：前台从最后一次交互开始计时，后台从切到后台（或之后的交互）开始计时
+ * - 因空闲停止后，下一次交互可以重新创建任务（{@link #isResumePending()}）；停止失败时恢复跟踪，下一个空闲周期再次停止
+ * - 统计因空闲停止节省的任务时长：从空闲停止到重新创建任务（或释放）的时间
+ * 所有方法必须在主线程调用
+ */
+public class ZegoQuickStartIdleGovernor {
+
+    private static final String TAG = "ZegoQuickStartIdleGovernor";
+
+    private final Handler handler = new Handler(Looper.getMainLooper());
+    private final long foregroundTimeoutMs;
+    private final long backgroundTimeoutMs;
+    private final Listener listener;
+    private final Runnable checkIdle = this::checkIdle;
+
+    private String taskId;
+    private String idleStoppingTaskId;  // 因空闲正在停止的任务，停止失败时恢复跟踪
+    private long lastActivityAt;
+    private long backgroundedAt;
+    private boolean foreground = true;
+    private boolean resumePending;
+    private long idleStoppedAt = -1;
+    private long savedMs;
+
+    /**
+     * 空闲回调，在主线程执行
+     */
+    public interface Listener {
+        /**
+         * 任务空闲超时，调用方应释放播放并停止任务
+         */
+        void onIdle(String taskId);
+    }
+
+    /**
+     * @param foregroundTimeoutMs 前台空闲阈值（毫秒）
+     * @param backgroundTimeoutMs 后台空闲阈值（毫秒）
+     * @param listener            空闲回调
+     */
+    public ZegoQuickStartIdleGovernor(long foregroundTimeoutMs, long backgroundTimeoutMs, Listener listener) {
+        this.foregroundTimeoutMs = foregroundTimeoutMs;
+        this.backgroundTimeoutMs = backgroundTimeoutMs;
+        this.listener = listener;
+    }
+
+    /**
+     * 开始跟踪新创建的任务，结束上一次空闲停止的节省时长统计
+     */
+    public void attach(String taskId) {
+        closeSavedPeriod();
+        resumePending = false;
+        idleStoppingTaskId = null;
+        this.taskId = taskId;
+        lastActivityAt = SystemClock.elapsedRealtime();
+        schedule();
+    }
+
+    /**
+     * 停止跟踪（任务被主动停止），不再需要空闲恢复
+     */
+    public void detach() {
+        handler.removeCallbacks(checkIdle);
+        taskId = null;
+        idleStoppingTaskId = null;
+        resumePending = false;
+    }
+
+    /**
+     * 停止任务失败时调用：如果是空闲停止的任务，服务端任务仍在运行，恢复跟踪并从现在重新计时，
+     * 下一个空闲周期再次通知停止
+     */
+    public void onStopFailed(String taskId) {
+        if (!resumePending || taskId == null || !taskId.equals(idleStoppingTaskId)) {
+            return;
+        }
+        // 任务未停止，不计入节省时长
+        idleStoppedAt = -1;
+        resumePending = false;
+        idleStoppingTaskId = null;
+        this.taskId = taskId;
+        lastActivityAt = SystemClock.elapsedRealtime();
+        Log.w(TAG, "[空闲] 空闲停止失败，恢复跟踪: " + taskId);
+        schedule();
+    }
+
+    /**
+     * 记录一次交互（驱动、打断）
+     */
+    public void onActivity() {
+        if (taskId == null) {
+            return;
+        }
+        lastActivityAt = SystemClock.elapsedRealtime();
+        schedule();
+    }
+
+    /**
+     * 应用前后台切换
+     */
+    public void setForeground(boolean foreground) {
+        if (this.foreground == foreground) {
+            return;
+        }
+        this.foreground = foreground;
+        if (!foreground) {
+            backgroundedAt = SystemClock.elapsedRealtime();
+        }
+        if (taskId != null) {
+            schedule();
+        }
+    }
+
+    /**
+     * 任务是否因空闲被停止，且尚未重新创建
+     */
+    public boolean isResumePending() {
+        return resumePending;
+    }
+
+    /**
+     * 因空闲停止累计节省的任务时长（秒），包含进行中的空闲停止时段
+     */
+    public long getTaskSecondsSaved() {
+        long total = savedMs;
+        if (idleStoppedAt >= 0) {
+            total += SystemClock.elapsedRealtime() - idleStoppedAt;
+        }
+        return total / 1000;
+    }
+
+    /**
+     * 释放，结束统计并取消定时检查
+     */
+    public void release() {
+        handler.removeCallbacks(checkIdle);
+        closeSavedPeriod();
+        taskId = null;
+        idleStoppingTaskId = null;
+        resumePending = false;
+        Log.d(TAG, "[空闲] 释放, 节省任务时长(秒): " + getTaskSecondsSaved());
+    }
+
+    private void schedule() {
+        handler.removeCallbacks(checkIdle);
+        long delay = idleSince() + currentTimeoutMs() - SystemClock.elapsedRealtime();
+        handler.postDelayed(checkIdle, Math.max(0, delay));
+    }
+
+    private void checkIdle() {
+        if (taskId == null) {
+            return;
+        }
+        long idleMs = SystemClock.elapsedRealtime() - idleSince();
+        if (idleMs < currentTimeoutMs()) {
+            schedule();
+            return;
+        }
+
+        String idleTaskId = taskId;
+        taskId = null;
+        idleStoppingTaskId = idleTaskId;
+        resumePending = true;
+        idleStoppedAt = SystemClock.elapsedRealtime();
+        Log.i(TAG, "[空闲] 任务空闲(ms): " + idleMs + (foreground ? " (前台)" : " (后台)") + ", 自动停止: " + idleTaskId);
+        if (listener != null) {
+            listener.onIdle(idleTaskId);
+        }
+    }
+
+    /**
+     * 空闲计时起点：前台为最后一次交互，后台为切到后台和最后一次交互中较晚的一个
+     */
+    private long idleSince() {
+        return foreground ? lastActivityAt : Math.max(lastActivityAt, backgroundedAt);
+    }
+
+    private long currentTimeoutMs() {
+        return foreground ? foregroundTimeoutMs : backgroundTimeoutMs;
+    }
+
+    private void closeSavedPeriod() {
+        if (idleStoppedAt >= 0) {
+            savedMs += SystemClock.elapsedRealtime() - idleStoppedAt;
+            idleStoppedAt = -1;
+        }
+    }
+}
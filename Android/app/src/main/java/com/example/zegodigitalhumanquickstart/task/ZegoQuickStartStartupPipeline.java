@@ -0,0 +1,289 @@
+package com.example.zegodigitalhumanquickstart.task;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.os.SystemClock;
+import android.util.Log;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 任务启动流水线
+ * 按依赖关系组织启动步骤，依赖全部完成的步骤立即开始，互不依赖的步骤并行执行
+ * 所有步骤都在主线程启动；步骤可在任意线程调用 complete/fail
+ * 流水线结束后输出每个步骤的开始偏移、耗时以及关键路径
+ */
+public class ZegoQuickStartStartupPipeline {
+
+    private static final String TAG = "ZegoQuickStartStartupPipeline";
+
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    private final Map<String, StageNode> stages = new LinkedHashMap<>();
+    private Listener listener;
+    private long startTime;
+    private boolean started;
+    private boolean finished;
+
+    /**
+     * 启动步骤
+     */
+    public interface Stage {
+        /**
+         * 执行步骤，完成后必须调用 handle.complete() 或 handle.fail()
+         */
+        void run(StageHandle handle);
+    }
+
+    /**
+     * 流水线回调，在主线程执行
+     */
+    public interface Listener {
+        void onComplete(Report report);
+
+        void onFailed(String stageName, String message, Report report);
+    }
+
+    /**
+     * 步骤完成句柄
+     */
+    public final class StageHandle {
+        private final StageNode node;
+
+        private StageHandle(StageNode node) {
+            this.node = node;
+        }
+
+        public void complete() {
+            mainHandler.post(() -> onStageComplete(node));
+        }
+
+        public void fail(String message) {
+            mainHandler.post(() -> onStageFailed(node, message));
+        }
+    }
+
+    /**
+     * 单个步骤的耗时
+     */
+    public static class StageTiming {
+        private final String name;
+        private final long startOffsetMs;
+        private final long durationMs;
+
+        StageTiming(String name, long startOffsetMs, long durationMs) {
+            this.name = name;
+            this.startOffsetMs = startOffsetMs;
+            this.durationMs = durationMs;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        /**
+         * 相对流水线开始的启动偏移，未启动为-1
+         */
+        public long getStartOffsetMs() {
+            return startOffsetMs;
+        }
+
+        /**
+         * 步骤耗时，未完成为-1
+         */
+        public long getDurationMs() {
+            return durationMs;
+        }
+    }
+
+    /**
+     * 流水线耗时报告
+     */
+    public static class Report {
+        private final long totalMs;
+        private final List<StageTiming> timings;
+        private final List<String> criticalPath;
+
+        Report(long totalMs, List<StageTiming> timings, List<String> criticalPath) {
+            this.totalMs = totalMs;
+            this.timings = Collections.unmodifiableList(timings);
+            this.criticalPath = Collections.unmodifiableList(criticalPath);
+        }
+
+        public long getTotalMs() {
+            return totalMs;
+        }
+
+        public List<StageTiming> getTimings() {
+            return timings;
+        }
+
+        /**
+         * 关键路径：从最后完成的步骤开始，沿最晚完成的依赖回溯
+         */
+        public List<String> getCriticalPath() {
+            return criticalPath;
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder builder = new StringBuilder("total=").append(totalMs).append("ms");
+            for (StageTiming timing : timings) {
+                builder.append(", ").append(timing.name)
+                        .append("[+").append(timing.startOffsetMs).append("ms, ")
+                        .append(timing.durationMs).append("ms]");
+            }
+            builder.append(", critical=").append(criticalPath);
+            return builder.toString();
+        }
+    }
+
+    private static final class StageNode {
+        final String name;
+        final Stage stage;
+        final List<String> dependsOn;
+        long startTime = -1;
+        long endTime = -1;
+
+        StageNode(String name, Stage stage, List<String> dependsOn) {
+            this.name = name;
+            this.stage = stage;
+            this.dependsOn = dependsOn;
+        }
+    }
+
+    /**
+     * 添加步骤，必须在 start 之前调用，依赖的步骤需已添加
+     */
+    public ZegoQuickStartStartupPipeline addStage(String name, Stage stage, String... dependsOn) {
+        for (String dependency : dependsOn) {
+            if (!stages.containsKey(dependency)) {
+                throw new IllegalArgumentException("Unknown dependency: " + dependency);
+            }
+        }
+        stages.put(name, new StageNode(name, stage, Arrays.asList(dependsOn)));
+        return this;
+    }
+
+    /**
+     * 启动流水线，必须在主线程调用
+     */
+    public void start(Listener listener) {
+        if (started) {
+            return;
+        }
+        this.listener = listener;
+        this.started = true;
+        this.startTime = SystemClock.elapsedRealtime();
+        launchReadyStages();
+    }
+
+    /**
+     * 取消流水线，之后的步骤完成通知和回调都会被忽略，必须在主线程调用
+     */
+    public void cancel() {
+        finished = true;
+    }
+
+    /**
+     * 流水线是否仍在执行
+     */
+    public boolean isRunning() {
+        return started && !finished;
+    }
+
+    private void launchReadyStages() {
+        for (StageNode node : stages.values()) {
+            if (finished) {
+                return;
+            }
+            if (node.startTime >= 0 || !dependenciesDone(node)) {
+                continue;
+            }
+            node.startTime = SystemClock.elapsedRealtime();
+            try {
+                node.stage.run(new StageHandle(node));
+            } catch (Exception e) {
+                Log.e(TAG, "[启动] 步骤执行异常: " + node.name, e);
+                onStageFailed(node, e.getMessage());
+            }
+        }
+    }
+
+    private boolean dependenciesDone(StageNode node) {
+        for (String dependency : node.dependsOn) {
+            if (stages.get(dependency).endTime < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void onStageComplete(StageNode node) {
+        if (finished || node.endTime >= 0) {
+            return;
+        }
+        node.endTime = SystemClock.elapsedRealtime();
+        Log.d(TAG, "[启动] 步骤完成: " + node.name + ", 耗时(ms): " + (node.endTime - node.startTime));
+
+        for (StageNode other : stages.values()) {
+            if (other.endTime < 0) {
+                launchReadyStages();
+                return;
+            }
+        }
+
+        finished = true;
+        Report report = buildReport();
+        Log.i(TAG, "[启动] 流水线完成: " + report);
+        if (listener != null) {
+            listener.onComplete(report);
+        }
+    }
+
+    private void onStageFailed(StageNode node, String message) {
+        if (finished) {
+            return;
+        }
+        finished = true;
+        Report report = buildReport();
+        Log.e(TAG, "[启动] 步骤失败: " + node.name + ", " + message + ", " + report);
+        if (listener != null) {
+            listener.onFailed(node.name, message, report);
+        }
+    }
+
+    private Report buildReport() {
+        long now = SystemClock.elapsedRealtime();
+        List<StageTiming> timings = new ArrayList<>();
+        StageNode last = null;
+        for (StageNode node : stages.values()) {
+            long offset = node.startTime >= 0 ? node.startTime - startTime : -1;
+            long duration = node.endTime >= 0 ? node.endTime - node.startTime : -1;
+            timings.add(new StageTiming(node.name, offset, duration));
+            if (node.endTime >= 0 && (last == null || node.endTime >= last.endTime)) {
+                last = node;
+            }
+        }
+
+        List<String> criticalPath = new ArrayList<>();
+        StageNode cursor = last;
+        while (cursor != null) {
+            criticalPath.add(0, cursor.name);
+            StageNode latest = null;
+            for (String dependency : cursor.dependsOn) {
+                StageNode candidate = stages.get(dependency);
+                if (latest == null || candidate.endTime > latest.endTime) {
+                    latest = candidate;
+                }
+            }
+            cursor = latest;
+        }
+
+        return new Report(now - startTime, timings, criticalPath);
+    }
+}
@@ -0,0 +1,148 @@
+package com.example.zegodigitalhumanquickstart.task;
+
+import android.util.Log;
+
+import com.example.zegodigitalhumanquickstart.model.ZegoQuickStartTaskCreateResult;
+import com.example.zegodigitalhumanquickstart.network.ZegoQuickStartAPIService;
+import com.google.gson.JsonObject;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * 创建任务登记表
+ * 每次创建任务生成一个幂等键，同一次创建的所有重试都携带相同的键，服务端据此去重
+ * 同时在本地跟踪每次创建的结果：
+ * - 调用方放弃（如启动流程被取消、用户重新点击）之后才返回的成功结果不会再回调，对应任务自动停止
+ * - 同一幂等键返回了不同的任务（服务端未去重时的重复创建），多出的任务自动停止
+ */
+public class ZegoQuickStartTaskCreateRegistry {
+
+    private static final String TAG = "ZegoQuickStartTaskCreateRegistry";
+    private static final int MAX_ENTRIES = 32;
+
+    private final ZegoQuickStartAPIService apiService;
+    private final Map<String, Entry> entries = new LinkedHashMap<String, Entry>(16, 0.75f, false) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+            return size() > MAX_ENTRIES && eldest.getValue().state != State.PENDING;
+        }
+    };
+    private long autoStoppedCount;
+
+    private enum State {
+        PENDING,
+        DELIVERED,
+        ABANDONED
+    }
+
+    private static final class Entry {
+        State state = State.PENDING;
+        String taskId;
+    }
+
+    public ZegoQuickStartTaskCreateRegistry(ZegoQuickStartAPIService apiService) {
+        this.apiService = apiService;
+    }
+
+    /**
+     * 创建任务
+     *
+     * @param config   创建参数，不会被修改
+     * @param callback 回调；放弃后不会再被调用
+     * @return 本次创建的幂等键，用于 {@link #abandon(String)}
+     */
+    public String create(JsonObject config, ZegoQuickStartAPIService.TaskCallback callback) {
+        String key = UUID.randomUUID().toString();
+        synchronized (this) {
+            entries.put(key, new Entry());
+        }
+        Log.d(TAG, "[任务] 创建任务, 幂等键: " + key);
+
+        apiService.createDigitalHumanStreamTask(config, key, new ZegoQuickStartAPIService.TaskCallback() {
+            @Override
+            public void onSuccess(ZegoQuickStartTaskCreateResult result) {
+                onCreateSuccess(key, result, callback);
+            }
+
+            @Override
+            public void onFailure(int code, String message) {
+                boolean deliver;
+                synchronized (ZegoQuickStartTaskCreateRegistry.this) {
+                    Entry entry = entries.remove(key);
+                    deliver = entry != null && entry.state == State.PENDING;
+                }
+                if (deliver && callback != null) {
+                    callback.onFailure(code, message);
+                }
+            }
+        });
+        return key;
+    }
+
+    /**
+     * 放弃一次创建，之后返回的成功结果对应的任务会被自动停止
+     */
+    public void abandon(String key) {
+        if (key == null) {
+            return;
+        }
+        synchronized (this) {
+            Entry entry = entries.get(key);
+            if (entry != null && entry.state == State.PENDING) {
+                entry.state = State.ABANDONED;
+                Log.d(TAG, "[任务] 放弃创建: " + key);
+            }
+        }
+    }
+
+    /**
+     * 自动停止的任务数（放弃后才返回的任务、重复创建的任务）
+     */
+    public synchronized long getAutoStoppedCount() {
+        return autoStoppedCount;
+    }
+
+    private void onCreateSuccess(String key, ZegoQuickStartTaskCreateResult result, ZegoQuickStartAPIService.TaskCallback callback) {
+        String taskId = result.getTaskId();
+        boolean deliver = false;
+        boolean stop = false;
+        synchronized (this) {
+            Entry entry = entries.get(key);
+            if (entry == null) {
+                entry = new Entry();
+                entry.state = State.ABANDONED;
+            }
+            if (entry.state == State.PENDING) {
+                entry.state = State.DELIVERED;
+                entry.taskId = taskId;
+                deliver = true;
+            } else if (entry.state == State.ABANDONED || !taskId.equals(entry.taskId)) {
+                stop = !taskId.isEmpty();
+                if (stop) {
+                    autoStoppedCount++;
+                }
+            }
+        }
+
+        if (deliver) {
+            if (callback != null) {
+                callback.onSuccess(result);
+            }
+        } else if (stop) {
+            Log.w(TAG, "[任务] 创建结果已无人使用，自动停止任务: " + taskId + ", 幂等键: " + key);
+            apiService.stopDigitalHumanStreamTask(taskId, new ZegoQuickStartAPIService.CommonCallback() {
+                @Override
+                public void onSuccess(JsonObject data) {
+                    Log.d(TAG, "[任务] 已自动停止任务: " + taskId);
+                }
+
+                @Override
+                public void onFailure(int code, String message) {
+                    Log.e(TAG, "[任务] 自动停止任务失败: " + taskId + ", " + message);
+                }
+            });
+        }
+    }
+}
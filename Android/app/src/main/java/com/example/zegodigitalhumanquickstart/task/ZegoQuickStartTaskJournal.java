@@ -0,0 +1,310 @@
+package com.example.zegodigitalhumanquickstart.task;
+
+import android.content.Context;
+import android.os.Handler;
+import android.os.Looper;
+import android.text.TextUtils;
+import android.util.Log;
+
+import com.example.zegodigitalhumanquickstart.ZegoQuickStartConstants;
+import com.example.zegodigitalhumanquickstart.model.ZegoQuickStartTask;
+import com.example.zegodigitalhumanquickstart.model.ZegoQuickStartTaskCreateResult;
+import com.example.zegodigitalhumanquickstart.network.ZegoQuickStartAPIService;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.LinkedBlockingQueue;
+
+/**
+ * 任务日志（仅追加写入磁盘）
+ * 记录本机创建和停止的每个任务，进程被杀、崩溃或网络失败导致任务没有停止时，下次启动据此找回并停止这些任务
+ * - 记录在调用线程同步更新内存状态，磁盘写入在后台线程进行，一批记录只做一次 fsync
+ * - 每行一条记录，崩溃时写了一半的最后一行在回放时忽略
+ * - 启动时回放并压缩文件，只保留未停止的任务；超过保留时长的记录直接丢弃
+ */
+public class ZegoQuickStartTaskJournal implements ZegoQuickStartAPIService.TaskLifecycleListener {
+
+    private static final String TAG = "ZegoQuickStartTaskJournal";
+    private static final String FILE_NAME = "zego_task_journal.log";
+    private static final String OP_CREATED = "C";
+    private static final String OP_STOPPED = "S";
+    private static final String SEPARATOR = "\t";
+
+    private static ZegoQuickStartTaskJournal instance;
+
+    private final File file;
+    private final File compactFile;
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    private final LinkedBlockingQueue<String> pendingLines = new LinkedBlockingQueue<>();
+
+    private final Map<String, Entry> openTasks = new LinkedHashMap<>();  // 任务ID -> 未停止的任务
+    private final Set<String> stoppedThisSession = new HashSet<>();      // 本进程内已停止的任务，回放时不再恢复
+    private final List<ZegoQuickStartTask> leftoverTasks = new ArrayList<>();
+    private boolean loaded;
+    private boolean leftoverDelivered;
+    private ReplayCallback pendingReplayCallback;
+
+    /**
+     * 回放结果回调，在主线程执行
+     */
+    public interface ReplayCallback {
+        /**
+         * @param tasks 上次运行遗留的未停止任务，没有时为空列表
+         */
+        void onLeftoverTasks(List<ZegoQuickStartTask> tasks);
+    }
+
+    private static final class Entry {
+        final String taskId;
+        final String roomId;
+        final String streamId;
+        final long createTime;  // 毫秒时间戳
+
+        Entry(String taskId, String roomId, String streamId, long createTime) {
+            this.taskId = taskId;
+            this.roomId = roomId;
+            this.streamId = streamId;
+            this.createTime = createTime;
+        }
+
+        String toLine() {
+            return OP_CREATED + SEPARATOR + taskId + SEPARATOR + roomId + SEPARATOR + streamId + SEPARATOR + createTime + "\n";
+        }
+
+        ZegoQuickStartTask toTask() {
+            ZegoQuickStartTask task = new ZegoQuickStartTask();
+            task.setTaskId(taskId);
+            task.setRoomId(roomId);
+            task.setStreamId(streamId);
+            return task;
+        }
+    }
+
+    private ZegoQuickStartTaskJournal(Context context) {
+        File dir = context.getApplicationContext().getFilesDir();
+        file = new File(dir, FILE_NAME);
+        compactFile = new File(dir, FILE_NAME + ".tmp");
+
+        Thread writerThread = new Thread(this::writeLoop, "zego-task-journal");
+        writerThread.setDaemon(true);
+        writerThread.start();
+
+        ZegoQuickStartAPIService.getInstance().addTaskLifecycleListener(this);
+    }
+
+    public static synchronized ZegoQuickStartTaskJournal getInstance(Context context) {
+        if (instance == null) {
+            instance = new ZegoQuickStartTaskJournal(context);
+        }
+        return instance;
+    }
+
+    // ==================== 记录 ====================
+
+    @Override
+    public void onTaskCreated(ZegoQuickStartTaskCreateResult result) {
+        String taskId = result.getTaskId();
+        if (TextUtils.isEmpty(taskId)) {
+            return;
+        }
+        Entry entry = new Entry(taskId, sanitize(result.getRoomId()), sanitize(result.getStreamId()), System.currentTimeMillis());
+        synchronized (this) {
+            stoppedThisSession.remove(taskId);
+            openTasks.put(taskId, entry);
+        }
+        pendingLines.offer(entry.toLine());
+    }
+
+    @Override
+    public void onTaskStopped(String taskId) {
+        if (TextUtils.isEmpty(taskId)) {
+            return;
+        }
+        synchronized (this) {
+            stoppedThisSession.add(taskId);
+            if (openTasks.remove(taskId) == null && loaded) {
+                // 未记录过的任务（如其他设备创建的任务），无需写入
+                return;
+            }
+        }
+        pendingLines.offer(OP_STOPPED + SEPARATOR + taskId + "\n");
+    }
+
+    // ==================== 查询 ====================
+
+    /**
+     * 获取所有已创建且尚未停止的任务（含上次运行遗留的任务）
+     */
+    public synchronized List<ZegoQuickStartTask> getOpenTasks() {
+        List<ZegoQuickStartTask> tasks = new ArrayList<>(openTasks.size());
+        for (Entry entry : openTasks.values()) {
+            tasks.add(entry.toTask());
+        }
+        return tasks;
+    }
+
+    /**
+     * 获取上次运行遗留的未停止任务，每个进程只返回一次，之后返回空列表
+     * 回放在后台线程进行，完成后在主线程回调
+     */
+    public void replay(ReplayCallback callback) {
+        if (callback == null) {
+            return;
+        }
+        synchronized (this) {
+            if (!loaded) {
+                pendingReplayCallback = callback;
+                return;
+            }
+        }
+        deliverLeftover(callback);
+    }
+
+    private void deliverLeftover(ReplayCallback callback) {
+        List<ZegoQuickStartTask> tasks = new ArrayList<>();
+        synchronized (this) {
+            if (!leftoverDelivered) {
+                leftoverDelivered = true;
+                for (ZegoQuickStartTask task : leftoverTasks) {
+                    // 回放完成前本进程已停止的任务不再返回
+                    if (openTasks.containsKey(task.getTaskId())) {
+                        tasks.add(task);
+                    }
+                }
+                leftoverTasks.clear();
+            }
+        }
+        mainHandler.post(() -> callback.onLeftoverTasks(tasks));
+    }
+
+    // ==================== 磁盘读写（后台线程） ====================
+
+    private void writeLoop() {
+        load();
+
+        ReplayCallback callback;
+        synchronized (this) {
+            loaded = true;
+            callback = pendingReplayCallback;
+            pendingReplayCallback = null;
+        }
+        if (callback != null) {
+            deliverLeftover(callback);
+        }
+
+        List<String> batch = new ArrayList<>();
+        while (true) {
+            try {
+                batch.add(pendingLines.take());
+            } catch (InterruptedException e) {
+                return;
+            }
+            pendingLines.drainTo(batch);
+            append(batch);
+            batch.clear();
+        }
+    }
+
+    /**
+     * 读取日志文件，合并到内存状态，并将文件压缩为只包含未停止任务
+     */
+    private void load() {
+        Map<String, Entry> fromDisk = new LinkedHashMap<>();
+        if (file.exists()) {
+            try (BufferedReader reader = new BufferedReader(new InputStreamReader(new FileInputStream(file), StandardCharsets.UTF_8))) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    applyLine(line, fromDisk);
+                }
+            } catch (IOException e) {
+                Log.e(TAG, "[任务日志] 读取失败", e);
+            }
+        }
+
+        long expireBefore = System.currentTimeMillis() - ZegoQuickStartConstants.TASK_JOURNAL_MAX_TASK_AGE_MS;
+        List<Entry> retained = new ArrayList<>();
+        synchronized (this) {
+            for (Entry entry : fromDisk.values()) {
+                if (entry.createTime < expireBefore) {
+                    Log.d(TAG, "[任务日志] 丢弃过期记录: " + entry.taskId);
+                    continue;
+                }
+                if (stoppedThisSession.contains(entry.taskId) || openTasks.containsKey(entry.taskId)) {
+                    continue;
+                }
+                openTasks.put(entry.taskId, entry);
+                leftoverTasks.add(entry.toTask());
+            }
+            retained.addAll(openTasks.values());
+        }
+        Log.d(TAG, "[任务日志] 回放完成, 遗留未停止任务: " + leftoverTasks.size());
+
+        compact(retained);
+    }
+
+    /**
+     * 解析一行记录；格式不完整的行（崩溃时写了一半）直接忽略
+     */
+    private static void applyLine(String line, Map<String, Entry> tasks) {
+        String[] fields = line.split(SEPARATOR, -1);
+        if (fields.length == 5 && OP_CREATED.equals(fields[0]) && !fields[1].isEmpty()) {
+            long createTime;
+            try {
+                createTime = Long.parseLong(fields[4]);
+            } catch (NumberFormatException e) {
+                return;
+            }
+            tasks.put(fields[1], new Entry(fields[1], fields[2], fields[3], createTime));
+        } else if (fields.length == 2 && OP_STOPPED.equals(fields[0])) {
+            tasks.remove(fields[1]);
+        }
+    }
+
+    /**
+     * 先写临时文件并 fsync，再原子替换日志文件，任何时刻崩溃都不会丢失未停止的任务
+     */
+    private void compact(List<Entry> retained) {
+        StringBuilder content = new StringBuilder();
+        for (Entry entry : retained) {
+            content.append(entry.toLine());
+        }
+        try (FileOutputStream out = new FileOutputStream(compactFile, false)) {
+            out.write(content.toString().getBytes(StandardCharsets.UTF_8));
+            out.getFD().sync();
+        } catch (IOException e) {
+            Log.e(TAG, "[任务日志] 压缩失败", e);
+            return;
+        }
+        if (!compactFile.renameTo(file)) {
+            Log.e(TAG, "[任务日志] 替换日志文件失败");
+        }
+    }
+
+    private void append(List<String> lines) {
+        StringBuilder content = new StringBuilder();
+        for (String line : lines) {
+            content.append(line);
+        }
+        try (FileOutputStream out = new FileOutputStream(file, true)) {
+            out.write(content.toString().getBytes(StandardCharsets.UTF_8));
+            out.getFD().sync();
+        } catch (IOException e) {
+            Log.e(TAG, "[任务日志] 写入失败, 记录数: " + lines.size(), e);
+        }
+    }
+
+    private static String sanitize(String value) {
+        return value.replace(SEPARATOR, " ").replace("\n", " ");
+    }
+}
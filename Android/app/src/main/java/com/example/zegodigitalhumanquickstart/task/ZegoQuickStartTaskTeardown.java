@@ -0,0 +1,283 @@
+package com.example.zegodigitalhumanquickstart.task;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.os.SystemClock;
+import android.util.Log;
+
+import com.example.zegodigitalhumanquickstart.ZegoQuickStartConstants;
+import com.example.zegodigitalhumanquickstart.model.ZegoQuickStartTask;
+import com.example.zegodigitalhumanquickstart.network.ZegoQuickStartAPIConstants;
+import com.example.zegodigitalhumanquickstart.network.ZegoQuickStartAPIService;
+import com.example.zegodigitalhumanquickstart.network.ZegoQuickStartRequestPolicy;
+import com.google.gson.JsonObject;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 批量停止任务
+ * 以有限并发并行调用 StopDigitalHumanStreamTask，每个调用有独立的截止时间，全部结束后汇总结果
+ * 优先任务（通常是当前任务）会最先调度，并在调用停止接口前执行 {@link BeforeStopHook}
+ */
+public class ZegoQuickStartTaskTeardown {
+
+    private static final String TAG = "ZegoQuickStartTaskTeardown";
+
+    private final ZegoQuickStartAPIService apiService;
+    private final Handler timeoutHandler;
+    private final int maxConcurrency;
+    private final long callDeadlineMs;
+
+    /**
+     * 停止接口调用前的准备工作，完成后必须调用 proceed
+     */
+    public interface BeforeStopHook {
+        void run(Runnable proceed);
+    }
+
+    /**
+     * 批量停止回调，在API服务的回调线程（默认主线程）执行，超时回调在主线程执行
+     */
+    public interface Listener {
+        /**
+         * 单个任务停止结束
+         * @param task 任务
+         * @param success 停止接口是否成功（超时视为失败）
+         */
+        void onTaskStopped(ZegoQuickStartTask task, boolean success);
+
+        /**
+         * 所有任务处理结束
+         */
+        void onComplete(Result result);
+    }
+
+    /**
+     * 批量停止结果
+     */
+    public static class Result {
+        private final int total;
+        private final int succeeded;
+        private final int failed;
+        private final int timedOut;
+        private final List<String> failedTaskIds;
+        private final long elapsedMs;
+
+        Result(int total, int succeeded, int failed, int timedOut, List<String> failedTaskIds, long elapsedMs) {
+            this.total = total;
+            this.succeeded = succeeded;
+            this.failed = failed;
+            this.timedOut = timedOut;
+            this.failedTaskIds = Collections.unmodifiableList(failedTaskIds);
+            this.elapsedMs = elapsedMs;
+        }
+
+        public int getTotal() {
+            return total;
+        }
+
+        public int getSucceeded() {
+            return succeeded;
+        }
+
+        /**
+         * 失败数，包含超时
+         */
+        public int getFailed() {
+            return failed;
+        }
+
+        public int getTimedOut() {
+            return timedOut;
+        }
+
+        /**
+         * 失败或超时的任务ID
+         */
+        public List<String> getFailedTaskIds() {
+            return failedTaskIds;
+        }
+
+        public long getElapsedMs() {
+            return elapsedMs;
+        }
+
+        @Override
+        public String toString() {
+            return "Result{" +
+                    "total=" + total +
+                    ", succeeded=" + succeeded +
+                    ", failed=" + failed +
+                    ", timedOut=" + timedOut +
+                    ", elapsedMs=" + elapsedMs +
+                    '}';
+        }
+    }
+
+    /**
+     * 单个停止调用的截止时间覆盖停止接口的全部重试（含退避），避免重试仍在进行时被判定超时、
+     * 提前释放并发名额或忽略之后的成功结果
+     */
+    public ZegoQuickStartTaskTeardown(ZegoQuickStartAPIService apiService) {
+        this(apiService, ZegoQuickStartConstants.TASK_TEARDOWN_MAX_CONCURRENCY,
+                ZegoQuickStartRequestPolicy.forAction(ZegoQuickStartAPIConstants.ACTION_STOP_DIGITAL_HUMAN_STREAM_TASK).getTotalBudgetMs()
+                        + ZegoQuickStartConstants.TASK_TEARDOWN_CALL_DEADLINE_SLACK_MS);
+    }
+
+    /**
+     * @param apiService     API服务
+     * @param maxConcurrency 最大并发停止数
+     * @param callDeadlineMs 单个停止调用的截止时间（毫秒），超时后不再等待其回调；应不小于停止接口策略的总耗时上限
+     */
+    public ZegoQuickStartTaskTeardown(ZegoQuickStartAPIService apiService, int maxConcurrency, long callDeadlineMs) {
+        this.apiService = apiService;
+        this.maxConcurrency = Math.max(1, maxConcurrency);
+        this.callDeadlineMs = callDeadlineMs;
+        this.timeoutHandler = new Handler(Looper.getMainLooper());
+    }
+
+    /**
+     * 批量停止任务
+     *
+     * @param tasks          待停止的任务
+     * @param priorityTaskId 优先处理的任务ID，可为null
+     * @param priorityHook   优先任务调用停止接口前执行的操作，可为null
+     * @param listener       回调
+     */
+    public void stopAll(List<ZegoQuickStartTask> tasks, String priorityTaskId, BeforeStopHook priorityHook, Listener listener) {
+        new Run(tasks, priorityTaskId, priorityHook, listener).start();
+    }
+
+    /**
+     * 单次批量停止的执行状态
+     */
+    private final class Run {
+        private final Deque<ZegoQuickStartTask> pending = new ArrayDeque<>();
+        private final String priorityTaskId;
+        private final BeforeStopHook priorityHook;
+        private final Listener listener;
+        private final int total;
+        private final long startTime;
+        private final List<String> failedTaskIds = new ArrayList<>();
+
+        private int inFlight;
+        private int finished;
+        private int succeeded;
+        private int timedOut;
+
+        Run(List<ZegoQuickStartTask> tasks, String priorityTaskId, BeforeStopHook priorityHook, Listener listener) {
+            this.priorityTaskId = priorityTaskId;
+            this.priorityHook = priorityHook;
+            this.listener = listener;
+            for (ZegoQuickStartTask task : tasks) {
+                if (priorityTaskId != null && priorityTaskId.equals(task.getTaskId())) {
+                    pending.addFirst(task);
+                } else {
+                    pending.addLast(task);
+                }
+            }
+            this.total = pending.size();
+            this.startTime = SystemClock.elapsedRealtime();
+        }
+
+        void start() {
+            Log.d(TAG, "[任务] 开始批量停止: total=" + total + ", 并发=" + maxConcurrency);
+            if (total == 0) {
+                complete();
+                return;
+            }
+            schedule();
+        }
+
+        private void schedule() {
+            List<ZegoQuickStartTask> toStart = new ArrayList<>();
+            synchronized (this) {
+                while (inFlight < maxConcurrency && !pending.isEmpty()) {
+                    toStart.add(pending.pollFirst());
+                    inFlight++;
+                }
+            }
+            for (ZegoQuickStartTask task : toStart) {
+                if (priorityHook != null && task.getTaskId().equals(priorityTaskId)) {
+                    priorityHook.run(() -> callStop(task));
+                } else {
+                    callStop(task);
+                }
+            }
+        }
+
+        private void callStop(ZegoQuickStartTask task) {
+            AtomicBoolean done = new AtomicBoolean(false);
+            Runnable timeout = () -> {
+                if (done.compareAndSet(false, true)) {
+                    Log.w(TAG, "[任务] 停止任务超时: " + task.getTaskId());
+                    onCallFinished(task, false, true);
+                }
+            };
+            timeoutHandler.postDelayed(timeout, callDeadlineMs);
+
+            apiService.stopDigitalHumanStreamTask(task.getTaskId(), new ZegoQuickStartAPIService.CommonCallback() {
+                @Override
+                public void onSuccess(JsonObject data) {
+                    if (done.compareAndSet(false, true)) {
+                        timeoutHandler.removeCallbacks(timeout);
+                        onCallFinished(task, true, false);
+                    }
+                }
+
+                @Override
+                public void onFailure(int code, String message) {
+                    if (done.compareAndSet(false, true)) {
+                        timeoutHandler.removeCallbacks(timeout);
+                        Log.w(TAG, "[任务] 停止任务失败: " + task.getTaskId() + ", " + message);
+                        onCallFinished(task, false, false);
+                    }
+                }
+            });
+        }
+
+        private void onCallFinished(ZegoQuickStartTask task, boolean success, boolean isTimeout) {
+            boolean allDone;
+            synchronized (this) {
+                inFlight--;
+                finished++;
+                if (success) {
+                    succeeded++;
+                } else {
+                    failedTaskIds.add(task.getTaskId());
+                    if (isTimeout) {
+                        timedOut++;
+                    }
+                }
+                allDone = finished == total;
+            }
+
+            if (listener != null) {
+                listener.onTaskStopped(task, success);
+            }
+
+            if (allDone) {
+                complete();
+            } else {
+                schedule();
+            }
+        }
+
+        private void complete() {
+            Result result;
+            synchronized (this) {
+                result = new Result(total, succeeded, total - succeeded, timedOut,
+                        new ArrayList<>(failedTaskIds), SystemClock.elapsedRealtime() - startTime);
+            }
+            Log.d(TAG, "[任务] 批量停止完成: " + result);
+            if (listener != null) {
+                listener.onComplete(result);
+            }
+        }
+    }
+}
@@ -231,6 +231,15 @@ public class ZegoQuickStartDriveControlView extends LinearLayout {
         }
     }
     
+    /**
+     * 结束所有驱动按钮的加载状态（任务停止时进行中的驱动请求被取消，不会再回调）
+     */
+    public void resetLoading() {
+        for (ZegoQuickStartDriveType driveType : ZegoQuickStartDriveType.values()) {
+            setLoading(driveType, false);
+        }
+    }
+    
     public void setDriveButtonsEnabled(boolean enabled) {
         textDriveButton.setEnabled(enabled);
         audioDriveButton.setEnabled(enabled);
@@ -0,0 +1,157 @@
+package com.example.zegodigitalhumanquickstart.network;
+
+import com.example.zegodigitalhumanquickstart.model.ZegoQuickStartTask;
+import com.google.gson.Gson;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonReader;
+
+import org.junit.Assume;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Locale;
+
+import static org.junit.Assert.*;
+
+/**
+ * 响应解码测试：流式信封解码与原先 字符串 -> JsonObject 树 -> fromJson 路径的结果一致性，
+ * 以及两条路径在 JVM 上的分配字节数（ThreadMXBean）和耗时对比
+ * 响应体预先编码为 UTF-8 字节，两条路径都从字节开始解码，对应 OkHttp 的 body.string() / body.charStream()
+ */
+public class ZegoQuickStartResponseDecodersTest {
+
+    private static final int TASK_COUNT = 200;
+    private static final int WARMUP_ROUNDS = 300;
+    private static final int MEASURE_ROUNDS = 500;
+    private static final Type TASK_LIST_TYPE = new TypeToken<List<ZegoQuickStartTask>>() {}.getType();
+
+    private final Gson gson = new Gson();
+
+    @Test
+    public void readEnvelope_taskList_matchesTreeDecoding() throws IOException {
+        byte[] body = taskListBody(TASK_COUNT);
+
+        ZegoQuickStartResponse<List<ZegoQuickStartTask>> response = decodeStream(body);
+        List<ZegoQuickStartTask> tree = decodeTree(body);
+
+        assertEquals(0, response.getCode());
+        assertEquals("success", response.getMessage());
+        assertEquals(TASK_COUNT, response.getData().size());
+        assertEquals(tree.size(), response.getData().size());
+        for (int i = 0; i < TASK_COUNT; i++) {
+            ZegoQuickStartTask streamed = response.getData().get(i);
+            assertEquals(tree.get(i).getTaskId(), streamed.getTaskId());
+            assertEquals(tree.get(i).getRoomId(), streamed.getRoomId());
+            assertEquals(tree.get(i).getStreamId(), streamed.getStreamId());
+            assertEquals(tree.get(i).getUserId(), streamed.getUserId());
+            assertEquals(tree.get(i).getAppId(), streamed.getAppId());
+        }
+    }
+
+    @Test
+    public void readEnvelope_skipsUnknownFieldsInAnyOrder() throws IOException {
+        byte[] body = ("{\"Data\":{\"TaskList\":[{\"TaskId\":\"t1\"}],\"Extra\":[1,2]},"
+                + "\"RequestId\":\"r\",\"Message\":null,\"Code\":3}").getBytes(StandardCharsets.UTF_8);
+
+        ZegoQuickStartResponse<List<ZegoQuickStartTask>> response = decodeStream(body);
+
+        assertEquals(3, response.getCode());
+        assertEquals("", response.getMessage());
+        assertEquals(1, response.getData().size());
+        assertEquals("t1", response.getData().get(0).getTaskId());
+    }
+
+    /**
+     * 流式解码每次分配的字节数应少于树形解码；耗时只做宽松比较，避免受机器负载影响误报
+     */
+    @Test
+    public void readEnvelope_allocatesLessThanTreeDecoding() throws IOException {
+        java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        Assume.assumeTrue("需要 HotSpot 的线程分配统计", bean instanceof com.sun.management.ThreadMXBean);
+        com.sun.management.ThreadMXBean threadBean = (com.sun.management.ThreadMXBean) bean;
+        Assume.assumeTrue("线程分配统计未开启", threadBean.isThreadAllocatedMemorySupported()
+                && threadBean.isThreadAllocatedMemoryEnabled());
+        long threadId = Thread.currentThread().getId();
+        byte[] body = taskListBody(TASK_COUNT);
+
+        for (int i = 0; i < WARMUP_ROUNDS; i++) {
+            decodeStream(body);
+            decodeTree(body);
+        }
+
+        long streamBytes = threadBean.getThreadAllocatedBytes(threadId);
+        long streamNanos = System.nanoTime();
+        for (int i = 0; i < MEASURE_ROUNDS; i++) {
+            decodeStream(body);
+        }
+        streamNanos = System.nanoTime() - streamNanos;
+        streamBytes = threadBean.getThreadAllocatedBytes(threadId) - streamBytes;
+
+        long treeBytes = threadBean.getThreadAllocatedBytes(threadId);
+        long treeNanos = System.nanoTime();
+        for (int i = 0; i < MEASURE_ROUNDS; i++) {
+            decodeTree(body);
+        }
+        treeNanos = System.nanoTime() - treeNanos;
+        treeBytes = threadBean.getThreadAllocatedBytes(threadId) - treeBytes;
+
+        String summary = String.format(Locale.US,
+                "body=%dB, 流式: %dB/次 %.1fus/次, 树形: %dB/次 %.1fus/次",
+                body.length,
+                streamBytes / MEASURE_ROUNDS, streamNanos / 1000.0 / MEASURE_ROUNDS,
+                treeBytes / MEASURE_ROUNDS, treeNanos / 1000.0 / MEASURE_ROUNDS);
+        assertTrue(summary, streamBytes < treeBytes);
+        assertTrue(summary, streamNanos < treeNanos * 2);
+    }
+
+    // ==================== 解码路径 ====================
+
+    /**
+     * 当前路径：JsonReader 直接读取响应流，Data 一次绑定为任务列表
+     */
+    private ZegoQuickStartResponse<List<ZegoQuickStartTask>> decodeStream(byte[] body) throws IOException {
+        try (JsonReader reader = new JsonReader(new InputStreamReader(new ByteArrayInputStream(body), StandardCharsets.UTF_8))) {
+            return ZegoQuickStartResponseDecoders.readEnvelope(reader, gson, ZegoQuickStartResponseDecoders.taskList());
+        }
+    }
+
+    /**
+     * 原先路径：整个响应体读成字符串，解析为 JsonObject 树，再把 Data.Tasks 转换为模型
+     */
+    private List<ZegoQuickStartTask> decodeTree(byte[] body) {
+        String text = new String(body, StandardCharsets.UTF_8);
+        JsonObject root = gson.fromJson(text, JsonObject.class);
+        JsonObject data = root.getAsJsonObject("Data");
+        JsonArray tasks = data.getAsJsonArray("Tasks");
+        return gson.fromJson(tasks, TASK_LIST_TYPE);
+    }
+
+    // ==================== 测试数据 ====================
+
+    private static byte[] taskListBody(int count) {
+        StringBuilder builder = new StringBuilder("{\"Code\":0,\"Message\":\"success\",\"RequestId\":\"req_0001\",\"Data\":{\"Total\":")
+                .append(count).append(",\"Tasks\":[");
+        for (int i = 0; i < count; i++) {
+            if (i > 0) {
+                builder.append(',');
+            }
+            builder.append("{\"TaskId\":\"task_").append(i)
+                    .append("\",\"RoomId\":\"room_").append(i)
+                    .append("\",\"StreamId\":\"stream_").append(i)
+                    .append("\",\"UserId\":\"user_").append(i)
+                    .append("\",\"AppId\":").append(1000000000L + i)
+                    .append(",\"Status\":2,\"CreateTime\":").append(1700000000000L + i)
+                    .append(",\"DigitalHumanId\":\"dh_").append(i % 8).append("\"}");
+        }
+        builder.append("]}}");
+        return builder.toString().getBytes(StandardCharsets.UTF_8);
+    }
+}
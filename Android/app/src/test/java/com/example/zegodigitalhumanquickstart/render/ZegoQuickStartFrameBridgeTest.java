@@ -0,0 +1,138 @@
+package com.example.zegodigitalhumanquickstart.render;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.nio.ByteBuffer;
+
+import im.zego.digitalmobile.IZegoDigitalMobile;
+import im.zego.zegoexpress.constants.ZegoVideoFrameFormat;
+import im.zego.zegoexpress.entity.ZegoVideoFrameParam;
+
+import static org.junit.Assert.*;
+
+/**
+ * 远端视频帧转发桥测试：转发内容正确，且热路径每帧不产生对象分配
+ * 数字人SDK用动态代理桩实现，代理调用本身会分配参数数组，以直接调用代理的分配量作为基线扣除
+ */
+public class ZegoQuickStartFrameBridgeTest {
+
+    private static final String STREAM_ID = "stream_test";
+    private static final int WARMUP_FRAMES = 200_000;
+    private static final int MEASURED_FRAMES = 100_000;
+    // 读取线程分配计数本身的开销，远小于每帧一个对象的量级
+    private static final long MEASURE_SLACK_BYTES = 1024;
+
+    /**
+     * 记录最后一次 onRemoteVideoFrameRawData 调用，保留参数数组使其每次都真实分配，基线稳定
+     */
+    private static final class RecordingHandler implements InvocationHandler {
+        Object[] lastArgs;
+        long frameCount;
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) {
+            if ("onRemoteVideoFrameRawData".equals(method.getName())) {
+                lastArgs = args;
+                frameCount++;
+            }
+            return null;
+        }
+    }
+
+    private RecordingHandler handler;
+    private IZegoDigitalMobile digitalMobile;
+    private ZegoQuickStartFrameBridge bridge;
+    private ByteBuffer[] data;
+    private int[] dataLength;
+    private ZegoVideoFrameParam param;
+
+    @Before
+    public void setUp() {
+        handler = new RecordingHandler();
+        digitalMobile = (IZegoDigitalMobile) Proxy.newProxyInstance(
+                IZegoDigitalMobile.class.getClassLoader(), new Class<?>[]{IZegoDigitalMobile.class}, handler);
+        bridge = new ZegoQuickStartFrameBridge();
+        bridge.setSession(STREAM_ID, digitalMobile);
+
+        data = new ByteBuffer[]{ByteBuffer.allocateDirect(64), ByteBuffer.allocateDirect(16), ByteBuffer.allocateDirect(16)};
+        dataLength = new int[]{64, 16, 16};
+        param = new ZegoVideoFrameParam();
+        param.format = ZegoVideoFrameFormat.NV12;
+        param.width = 8;
+        param.height = 8;
+        param.rotation = 90;
+        param.strides = new int[]{8, 4, 4, 0};
+    }
+
+    @Test
+    public void onRemoteVideoFrame_forwardsConvertedParam() {
+        assertTrue(bridge.onRemoteVideoFrame(data, dataLength, param, STREAM_ID));
+
+        Object[] args = handler.lastArgs;
+        assertSame(data, args[0]);
+        assertSame(dataLength, args[1]);
+        IZegoDigitalMobile.ZegoVideoFrameParam sdkParam = (IZegoDigitalMobile.ZegoVideoFrameParam) args[2];
+        assertEquals(IZegoDigitalMobile.ZegoVideoFrameFormat.NV12, sdkParam.format);
+        assertEquals(8, sdkParam.width);
+        assertEquals(8, sdkParam.height);
+        assertEquals(90, sdkParam.rotation);
+        assertEquals(4, sdkParam.strides[1]);
+        assertEquals(STREAM_ID, args[3]);
+    }
+
+    @Test
+    public void onRemoteVideoFrame_ignoresOtherStreamsAndClearedSession() {
+        assertFalse(bridge.onRemoteVideoFrame(data, dataLength, param, "other_stream"));
+        bridge.clearSession();
+        assertFalse(bridge.onRemoteVideoFrame(data, dataLength, param, STREAM_ID));
+        assertEquals(0, handler.frameCount);
+    }
+
+    @Test
+    public void onRemoteVideoFrame_reusesFrameParamAcrossFrames() {
+        bridge.onRemoteVideoFrame(data, dataLength, param, STREAM_ID);
+        Object first = handler.lastArgs[2];
+        param.width = 16;
+        bridge.onRemoteVideoFrame(data, dataLength, param, STREAM_ID);
+
+        assertSame(first, handler.lastArgs[2]);
+        assertEquals(16, ((IZegoDigitalMobile.ZegoVideoFrameParam) first).width);
+    }
+
+    /**
+     * 循环转发，扣除桩实现自身的分配后，每帧分配应为0
+     */
+    @Test
+    public void onRemoteVideoFrame_allocatesNothingPerFrame() {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+        IZegoDigitalMobile.ZegoVideoFrameParam sdkParam = new IZegoDigitalMobile.ZegoVideoFrameParam();
+
+        // 预热，使两条路径都完成 JIT 编译
+        for (int i = 0; i < WARMUP_FRAMES; i++) {
+            digitalMobile.onRemoteVideoFrameRawData(data, dataLength, sdkParam, STREAM_ID);
+            bridge.onRemoteVideoFrame(data, dataLength, param, STREAM_ID);
+        }
+
+        long begin = threads.getThreadAllocatedBytes(threadId);
+        for (int i = 0; i < MEASURED_FRAMES; i++) {
+            digitalMobile.onRemoteVideoFrameRawData(data, dataLength, sdkParam, STREAM_ID);
+        }
+        long stubBytes = threads.getThreadAllocatedBytes(threadId) - begin;
+
+        begin = threads.getThreadAllocatedBytes(threadId);
+        for (int i = 0; i < MEASURED_FRAMES; i++) {
+            bridge.onRemoteVideoFrame(data, dataLength, param, STREAM_ID);
+        }
+        long bridgeBytes = threads.getThreadAllocatedBytes(threadId) - begin;
+
+        assertEquals(2L * (WARMUP_FRAMES + MEASURED_FRAMES), handler.frameCount);
+        assertTrue("转发桥每帧产生了分配: bridge=" + bridgeBytes + "B, stub=" + stubBytes + "B, frames=" + MEASURED_FRAMES,
+                bridgeBytes <= stubBytes + MEASURE_SLACK_BYTES);
+    }
+}
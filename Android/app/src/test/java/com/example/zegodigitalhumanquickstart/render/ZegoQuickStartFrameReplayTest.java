@@ -0,0 +1,191 @@
+package com.example.zegodigitalhumanquickstart.render;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import im.zego.zegoexpress.constants.ZegoVideoFrameFormat;
+import im.zego.zegoexpress.entity.ZegoVideoFrameParam;
+
+import static org.junit.Assert.*;
+
+/**
+ * 视频帧/SEI采集 -> 回放往返测试，以及经帧流水线回放的顺序和缓冲区归还
+ * 数字人SDK用记录型 Sink 代替，android.util.Log 依赖 unitTests.returnDefaultValues
+ */
+public class ZegoQuickStartFrameReplayTest {
+
+    private static final String STREAM_ID = "stream_test";
+    private static final int WIDTH = 64;
+    private static final int HEIGHT = 32;
+    private static final int FRAME_COUNT = 120;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    /**
+     * 记录回放顺序和内容的 Sink，帧只记录首字节和参数，SEI记录文本
+     */
+    private static final class RecordingSink implements ZegoQuickStartFramePipeline.Sink {
+        final List<String> events = Collections.synchronizedList(new ArrayList<>());
+
+        @Override
+        public void onFrame(ByteBuffer[] data, int[] dataLength, ZegoVideoFrameParam param, String streamID) {
+            assertEquals(STREAM_ID, streamID);
+            assertEquals(WIDTH, param.width);
+            assertEquals(HEIGHT, param.height);
+            assertEquals(ZegoVideoFrameFormat.I420, param.format);
+            assertEquals(WIDTH, param.strides[0]);
+            assertEquals(WIDTH / 2, param.strides[1]);
+            assertEquals(WIDTH * HEIGHT, dataLength[0]);
+            assertEquals(WIDTH * HEIGHT / 4, dataLength[2]);
+            byte marker = data[0].get(data[0].position());
+            assertEquals(marker, data[2].get(data[2].position() + dataLength[2] - 1));
+            events.add("F" + marker);
+        }
+
+        @Override
+        public void onSEI(String streamID, byte[] data) {
+            assertEquals(STREAM_ID, streamID);
+            events.add(new String(data, StandardCharsets.UTF_8));
+        }
+    }
+
+    @Test
+    public void replay_deliversCapturedFramesAndSEIInOrder() throws Exception {
+        File file = folder.newFile("capture.bin");
+        List<String> expected = capture(file, 1 << 20);
+
+        RecordingSink sink = new RecordingSink();
+        ZegoQuickStartFrameReplay.Result result = new ZegoQuickStartFrameReplay(file).replay(sink, false);
+
+        assertEquals(expected, sink.events);
+        assertEquals(FRAME_COUNT, result.getFrameCount());
+        assertEquals(FRAME_COUNT / 10, result.getSEICount());
+        assertEquals(FRAME_COUNT, result.getFrameCost().getCount());
+    }
+
+    @Test
+    public void capture_stopsWhenFileIsFullAndRemainsReplayable() throws Exception {
+        File file = folder.newFile("capture_small.bin");
+        int frameBytes = WIDTH * HEIGHT * 3 / 2;
+        ZegoQuickStartFrameCapture capture = new ZegoQuickStartFrameCapture(file, frameBytes * 5L);
+        ByteBuffer[] planes = newPlanes();
+        ZegoVideoFrameParam param = newParam();
+        int written = 0;
+        for (int i = 0; i < 10; i++) {
+            fillPlanes(planes, (byte) i);
+            if (capture.writeFrame(planes, planeLengths(), param, STREAM_ID)) {
+                written++;
+            }
+        }
+        capture.close();
+
+        assertTrue(written > 0 && written < 10);
+        assertEquals(10 - written, capture.getDroppedCount());
+        ZegoQuickStartFrameReplay.Result result = new ZegoQuickStartFrameReplay(file).replay(new RecordingSink(), false);
+        assertEquals(written, result.getFrameCount());
+    }
+
+    /**
+     * 经帧流水线回放：流水线线程复制平面后按入队顺序交给 Sink，所有缓冲区租约回放后归还
+     */
+    @Test
+    public void replay_throughPipeline_preservesOrderAndReleasesBuffers() throws Exception {
+        File file = folder.newFile("capture_pipeline.bin");
+        List<String> expected = capture(file, 1 << 20);
+
+        ZegoQuickStartPlaneBufferPool pool = new ZegoQuickStartPlaneBufferPool(8L << 20);
+        RecordingSink sink = new RecordingSink();
+        ZegoQuickStartFramePipeline pipeline = new ZegoQuickStartFramePipeline(
+                FRAME_COUNT + 1, ZegoQuickStartFramePipeline.Policy.BLOCK, 0, 1000, sink, pool);
+        pipeline.start();
+        ZegoQuickStartFrameReplay.Result result = new ZegoQuickStartFrameReplay(file).replay(new ZegoQuickStartFramePipeline.Sink() {
+            @Override
+            public void onFrame(ByteBuffer[] data, int[] dataLength, ZegoVideoFrameParam param, String streamID) {
+                pipeline.offerFrame(data, dataLength, param, streamID);
+            }
+
+            @Override
+            public void onSEI(String streamID, byte[] data) {
+                pipeline.offerSEI(streamID, data);
+            }
+        }, false);
+        // stop 会丢弃未消费的帧，先等流水线处理完
+        long deadline = System.currentTimeMillis() + 5000;
+        while (sink.events.size() < expected.size() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(5);
+        }
+        pipeline.stop();
+
+        assertEquals(expected, sink.events);
+        assertEquals(0, pool.getStats().getOutstanding());
+        assertEquals(FRAME_COUNT, result.getFrameCount());
+        assertEquals(FRAME_COUNT / 10, result.getSEICount());
+    }
+
+    // ==================== 测试数据 ====================
+
+    /**
+     * 采集 FRAME_COUNT 帧，每10帧后插入一条SEI
+     * @return 期望的回放事件序列
+     */
+    private static List<String> capture(File file, long maxBytes) throws Exception {
+        List<String> expected = new ArrayList<>();
+        ZegoQuickStartFrameCapture capture = new ZegoQuickStartFrameCapture(file, maxBytes);
+        ByteBuffer[] planes = newPlanes();
+        ZegoVideoFrameParam param = newParam();
+        for (int i = 0; i < FRAME_COUNT; i++) {
+            byte marker = (byte) i;
+            fillPlanes(planes, marker);
+            assertTrue(capture.writeFrame(planes, planeLengths(), param, STREAM_ID));
+            expected.add("F" + marker);
+            if (i % 10 == 9) {
+                String sei = "sei_" + i;
+                assertTrue(capture.writeSEI(STREAM_ID, sei.getBytes(StandardCharsets.UTF_8)));
+                expected.add(sei);
+            }
+        }
+        capture.close();
+        assertEquals(0, capture.getDroppedCount());
+        return expected;
+    }
+
+    private static ByteBuffer[] newPlanes() {
+        return new ByteBuffer[]{
+                ByteBuffer.allocateDirect(WIDTH * HEIGHT),
+                ByteBuffer.allocateDirect(WIDTH * HEIGHT / 4),
+                ByteBuffer.allocateDirect(WIDTH * HEIGHT / 4)
+        };
+    }
+
+    private static int[] planeLengths() {
+        return new int[]{WIDTH * HEIGHT, WIDTH * HEIGHT / 4, WIDTH * HEIGHT / 4};
+    }
+
+    private static void fillPlanes(ByteBuffer[] planes, byte value) {
+        for (ByteBuffer plane : planes) {
+            plane.clear();
+            while (plane.hasRemaining()) {
+                plane.put(value);
+            }
+            plane.flip();
+        }
+    }
+
+    private static ZegoVideoFrameParam newParam() {
+        ZegoVideoFrameParam param = new ZegoVideoFrameParam();
+        param.format = ZegoVideoFrameFormat.I420;
+        param.width = WIDTH;
+        param.height = HEIGHT;
+        param.strides = new int[]{WIDTH, WIDTH / 2, WIDTH / 2, 0};
+        return param;
+    }
+}
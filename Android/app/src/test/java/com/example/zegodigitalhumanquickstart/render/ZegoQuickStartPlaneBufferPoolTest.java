@@ -0,0 +1,168 @@
+package com.example.zegodigitalhumanquickstart.render;
+
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+
+import static org.junit.Assert.*;
+
+/**
+ * 视频平面缓冲池测试：命中/未命中统计、预算上限、租约引用计数、重复归还检测和空闲释放
+ * trim 会输出 android.util.Log，依赖 unitTests.returnDefaultValues
+ */
+public class ZegoQuickStartPlaneBufferPoolTest {
+
+    private static final int KB = 1024;
+    private static final int MB = 1024 * KB;
+
+    @Test
+    public void acquire_roundsUpToSizeClassAndLimitsToRequestedLength() {
+        ZegoQuickStartPlaneBufferPool pool = new ZegoQuickStartPlaneBufferPool(16 * MB);
+
+        ZegoQuickStartPlaneBufferPool.Lease small = pool.acquire(100);
+        ZegoQuickStartPlaneBufferPool.Lease medium = pool.acquire(5000);
+
+        assertTrue(small.buffer().isDirect());
+        assertEquals(4 * KB, small.buffer().capacity());
+        assertEquals(100, small.buffer().limit());
+        assertEquals(0, small.buffer().position());
+        assertEquals(8 * KB, medium.buffer().capacity());
+        assertEquals(12 * KB, pool.getStats().getAllocatedBytes());
+    }
+
+    @Test
+    public void acquire_reusesReleasedBufferOfSameClass() {
+        ZegoQuickStartPlaneBufferPool pool = new ZegoQuickStartPlaneBufferPool(16 * MB);
+
+        ZegoQuickStartPlaneBufferPool.Lease first = pool.acquire(6000);
+        ByteBuffer buffer = first.buffer();
+        buffer.put((byte) 1);
+        first.release();
+        ZegoQuickStartPlaneBufferPool.Lease second = pool.acquire(7000);
+
+        assertSame(buffer, second.buffer());
+        assertEquals(0, second.buffer().position());
+        assertEquals(7000, second.buffer().limit());
+        ZegoQuickStartPlaneBufferPool.Stats stats = pool.getStats();
+        assertEquals(1, stats.getHits());
+        assertEquals(1, stats.getMisses());
+        assertEquals(1, stats.getOutstanding());
+        assertEquals(0, stats.getIdleBytes());
+    }
+
+    @Test
+    public void acquire_differentClassIsMiss() {
+        ZegoQuickStartPlaneBufferPool pool = new ZegoQuickStartPlaneBufferPool(16 * MB);
+
+        pool.acquire(4 * KB).release();
+        pool.acquire(4 * KB + 1).release();
+
+        ZegoQuickStartPlaneBufferPool.Stats stats = pool.getStats();
+        assertEquals(0, stats.getHits());
+        assertEquals(2, stats.getMisses());
+        assertEquals(12 * KB, stats.getIdleBytes());
+    }
+
+    @Test
+    public void acquire_overBudget_evictsIdleThenRejects() {
+        ZegoQuickStartPlaneBufferPool pool = new ZegoQuickStartPlaneBufferPool(8 * MB);
+
+        ZegoQuickStartPlaneBufferPool.Lease held = pool.acquire(3 * MB);   // 4MB 级
+        pool.acquire(3 * MB).release();                                     // 空闲 4MB
+        ZegoQuickStartPlaneBufferPool.Lease evicting = pool.acquire(MB);    // 1MB 级，需淘汰空闲的 4MB
+        assertNotNull(evicting);
+        assertEquals(4 * MB, pool.getStats().getTrimmedBytes());
+
+        ZegoQuickStartPlaneBufferPool.Lease rejected = pool.acquire(4 * MB);
+        assertNull(rejected);
+        ZegoQuickStartPlaneBufferPool.Stats stats = pool.getStats();
+        assertEquals(1, stats.getRejected());
+        assertEquals(2, stats.getOutstanding());
+        assertEquals(5 * MB, stats.getAllocatedBytes());
+        assertTrue(stats.getPeakBytes() <= 8 * MB);
+
+        held.release();
+        evicting.release();
+        assertEquals(0, pool.getStats().getOutstanding());
+    }
+
+    @Test
+    public void acquire_largerThanMaxClass_isUnpooled() {
+        ZegoQuickStartPlaneBufferPool pool = new ZegoQuickStartPlaneBufferPool(32 * MB);
+
+        ZegoQuickStartPlaneBufferPool.Lease lease = pool.acquire(9 * MB);
+        assertEquals(9 * MB, lease.buffer().capacity());
+        lease.release();
+
+        ZegoQuickStartPlaneBufferPool.Stats stats = pool.getStats();
+        assertEquals(0, stats.getAllocatedBytes());
+        assertEquals(0, stats.getIdleBytes());
+        assertEquals(0, stats.getOutstanding());
+    }
+
+    @Test
+    public void retain_keepsBufferUntilLastRelease() {
+        ZegoQuickStartPlaneBufferPool pool = new ZegoQuickStartPlaneBufferPool(16 * MB);
+        ZegoQuickStartPlaneBufferPool.Lease lease = pool.acquire(100);
+
+        assertSame(lease, lease.retain());
+        lease.release();
+        assertEquals(1, pool.getStats().getOutstanding());
+        assertEquals(0, pool.getStats().getIdleBytes());
+
+        lease.release();
+        assertEquals(0, pool.getStats().getOutstanding());
+        assertEquals(4 * KB, pool.getStats().getIdleBytes());
+    }
+
+    @Test
+    public void release_twice_throwsAndDoesNotRecycleAgain() {
+        ZegoQuickStartPlaneBufferPool pool = new ZegoQuickStartPlaneBufferPool(16 * MB);
+        ZegoQuickStartPlaneBufferPool.Lease lease = pool.acquire(100);
+        lease.release();
+
+        assertThrows(IllegalStateException.class, lease::release);
+
+        ZegoQuickStartPlaneBufferPool.Stats stats = pool.getStats();
+        assertEquals(0, stats.getOutstanding());
+        assertEquals(4 * KB, stats.getIdleBytes());
+        // 重复归还没有把缓冲区再放进空闲队列：之后两次租用只有一次命中
+        pool.acquire(100);
+        pool.acquire(100);
+        assertEquals(1, pool.getStats().getHits());
+    }
+
+    @Test
+    public void retain_afterRelease_throws() {
+        ZegoQuickStartPlaneBufferPool pool = new ZegoQuickStartPlaneBufferPool(16 * MB);
+        ZegoQuickStartPlaneBufferPool.Lease lease = pool.acquire(100);
+        lease.release();
+
+        assertThrows(IllegalStateException.class, lease::retain);
+        assertEquals(0, pool.getStats().getOutstanding());
+    }
+
+    @Test
+    public void trim_releasesIdleBuffersOnly() {
+        ZegoQuickStartPlaneBufferPool pool = new ZegoQuickStartPlaneBufferPool(16 * MB);
+        ZegoQuickStartPlaneBufferPool.Lease held = pool.acquire(MB);
+        pool.acquire(MB).release();
+        pool.acquire(64 * KB).release();
+        pool.acquire(64 * KB).release();
+
+        pool.trim(0.5);
+        ZegoQuickStartPlaneBufferPool.Stats half = pool.getStats();
+        assertTrue(half.getIdleBytes() >= 0 && half.getIdleBytes() < MB + 64 * KB);
+        assertEquals(half.getAllocatedBytes(), MB + half.getIdleBytes());
+
+        pool.trim(0);
+        ZegoQuickStartPlaneBufferPool.Stats empty = pool.getStats();
+        assertEquals(0, empty.getIdleBytes());
+        assertEquals(MB, empty.getAllocatedBytes());
+        assertEquals(1, empty.getOutstanding());
+        assertEquals(MB + 64 * KB, empty.getTrimmedBytes());
+
+        held.release();
+        assertEquals(MB, pool.getStats().getIdleBytes());
+    }
+}
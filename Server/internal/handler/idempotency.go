@@ -0,0 +1,92 @@
+package handler
+
+import (
+	"encoding/json"
+	"net/http"
+	"sync"
+	"time"
+
+	"zego-digital-human-server/internal/logger"
+	"zego-digital-human-server/pkg/response"
+)
+
+// idempotentResultTTL 成功结果的保留时间，覆盖客户端重试窗口即可
+const idempotentResultTTL = 10 * time.Minute
+
+// idempotentResult 同一幂等键的执行结果
+type idempotentResult struct {
+	done        chan struct{}
+	fingerprint string
+	status      int
+	resp        response.CommonResponse
+	expireAt    time.Time
+}
+
+var (
+	idempotentMu      sync.Mutex
+	idempotentResults = map[string]*idempotentResult{}
+)
+
+// createTaskIdempotencyScope 创建任务的幂等作用域：
+// - 键由 UserId 和客户端幂等键组成，不同用户即使使用相同的幂等键也互不影响
+// - 指纹为去掉幂等键后的请求体，同一个键携带不同参数时拒绝复用
+func createTaskIdempotencyScope(bodyParams CreateDigitalHumanStreamTaskRequest) (string, string) {
+	key := bodyParams.UserId + "\x00" + bodyParams.IdempotencyKey
+	bodyParams.IdempotencyKey = ""
+	fingerprint, _ := json.Marshal(bodyParams)
+	return key, string(fingerprint)
+}
+
+// runIdempotent 以幂等键执行 fn：
+// - 相同键的并发请求等待首次执行完成后复用其结果
+// - 成功结果保留 idempotentResultTTL，期间的重试直接返回该结果
+// - 失败结果不保留，之后的重试会重新执行
+// - 相同键但请求指纹不同时返回 409，不执行 fn
+func runIdempotent(key, fingerprint string, fn func() (int, response.CommonResponse)) (int, response.CommonResponse) {
+	now := time.Now()
+
+	idempotentMu.Lock()
+	removeExpiredIdempotentResults(now)
+	if existing, ok := idempotentResults[key]; ok {
+		idempotentMu.Unlock()
+		if existing.fingerprint != fingerprint {
+			logger.LogWarnf("幂等键已用于不同的请求参数,key:%q", key)
+			return http.StatusConflict, response.CommonResponse{Code: http.StatusConflict, Message: "IdempotencyKey 已用于不同的请求参数", Data: map[string]interface{}{}}
+		}
+		<-existing.done
+		if existing.status == http.StatusOK {
+			logger.LogInfof("幂等键命中,复用已有结果,key:%q", key)
+			return existing.status, existing.resp
+		}
+		// 首次执行失败，结果已被移除，重新执行
+		return runIdempotent(key, fingerprint, fn)
+	}
+	result := &idempotentResult{done: make(chan struct{}), fingerprint: fingerprint}
+	idempotentResults[key] = result
+	idempotentMu.Unlock()
+
+	// fn panic 时同样要唤醒等待者并移除记录
+	result.status = http.StatusInternalServerError
+	defer func() {
+		idempotentMu.Lock()
+		if result.status == http.StatusOK {
+			result.expireAt = time.Now().Add(idempotentResultTTL)
+		} else {
+			delete(idempotentResults, key)
+		}
+		idempotentMu.Unlock()
+		close(result.done)
+	}()
+
+	result.status, result.resp = fn()
+	return result.status, result.resp
+}
+
+// removeExpiredIdempotentResults 清理过期的成功结果，调用方需持有 idempotentMu
+func removeExpiredIdempotentResults(now time.Time) {
+	for key, result := range idempotentResults {
+		if !result.expireAt.IsZero() && now.After(result.expireAt) {
+			delete(idempotentResults, key)
+		}
+	}
+}
@@ -0,0 +1,86 @@
+package handler
+
+import (
+	"net/http"
+	"testing"
+
+	"zego-digital-human-server/pkg/response"
+)
+
+func resetIdempotentResults() {
+	idempotentMu.Lock()
+	idempotentResults = map[string]*idempotentResult{}
+	idempotentMu.Unlock()
+}
+
+func runCreate(t *testing.T, req CreateDigitalHumanStreamTaskRequest, calls *int) (int, response.CommonResponse) {
+	t.Helper()
+	key, fingerprint := createTaskIdempotencyScope(req)
+	return runIdempotent(key, fingerprint, func() (int, response.CommonResponse) {
+		*calls++
+		return http.StatusOK, response.CommonResponse{Data: map[string]interface{}{"TaskId": req.UserId}}
+	})
+}
+
+func TestRunIdempotentReusesResultForSameUserAndBody(t *testing.T) {
+	resetIdempotentResults()
+	calls := 0
+	req := CreateDigitalHumanStreamTaskRequest{OutputMode: 2, UserId: "user_a", IdempotencyKey: "k1"}
+
+	runCreate(t, req, &calls)
+	status, resp := runCreate(t, req, &calls)
+
+	if calls != 1 {
+		t.Fatalf("期望只创建一次任务, 实际 %d 次", calls)
+	}
+	if status != http.StatusOK || resp.Data.(map[string]interface{})["TaskId"] != "user_a" {
+		t.Fatalf("重试未复用首次结果: status=%d resp=%v", status, resp)
+	}
+}
+
+func TestRunIdempotentIsolatesUsersWithSameKey(t *testing.T) {
+	resetIdempotentResults()
+	calls := 0
+
+	runCreate(t, CreateDigitalHumanStreamTaskRequest{OutputMode: 2, UserId: "user_a", IdempotencyKey: "shared"}, &calls)
+	status, resp := runCreate(t, CreateDigitalHumanStreamTaskRequest{OutputMode: 2, UserId: "user_b", IdempotencyKey: "shared"}, &calls)
+
+	if calls != 2 {
+		t.Fatalf("不同用户使用相同幂等键应分别创建任务, 实际创建 %d 次", calls)
+	}
+	if status != http.StatusOK || resp.Data.(map[string]interface{})["TaskId"] != "user_b" {
+		t.Fatalf("用户 user_b 拿到了其他用户的结果: status=%d resp=%v", status, resp)
+	}
+}
+
+func TestRunIdempotentRejectsDifferentBodyForSameKey(t *testing.T) {
+	resetIdempotentResults()
+	calls := 0
+
+	runCreate(t, CreateDigitalHumanStreamTaskRequest{OutputMode: 2, UserId: "user_a", IdempotencyKey: "k1"}, &calls)
+	status, resp := runCreate(t, CreateDigitalHumanStreamTaskRequest{OutputMode: 1, UserId: "user_a", IdempotencyKey: "k1"}, &calls)
+
+	if status != http.StatusConflict || resp.Code != http.StatusConflict {
+		t.Fatalf("期望 409, 实际 status=%d code=%d", status, resp.Code)
+	}
+	if calls != 1 {
+		t.Fatalf("参数不一致时不应再次创建任务, 实际创建 %d 次", calls)
+	}
+}
+
+func TestRunIdempotentRetriesAfterFailure(t *testing.T) {
+	resetIdempotentResults()
+	calls := 0
+	key, fingerprint := createTaskIdempotencyScope(CreateDigitalHumanStreamTaskRequest{OutputMode: 2, UserId: "user_a", IdempotencyKey: "k1"})
+	fail := func() (int, response.CommonResponse) {
+		calls++
+		return http.StatusInternalServerError, response.CommonResponse{Code: 500}
+	}
+
+	runIdempotent(key, fingerprint, fail)
+	runIdempotent(key, fingerprint, fail)
+
+	if calls != 2 {
+		t.Fatalf("失败结果不应被缓存, 实际执行 %d 次", calls)
+	}
+}
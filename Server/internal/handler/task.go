@@ -16,8 +16,9 @@ import (
 
 // CreateDigitalHumanStreamTaskRequest 创建数字人视频流任务请求
 type CreateDigitalHumanStreamTaskRequest struct {
-	OutputMode int    `json:"OutputMode"`                // 1-大图模式(web), 2-小图模式(mobile)
-	UserId     string `json:"UserId" binding:"required"` // 用户ID，必选
+	OutputMode     int    `json:"OutputMode"`                // 1-大图模式(web), 2-小图模式(mobile)
+	UserId         string `json:"UserId" binding:"required"` // 用户ID，必选
+	IdempotencyKey string `json:"IdempotencyKey"`            // 幂等键，可选；相同的键只创建一次任务
 }
 
 // createDigitalHumanStreamTaskData ZEGO 创建流任务返回的数据结构
@@ -52,12 +53,27 @@ func CreateDigitalHumanStreamTask(c *gin.Context) {
 	}
 	logger.LogInfof("请求信息,bodyParams:%v", bodyParams)
 
+	// 携带幂等键时，相同键的重试直接复用首次请求的结果，不会重复创建任务
+	var status int
+	var resp response.CommonResponse
+	if bodyParams.IdempotencyKey != "" {
+		key, fingerprint := createTaskIdempotencyScope(bodyParams)
+		status, resp = runIdempotent(key, fingerprint, func() (int, response.CommonResponse) {
+			return createDigitalHumanStreamTask(bodyParams)
+		})
+	} else {
+		status, resp = createDigitalHumanStreamTask(bodyParams)
+	}
+	c.JSON(status, resp)
+}
+
+// createDigitalHumanStreamTask 创建任务并生成客户端所需的配置，返回 HTTP 状态码和响应体
+func createDigitalHumanStreamTask(bodyParams CreateDigitalHumanStreamTaskRequest) (int, response.CommonResponse) {
 	//第二步: 配置校验
 	zegoConfig, code, msg := ensureZegoConfig()
 	if code != 0 {
 		logger.LogErrorf("Error,配置信息获取失败,code:%d,msg:%s", code, msg)
-		c.JSON(http.StatusInternalServerError, response.CommonResponse{Code: code, Message: msg, Data: map[string]interface{}{}})
-		return
+		return http.StatusInternalServerError, response.CommonResponse{Code: code, Message: msg, Data: map[string]interface{}{}}
 	}
 	logger.LogInfof("配置信息,zegoConfig:%v", zegoConfig)
 
@@ -70,8 +86,7 @@ func CreateDigitalHumanStreamTask(c *gin.Context) {
 	apiResp, code, msg := callCreateDigitalHumanStreamTaskAPI(zegoConfig, requestBody)
 	if code != 0 || apiResp.Code != 0 {
 		logger.LogErrorf("Error,调用ZEGO PAAS创建任务接口失败,code:%d,msg:%s", code, msg)
-		c.JSON(http.StatusInternalServerError, response.CommonResponse{Code: code, Message: msg, Data: map[string]interface{}{}})
-		return
+		return http.StatusInternalServerError, response.CommonResponse{Code: code, Message: msg, Data: map[string]interface{}{}}
 	}
 	logger.LogInfof("ZEGO PAAS响应信息,apiResp:%v", apiResp)
 
@@ -83,8 +98,7 @@ func CreateDigitalHumanStreamTask(c *gin.Context) {
 	base64ConfigString, base64Code, base64Msg := generateBase64Config(zegoConfig, roomId, streamId, bodyParams.OutputMode)
 	if base64Code != 0 {
 		logger.LogErrorf("Error,生成base64Config失败,code:%d,msg:%s", base64Code, base64Msg)
-		c.JSON(http.StatusInternalServerError, response.CommonResponse{Code: base64Code, Message: base64Msg, Data: map[string]interface{}{}})	
-		return
+		return http.StatusInternalServerError, response.CommonResponse{Code: base64Code, Message: base64Msg, Data: map[string]interface{}{}}
 	}
 	logger.LogInfof("生成的base64Config:%v", base64ConfigString)
 
@@ -99,8 +113,7 @@ func CreateDigitalHumanStreamTask(c *gin.Context) {
 	)
 	if tokenErr != nil || token == "" {
 		logger.LogError("Error,生成 Token 失败:", tokenErr)
-		c.JSON(http.StatusInternalServerError, response.CommonResponse{Code: 500, Message: "生成 Token 失败: " + tokenErr.Error(), Data: map[string]interface{}{}})
-		return
+		return http.StatusInternalServerError, response.CommonResponse{Code: 500, Message: "生成 Token 失败: " + tokenErr.Error(), Data: map[string]interface{}{}}
 	}
 
 	logger.LogInfof("生成的token:%v", token)
@@ -113,12 +126,12 @@ func CreateDigitalHumanStreamTask(c *gin.Context) {
 
 	//最后一步 返回结果
 	logger.LogInfof("返回结果,apiResp:%v", apiResp)
-	c.JSON(http.StatusOK, response.CommonResponse{
+	return http.StatusOK, response.CommonResponse{
 		Code:      apiResp.Code,
 		Message:   apiResp.Message,
 		Data:      apiResp.Data,
 		RequestId: apiResp.RequestId,
-	})
+	}
 }
 
 // parseCreateDigitalHumanStreamTaskRequest 校验/解析请求参数